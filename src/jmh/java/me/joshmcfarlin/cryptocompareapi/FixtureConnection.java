@@ -0,0 +1,68 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
+import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link Connection} answering requests with generated responses from the fixtures directory, without checking rate
+ * limits, so benchmarks measure only the library
+ * @author Josh McFarlin
+ */
+public class FixtureConnection implements Connection {
+    /**
+     * The generated responses keyed by a part of the URL path they answer
+     */
+    private final Map<String, String> fixtures = new LinkedHashMap<>();
+
+    /**
+     * Creates a connection answering every endpoint with a generated response
+     */
+    public FixtureConnection() {
+        fixtures.put("/data/histo", load("histoday.json"));
+        fixtures.put("/data/pricemultifull", load("pricemultifull.json"));
+        fixtures.put("/data/all/coinlist", load("coinlist.json"));
+        fixtures.put("/data/all/exchanges", load("exchanges.json"));
+        fixtures.put("/stats/rate/limit", load("ratelimit.json"));
+    }
+
+    /**
+     * Reads a fixture from the classpath
+     * @param name The file name of the fixture
+     * @return The content of the fixture
+     */
+    public static String load(String name) {
+        try (InputStream in = FixtureConnection.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read; (read = in.read(buffer)) != -1; ) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Reader getJSON(String urlString) throws IOException {
+        for (Map.Entry<String, String> fixture : fixtures.entrySet()) {
+            if (urlString.contains(fixture.getKey())) {
+                return new StringReader(fixture.getValue());
+            }
+        }
+        throw new FileNotFoundException("No fixture for " + urlString);
+    }
+
+    @Override
+    public Reader getJSON(String urlString, CallTypes type) throws IOException {
+        return getJSON(urlString);
+    }
+}
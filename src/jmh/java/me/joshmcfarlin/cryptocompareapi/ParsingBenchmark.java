@@ -0,0 +1,67 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures parsing the generated responses of the largest endpoints through the public methods
+ * @author Josh McFarlin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+    private Historic historic;
+    private Market market;
+    private Coins coins;
+    private Exchanges exchanges;
+
+    @Setup
+    public void setUp() {
+        FixtureConnection connection = new FixtureConnection();
+        historic = new Historic(connection);
+        market = new Market(connection);
+        coins = new Coins(connection);
+        exchanges = new Exchanges(connection);
+    }
+
+    @Benchmark
+    public Historic.History history() throws Exception {
+        return historic.getDay("BTC", "USD", 2000);
+    }
+
+    @Benchmark
+    public Historic.HistoryColumns historyColumns() throws Exception {
+        return historic.getColumns(Historic.Resolution.DAY, "BTC", "USD", 2000, null);
+    }
+
+    @Benchmark
+    public Object priceMultiFull() throws Exception {
+        return market.getMultiFull("BTC,ETH,XRP,LTC,BCH,EOS,BNB,XLM,ADA,TRX,XMR,DASH,NEO,ETC,XEM,ZEC,DOGE,QTUM,BAT,OMG",
+                "USD,EUR,JPY,GBP,BTC");
+    }
+
+    @Benchmark
+    public Coins.CoinList coinList() throws Exception {
+        return coins.getCoinList();
+    }
+
+    @Benchmark
+    public int coinListStreamedSymbols() throws Exception {
+        AtomicInteger sortOrders = new AtomicInteger();
+        coins.streamCoinList(EnumSet.of(Coins.CoinList.CoinEntry.Field.SYMBOL, Coins.CoinList.CoinEntry.Field.SORT_ORDER),
+                entry -> sortOrders.addAndGet(entry.getSortOrder()));
+        return sortOrders.get();
+    }
+
+    @Benchmark
+    public Exchanges.ExchangeList allExchanges() throws Exception {
+        return exchanges.getAllExchanges();
+    }
+}
@@ -0,0 +1,68 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
+import me.joshmcfarlin.cryptocompareapi.utils.IntervalTypes;
+import me.joshmcfarlin.cryptocompareapi.utils.RateLimiting;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the local rate limit decision made before every call, with the limits synced from a generated response
+ *
+ * The buckets are refilled before every iteration and periodic resyncs are turned off, so the calls measured always
+ * find tokens left and never parse the rate limit response.
+ * @author Josh McFarlin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitingBenchmark {
+    @Setup
+    public void setUp() {
+        RateLimiting.setConnection(new FixtureConnection());
+        RateLimiting.setSyncInterval(1, TimeUnit.DAYS);
+        RateLimiting.setMinSyncInterval(1, TimeUnit.DAYS);
+    }
+
+    @Setup(Level.Iteration)
+    public void refill() throws IOException {
+        RateLimiting.sync();
+    }
+
+    @TearDown
+    public void tearDown() {
+        RateLimiting.setSyncInterval(1, TimeUnit.MINUTES);
+        RateLimiting.setMinSyncInterval(1, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public boolean callable() throws IOException {
+        return RateLimiting.callable(CallTypes.PRICE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean callableContended() throws IOException {
+        return RateLimiting.callable(CallTypes.PRICE);
+    }
+
+    @Benchmark
+    public boolean checkInterval() throws IOException {
+        return RateLimiting.checkInterval(CallTypes.HISTO, IntervalTypes.values());
+    }
+
+    @Benchmark
+    public long nanosUntilCallable() {
+        return RateLimiting.nanosUntilCallable(CallTypes.PRICE);
+    }
+
+    @Benchmark
+    public long callsLeft() {
+        return RateLimiting.getCallsLeft(CallTypes.PRICE, IntervalTypes.SECOND);
+    }
+}
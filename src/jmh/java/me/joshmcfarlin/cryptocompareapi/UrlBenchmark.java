@@ -0,0 +1,76 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
+import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import me.joshmcfarlin.cryptocompareapi.utils.ResponseParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the request URLs of the most used methods, the response is never read
+ * @author Josh McFarlin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlBenchmark {
+    /**
+     * Remembers the URL of every request instead of making it
+     */
+    private static class RecordingConnection implements Connection {
+        private String lastUrl;
+
+        @Override
+        public Reader getJSON(String urlString) {
+            lastUrl = urlString;
+            return new StringReader("");
+        }
+
+        @Override
+        public <T> T getJSON(String urlString, CallTypes type, ResponseParser<T> parser) {
+            lastUrl = urlString;
+            return null;
+        }
+    }
+
+    private RecordingConnection connection;
+    private Historic historic;
+    private Market market;
+
+    @Setup
+    public void setUp() {
+        connection = new RecordingConnection();
+        historic = new Historic(connection);
+        market = new Market(connection);
+    }
+
+    @Benchmark
+    public String historicDefaults() throws Exception {
+        historic.getDay("BTC", "USD");
+        return connection.lastUrl;
+    }
+
+    @Benchmark
+    public String historicAllParameters() throws Exception {
+        historic.getHour("btc", "usd", true, "Coinbase", 2, false, 500, 1541030400, "bench", false);
+        return connection.lastUrl;
+    }
+
+    @Benchmark
+    public String price() throws Exception {
+        market.getPrice("BTC", "USD,EUR,JPY", true, "Coinbase", "bench", false);
+        return connection.lastUrl;
+    }
+
+    @Benchmark
+    public String multiFull() throws Exception {
+        market.getMultiFull("BTC,ETH,XRP,LTC", "USD,EUR", false, "CCCAGG", "bench", null);
+        return connection.lastUrl;
+    }
+}
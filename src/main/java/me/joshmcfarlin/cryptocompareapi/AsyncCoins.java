@@ -0,0 +1,79 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.Async;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Contains asynchronous versions of the methods for requesting information about coins listed by CryptoCompare
+ * @see Coins
+ * @author Josh McFarlin
+ */
+public class AsyncCoins {
+    /**
+     * The object used to make the requests
+     */
+    private final Coins coins;
+
+    /**
+     * The executor the requests are run on
+     */
+    private final Executor executor;
+
+    /**
+     * Creates an object which runs requests on the default executor
+     * @param coins The object used to make the requests
+     * @see Async#getDefaultExecutor()
+     */
+    public AsyncCoins(Coins coins) {
+        this(coins, Async.getDefaultExecutor());
+    }
+
+    /**
+     * Creates an object which runs requests on the provided executor
+     * @param coins The object used to make the requests
+     * @param executor The executor the requests are run on
+     */
+    public AsyncCoins(Coins coins, Executor executor) {
+        this.coins = coins;
+        this.executor = executor;
+    }
+
+    /**
+     * @see Coins#getCoinList()
+     */
+    public CompletableFuture<Coins.CoinList> getCoinList() {
+        return Async.supply(executor, () -> coins.getCoinList());
+    }
+
+    /**
+     * @see Coins#streamCoinList(Set, Consumer)
+     */
+    public CompletableFuture<Integer> streamCoinList(Set<Coins.CoinList.CoinEntry.Field> fields, Consumer<Coins.CoinList.CoinEntry> consumer) {
+        return Async.supply(executor, () -> coins.streamCoinList(fields, consumer));
+    }
+
+    /**
+     * @see Coins#streamCoinList(Consumer)
+     */
+    public CompletableFuture<Integer> streamCoinList(Consumer<Coins.CoinList.CoinEntry> consumer) {
+        return Async.supply(executor, () -> coins.streamCoinList(consumer));
+    }
+
+    /**
+     * @see Coins#getPairSnapshot(String, String)
+     */
+    public CompletableFuture<Coins.PairSnapshot> getPairSnapshot(String fromSym, String toSym) {
+        return Async.supply(executor, () -> coins.getPairSnapshot(fromSym, toSym));
+    }
+
+    /**
+     * @see Coins#getCoinSnapshot(int)
+     */
+    public CompletableFuture<Coins.CoinSnapshot> getCoinSnapshot(int id) {
+        return Async.supply(executor, () -> coins.getCoinSnapshot(id));
+    }
+}
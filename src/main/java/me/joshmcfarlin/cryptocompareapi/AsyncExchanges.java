@@ -0,0 +1,71 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.Async;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Contains asynchronous versions of the methods for requesting information about Exchanges listed by CryptoCompare
+ * @see Exchanges
+ * @author Josh McFarlin
+ */
+public class AsyncExchanges {
+    /**
+     * The object used to make the requests
+     */
+    private final Exchanges exchanges;
+
+    /**
+     * The executor the requests are run on
+     */
+    private final Executor executor;
+
+    /**
+     * Creates an object which runs requests on the default executor
+     * @param exchanges The object used to make the requests
+     * @see Async#getDefaultExecutor()
+     */
+    public AsyncExchanges(Exchanges exchanges) {
+        this(exchanges, Async.getDefaultExecutor());
+    }
+
+    /**
+     * Creates an object which runs requests on the provided executor
+     * @param exchanges The object used to make the requests
+     * @param executor The executor the requests are run on
+     */
+    public AsyncExchanges(Exchanges exchanges, Executor executor) {
+        this.exchanges = exchanges;
+        this.executor = executor;
+    }
+
+    /**
+     * @see Exchanges#getAllExchanges()
+     */
+    public CompletableFuture<Exchanges.ExchangeList> getAllExchanges() {
+        return Async.supply(executor, () -> exchanges.getAllExchanges());
+    }
+
+    /**
+     * @see Exchanges#getTopExchanges(String, String, Integer, String, Boolean)
+     */
+    public CompletableFuture<List<Exchanges.Exchange>> getTopExchanges(String fSym, String tSym, Integer limit, String extraParams, Boolean sign) {
+        return Async.supply(executor, () -> exchanges.getTopExchanges(fSym, tSym, limit, extraParams, sign));
+    }
+
+    /**
+     * @see Exchanges#getTopExchanges(String, String)
+     */
+    public CompletableFuture<List<Exchanges.Exchange>> getTopExchanges(String fSym, String tSym) {
+        return Async.supply(executor, () -> exchanges.getTopExchanges(fSym, tSym));
+    }
+
+    /**
+     * @see Exchanges#getTopExchanges(String, String, Integer)
+     */
+    public CompletableFuture<List<Exchanges.Exchange>> getTopExchanges(String fSym, String tSym, Integer limit) {
+        return Async.supply(executor, () -> exchanges.getTopExchanges(fSym, tSym, limit));
+    }
+}
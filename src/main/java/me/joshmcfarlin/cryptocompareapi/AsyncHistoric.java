@@ -0,0 +1,201 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.Async;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Contains asynchronous versions of the methods for requesting information about historic cryptocurrency prices
+ * @see Historic
+ * @author Josh McFarlin
+ */
+public class AsyncHistoric {
+    /**
+     * The object used to make the requests
+     */
+    private final Historic historic;
+
+    /**
+     * The executor the requests are run on
+     */
+    private final Executor executor;
+
+    /**
+     * Creates an object which runs requests on the default executor
+     * @param historic The object used to make the requests
+     * @see Async#getDefaultExecutor()
+     */
+    public AsyncHistoric(Historic historic) {
+        this(historic, Async.getDefaultExecutor());
+    }
+
+    /**
+     * Creates an object which runs requests on the provided executor
+     * @param historic The object used to make the requests
+     * @param executor The executor the requests are run on
+     */
+    public AsyncHistoric(Historic historic, Executor executor) {
+        this.historic = historic;
+        this.executor = executor;
+    }
+
+    /**
+     * @see Historic#getMinute(String, String, Boolean, String, Integer, Boolean, Integer, Integer, String, Boolean)
+     */
+    public CompletableFuture<Historic.History> getMinute(String fSym, String tSym, Boolean tryConversion, String e, Integer aggregate, Boolean aggregatePredictableTimePeriods, Integer limit, Integer toTs, String extraParams, Boolean sign) {
+        return Async.supply(executor, () -> historic.getMinute(fSym, tSym, tryConversion, e, aggregate, aggregatePredictableTimePeriods, limit, toTs, extraParams, sign));
+    }
+
+    /**
+     * @see Historic#getMinute(String, String)
+     */
+    public CompletableFuture<Historic.History> getMinute(String fSym, String tSym) {
+        return Async.supply(executor, () -> historic.getMinute(fSym, tSym));
+    }
+
+    /**
+     * @see Historic#getMinute(String, String, Integer)
+     */
+    public CompletableFuture<Historic.History> getMinute(String fSym, String tSym, Integer limit) {
+        return Async.supply(executor, () -> historic.getMinute(fSym, tSym, limit));
+    }
+
+    /**
+     * @see Historic#getMinute(String, String, Integer, Integer)
+     */
+    public CompletableFuture<Historic.History> getMinute(String fSym, String tSym, Integer limit, Integer toTs) {
+        return Async.supply(executor, () -> historic.getMinute(fSym, tSym, limit, toTs));
+    }
+
+    /**
+     * @see Historic#getHour(String, String, Boolean, String, Integer, Boolean, Integer, Integer, String, Boolean)
+     */
+    public CompletableFuture<Historic.History> getHour(String fSym, String tSym, Boolean tryConversion, String e, Integer aggregate, Boolean aggregatePredictableTimePeriods, Integer limit, Integer toTs, String extraParams, Boolean sign) {
+        return Async.supply(executor, () -> historic.getHour(fSym, tSym, tryConversion, e, aggregate, aggregatePredictableTimePeriods, limit, toTs, extraParams, sign));
+    }
+
+    /**
+     * @see Historic#getHour(String, String)
+     */
+    public CompletableFuture<Historic.History> getHour(String fSym, String tSym) {
+        return Async.supply(executor, () -> historic.getHour(fSym, tSym));
+    }
+
+    /**
+     * @see Historic#getHour(String, String, Integer)
+     */
+    public CompletableFuture<Historic.History> getHour(String fSym, String tSym, Integer limit) {
+        return Async.supply(executor, () -> historic.getHour(fSym, tSym, limit));
+    }
+
+    /**
+     * @see Historic#getHour(String, String, Integer, Integer)
+     */
+    public CompletableFuture<Historic.History> getHour(String fSym, String tSym, Integer limit, Integer toTs) {
+        return Async.supply(executor, () -> historic.getHour(fSym, tSym, limit, toTs));
+    }
+
+    /**
+     * @see Historic#getDay(String, String, Boolean, String, Integer, Boolean, Integer, Integer, String, Boolean)
+     */
+    public CompletableFuture<Historic.History> getDay(String fSym, String tSym, Boolean tryConversion, String e, Integer aggregate, Boolean aggregatePredictableTimePeriods, Integer limit, Integer toTs, String extraParams, Boolean sign) {
+        return Async.supply(executor, () -> historic.getDay(fSym, tSym, tryConversion, e, aggregate, aggregatePredictableTimePeriods, limit, toTs, extraParams, sign));
+    }
+
+    /**
+     * @see Historic#getDay(String, String)
+     */
+    public CompletableFuture<Historic.History> getDay(String fSym, String tSym) {
+        return Async.supply(executor, () -> historic.getDay(fSym, tSym));
+    }
+
+    /**
+     * @see Historic#getDay(String, String, Integer)
+     */
+    public CompletableFuture<Historic.History> getDay(String fSym, String tSym, Integer limit) {
+        return Async.supply(executor, () -> historic.getDay(fSym, tSym, limit));
+    }
+
+    /**
+     * @see Historic#getDay(String, String, Integer, Integer)
+     */
+    public CompletableFuture<Historic.History> getDay(String fSym, String tSym, Integer limit, Integer toTs) {
+        return Async.supply(executor, () -> historic.getDay(fSym, tSym, limit, toTs));
+    }
+
+    /**
+     * @see Historic#getColumns(Historic.Resolution, String, String, Boolean, String, Integer, Boolean, Integer, Integer, String, Boolean)
+     */
+    public CompletableFuture<Historic.HistoryColumns> getColumns(Historic.Resolution resolution, String fSym, String tSym, Boolean tryConversion, String e, Integer aggregate, Boolean aggregatePredictableTimePeriods, Integer limit, Integer toTs, String extraParams, Boolean sign) {
+        return Async.supply(executor, () -> historic.getColumns(resolution, fSym, tSym, tryConversion, e, aggregate, aggregatePredictableTimePeriods, limit, toTs, extraParams, sign));
+    }
+
+    /**
+     * @see Historic#getColumns(Historic.Resolution, String, String, Integer, Integer)
+     */
+    public CompletableFuture<Historic.HistoryColumns> getColumns(Historic.Resolution resolution, String fSym, String tSym, Integer limit, Integer toTs) {
+        return Async.supply(executor, () -> historic.getColumns(resolution, fSym, tSym, limit, toTs));
+    }
+
+    /**
+     * @see Historic#backfill(String, String, Historic.Resolution, int, int)
+     */
+    public CompletableFuture<Historic.HistoryColumns> backfill(String fSym, String tSym, Historic.Resolution resolution, int fromTs, int toTs) {
+        return Async.supply(executor, () -> historic.backfill(fSym, tSym, resolution, fromTs, toTs));
+    }
+
+    /**
+     * @see Historic#backfill(String, String, String, Historic.Resolution, int, int)
+     */
+    public CompletableFuture<Historic.HistoryColumns> backfill(String fSym, String tSym, String e, Historic.Resolution resolution, int fromTs, int toTs) {
+        return Async.supply(executor, () -> historic.backfill(fSym, tSym, e, resolution, fromTs, toTs));
+    }
+
+    /**
+     * @see Historic#backfill(String, String, String, Historic.Resolution, int, int, Consumer)
+     */
+    public CompletableFuture<Void> backfill(String fSym, String tSym, String e, Historic.Resolution resolution, int fromTs, int toTs, Consumer<Historic.HistoryColumns> consumer) {
+        return Async.supply(executor, () -> {
+            historic.backfill(fSym, tSym, e, resolution, fromTs, toTs, consumer);
+            return null;
+        });
+    }
+
+    /**
+     * @see Historic#getPriceAtTime(String, String, Boolean, Integer, String, String, Historic.CalcType, Boolean)
+     */
+    public CompletableFuture<Map> getPriceAtTime(String fSym, String tSyms, Boolean tryConversion, Integer ts, String e, String extraParams, Historic.CalcType calculationType, Boolean sign) {
+        return Async.supply(executor, () -> historic.getPriceAtTime(fSym, tSyms, tryConversion, ts, e, extraParams, calculationType, sign));
+    }
+
+    /**
+     * @see Historic#getPriceAtTime(String, String, Integer)
+     */
+    public CompletableFuture<Map> getPriceAtTime(String fSym, String tSyms, Integer ts) {
+        return Async.supply(executor, () -> historic.getPriceAtTime(fSym, tSyms, ts));
+    }
+
+    /**
+     * @see Historic#getPriceAtTime(String, String, Integer, String)
+     */
+    public CompletableFuture<Map> getPriceAtTime(String fSym, String tSyms, Integer ts, String e) {
+        return Async.supply(executor, () -> historic.getPriceAtTime(fSym, tSyms, ts, e));
+    }
+
+    /**
+     * @see Historic#getDayAverage(String, String, Boolean, String, Historic.AverageType, Integer, Integer, String, Boolean)
+     */
+    public CompletableFuture<Double> getDayAverage(String fSym, String tSym, Boolean tryConversion, String e, Historic.AverageType avgType, Integer UTCHourDiff, Integer toTs, String extraParams, Boolean sign) {
+        return Async.supply(executor, () -> historic.getDayAverage(fSym, tSym, tryConversion, e, avgType, UTCHourDiff, toTs, extraParams, sign));
+    }
+
+    /**
+     * @see Historic#getDayAverage(String, String)
+     */
+    public CompletableFuture<Double> getDayAverage(String fSym, String tSym) {
+        return Async.supply(executor, () -> historic.getDayAverage(fSym, tSym));
+    }
+}
@@ -0,0 +1,185 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.Async;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Contains asynchronous versions of the methods for requesting information about the cryptocurrency market on multiple exchanges
+ * @see Market
+ * @author Josh McFarlin
+ */
+public class AsyncMarket {
+    /**
+     * The object used to make the requests
+     */
+    private final Market market;
+
+    /**
+     * The executor the requests are run on
+     */
+    private final Executor executor;
+
+    /**
+     * Creates an object which runs requests on the default executor
+     * @param market The object used to make the requests
+     * @see Async#getDefaultExecutor()
+     */
+    public AsyncMarket(Market market) {
+        this(market, Async.getDefaultExecutor());
+    }
+
+    /**
+     * Creates an object which runs requests on the provided executor
+     * @param market The object used to make the requests
+     * @param executor The executor the requests are run on
+     */
+    public AsyncMarket(Market market, Executor executor) {
+        this.market = market;
+        this.executor = executor;
+    }
+
+    /**
+     * @see Market#getPrice(String, String, Boolean, String, String, Boolean)
+     */
+    public CompletableFuture<Map<String, Double>> getPrice(String fSym, String tSyms, Boolean tryConversion, String e, String extraParams, Boolean sign) {
+        return Async.supply(executor, () -> market.getPrice(fSym, tSyms, tryConversion, e, extraParams, sign));
+    }
+
+    /**
+     * @see Market#getPrice(String, String)
+     */
+    public CompletableFuture<Map<String, Double>> getPrice(String fSym, String tSyms) {
+        return Async.supply(executor, () -> market.getPrice(fSym, tSyms));
+    }
+
+    /**
+     * @see Market#getMultiPrice(String, String, Boolean, String, String, Boolean)
+     */
+    public CompletableFuture<Map<String, Map<String, Double>>> getMultiPrice(String fSyms, String tSyms, Boolean tryConversion, String e, String extraParams, Boolean sign) {
+        return Async.supply(executor, () -> market.getMultiPrice(fSyms, tSyms, tryConversion, e, extraParams, sign));
+    }
+
+    /**
+     * @see Market#getMultiPrice(String, String)
+     */
+    public CompletableFuture<Map<String, Map<String, Double>>> getMultiPrice(String fSym, String tSyms) {
+        return Async.supply(executor, () -> market.getMultiPrice(fSym, tSyms));
+    }
+
+    /**
+     * @see Market#getMultiPrice(Collection, Collection, Boolean, String, String, Boolean)
+     */
+    public CompletableFuture<Map<String, Map<String, Double>>> getMultiPrice(Collection<String> fSyms, Collection<String> tSyms, Boolean tryConversion, String e, String extraParams, Boolean sign) {
+        return market.batchedAsync(fSyms, tSyms, (f, t) -> market.getMultiPrice(f, t, tryConversion, e, extraParams, sign));
+    }
+
+    /**
+     * @see Market#getMultiPrice(Collection, Collection)
+     */
+    public CompletableFuture<Map<String, Map<String, Double>>> getMultiPrice(Collection<String> fSyms, Collection<String> tSyms) {
+        return getMultiPrice(fSyms, tSyms, null, null, null, null);
+    }
+
+    /**
+     * @see Market#getMultiFull(String, String, Boolean, String, String, Boolean)
+     */
+    public CompletableFuture<Map<String, Map<String, Market.toSym>>> getMultiFull(String fSyms, String tSyms, Boolean tryConversion, String e, String extraParams, Boolean sign) {
+        return Async.supply(executor, () -> market.getMultiFull(fSyms, tSyms, tryConversion, e, extraParams, sign));
+    }
+
+    /**
+     * @see Market#getMultiFull(String, String)
+     */
+    public CompletableFuture<Map<String, Map<String, Market.toSym>>> getMultiFull(String fSym, String tSyms) {
+        return Async.supply(executor, () -> market.getMultiFull(fSym, tSyms));
+    }
+
+    /**
+     * @see Market#refresh(PriceMatrix, Boolean, String, String, Boolean)
+     */
+    public CompletableFuture<Void> refresh(PriceMatrix matrix, Boolean tryConversion, String e, String extraParams, Boolean sign) {
+        return market.refreshAsync(matrix, tryConversion, e, extraParams, sign);
+    }
+
+    /**
+     * @see Market#refresh(PriceMatrix)
+     */
+    public CompletableFuture<Void> refresh(PriceMatrix matrix) {
+        return refresh(matrix, null, null, null, null);
+    }
+
+    /**
+     * @see Market#getMultiFull(Collection, Collection, Boolean, String, String, Boolean)
+     */
+    public CompletableFuture<Map<String, Map<String, Market.toSym>>> getMultiFull(Collection<String> fSyms, Collection<String> tSyms, Boolean tryConversion, String e, String extraParams, Boolean sign) {
+        return market.batchedAsync(fSyms, tSyms, (f, t) -> market.getMultiFull(f, t, tryConversion, e, extraParams, sign));
+    }
+
+    /**
+     * @see Market#getMultiFull(Collection, Collection)
+     */
+    public CompletableFuture<Map<String, Map<String, Market.toSym>>> getMultiFull(Collection<String> fSyms, Collection<String> tSyms) {
+        return getMultiFull(fSyms, tSyms, null, null, null, null);
+    }
+
+    /**
+     * @see Market#getExchangeAverage(String, String, String, String, Boolean)
+     */
+    public CompletableFuture<Market.ExchangeAverage> getExchangeAverage(String fSym, String tSym, String e, String extraParams, Boolean sign) {
+        return Async.supply(executor, () -> market.getExchangeAverage(fSym, tSym, e, extraParams, sign));
+    }
+
+    /**
+     * @see Market#getExchangeAverage(String, String, String)
+     */
+    public CompletableFuture<Market.ExchangeAverage> getExchangeAverage(String fSym, String tSym, String e) {
+        return Async.supply(executor, () -> market.getExchangeAverage(fSym, tSym, e));
+    }
+
+    /**
+     * @see Market#getExchangeAverage(String, String)
+     */
+    public CompletableFuture<Market.ExchangeAverage> getExchangeAverage(String fSym, String tSym) {
+        return Async.supply(executor, () -> market.getExchangeAverage(fSym, tSym));
+    }
+
+    /**
+     * @see Market#getTopVolumes(String, Integer, String, Boolean)
+     */
+    public CompletableFuture<List<Market.Coin>> getTopVolumes(String tSym, Integer limit, String extraParams, Boolean sign) {
+        return Async.supply(executor, () -> market.getTopVolumes(tSym, limit, extraParams, sign));
+    }
+
+    /**
+     * @see Market#getTopVolumes(String, Integer)
+     */
+    public CompletableFuture<List<Market.Coin>> getTopVolumes(String tSym, Integer limit) {
+        return Async.supply(executor, () -> market.getTopVolumes(tSym, limit));
+    }
+
+    /**
+     * @see Market#getTopVolumes(String)
+     */
+    public CompletableFuture<List<Market.Coin>> getTopVolumes(String tSym) {
+        return Async.supply(executor, () -> market.getTopVolumes(tSym));
+    }
+
+    /**
+     * @see Market#getTopPairs(String, Integer, String, Boolean)
+     */
+    public CompletableFuture<List<Market.Pair>> getTopPairs(String fSym, Integer limit, String extraParams, Boolean sign) {
+        return Async.supply(executor, () -> market.getTopPairs(fSym, limit, extraParams, sign));
+    }
+
+    /**
+     * @see Market#getTopPairs(String)
+     */
+    public CompletableFuture<List<Market.Pair>> getTopPairs(String fSym) {
+        return Async.supply(executor, () -> market.getTopPairs(fSym));
+    }
+}
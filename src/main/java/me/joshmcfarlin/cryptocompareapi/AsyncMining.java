@@ -0,0 +1,56 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.Async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Contains asynchronous versions of the methods for requesting information about cryptocurrency mining
+ * @see Mining
+ * @author Josh McFarlin
+ */
+public class AsyncMining {
+    /**
+     * The object used to make the requests
+     */
+    private final Mining mining;
+
+    /**
+     * The executor the requests are run on
+     */
+    private final Executor executor;
+
+    /**
+     * Creates an object which runs requests on the default executor
+     * @param mining The object used to make the requests
+     * @see Async#getDefaultExecutor()
+     */
+    public AsyncMining(Mining mining) {
+        this(mining, Async.getDefaultExecutor());
+    }
+
+    /**
+     * Creates an object which runs requests on the provided executor
+     * @param mining The object used to make the requests
+     * @param executor The executor the requests are run on
+     */
+    public AsyncMining(Mining mining, Executor executor) {
+        this.mining = mining;
+        this.executor = executor;
+    }
+
+    /**
+     * @see Mining#getContracts()
+     */
+    public CompletableFuture<Mining.Contracts> getContracts() {
+        return Async.supply(executor, () -> mining.getContracts());
+    }
+
+    /**
+     * @see Mining#getEquipment()
+     */
+    public CompletableFuture<Mining.Equipment> getEquipment() {
+        return Async.supply(executor, () -> mining.getEquipment());
+    }
+}
@@ -0,0 +1,64 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.Async;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Contains asynchronous versions of the methods for requesting information about news listed on CryptoCompare
+ * @see News
+ * @author Josh McFarlin
+ */
+public class AsyncNews {
+    /**
+     * The object used to make the requests
+     */
+    private final News news;
+
+    /**
+     * The executor the requests are run on
+     */
+    private final Executor executor;
+
+    /**
+     * Creates an object which runs requests on the default executor
+     * @param news The object used to make the requests
+     * @see Async#getDefaultExecutor()
+     */
+    public AsyncNews(News news) {
+        this(news, Async.getDefaultExecutor());
+    }
+
+    /**
+     * Creates an object which runs requests on the provided executor
+     * @param news The object used to make the requests
+     * @param executor The executor the requests are run on
+     */
+    public AsyncNews(News news, Executor executor) {
+        this.news = news;
+        this.executor = executor;
+    }
+
+    /**
+     * @see News#newsProviderList()
+     */
+    public CompletableFuture<List<News.NewsProvider>> newsProviderList() {
+        return Async.supply(executor, () -> news.newsProviderList());
+    }
+
+    /**
+     * @see News#newsList()
+     */
+    public CompletableFuture<List<News.NewsStory>> newsList() {
+        return Async.supply(executor, () -> news.newsList());
+    }
+
+    /**
+     * @see News#newsList(Integer, String)
+     */
+    public CompletableFuture<List<News.NewsStory>> newsList(Integer lTs, String lang) {
+        return Async.supply(executor, () -> news.newsList(lTs, lang));
+    }
+}
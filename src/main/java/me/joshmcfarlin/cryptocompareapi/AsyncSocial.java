@@ -0,0 +1,49 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.Async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Contains asynchronous versions of the methods for requesting information about social media accounts for cryptocurrencies and exchanges
+ * @see Social
+ * @author Josh McFarlin
+ */
+public class AsyncSocial {
+    /**
+     * The object used to make the requests
+     */
+    private final Social social;
+
+    /**
+     * The executor the requests are run on
+     */
+    private final Executor executor;
+
+    /**
+     * Creates an object which runs requests on the default executor
+     * @param social The object used to make the requests
+     * @see Async#getDefaultExecutor()
+     */
+    public AsyncSocial(Social social) {
+        this(social, Async.getDefaultExecutor());
+    }
+
+    /**
+     * Creates an object which runs requests on the provided executor
+     * @param social The object used to make the requests
+     * @param executor The executor the requests are run on
+     */
+    public AsyncSocial(Social social, Executor executor) {
+        this.social = social;
+        this.executor = executor;
+    }
+
+    /**
+     * @see Social#getStats(int)
+     */
+    public CompletableFuture<Social.SocialStats> getStats(int id) {
+        return Async.supply(executor, () -> social.getStats(id));
+    }
+}
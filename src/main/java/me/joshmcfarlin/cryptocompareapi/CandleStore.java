@@ -0,0 +1,389 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores historic data on disk so it does not have to be requested again after a restart
+ *
+ * Every symbol pair, exchange and resolution is kept in its own memory-mapped file of fixed-width records sorted by
+ * time, which allows ranges to be found with a binary search. New data points after the last stored one are appended,
+ * older ones are merged in and only the records after them are rewritten. Appends are published by the record count
+ * in the header. A merge is first written to a journal after the records and marked in the header, so a merge a crash
+ * interrupted is finished when the file is opened again instead of leaving records half updated.
+ * @author Josh McFarlin
+ */
+public class CandleStore implements Closeable {
+    /**
+     * Identifies a candle store file, "CCS1"
+     */
+    private static final int MAGIC = 0x43435331;
+
+    /**
+     * The number of bytes before the first record: magic, record size, record count and the journal of a merge in
+     * progress, which is the index of the journal's first slot plus one or 0 when there is none
+     */
+    private static final int HEADER_SIZE = 16;
+
+    /**
+     * The number of bytes in a record: the time followed by open, high, low, close, volume from and volume to
+     */
+    private static final int RECORD_SIZE = 4 + 6 * 8;
+
+    /**
+     * The minimum number of records a file grows by when it runs out of space
+     */
+    private static final int GROWTH = 4096;
+
+    /**
+     * The directory the files are kept in
+     */
+    private final Path directory;
+
+    /**
+     * The open files, keyed by file name
+     */
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a store which keeps its files in the provided directory
+     * @param directory The directory the files are kept in, created if it does not exist
+     * @throws IOException when the directory cannot be created
+     */
+    public CandleStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Stores data points, replacing stored ones with the same time
+     * @param fSym The cryptocurrency symbol of the data
+     * @param tSym The currency symbol of the data
+     * @param e The exchange of the data, null for CCCAGG
+     * @param resolution The time between two data points
+     * @param columns The data points to store, sorted by time
+     * @throws IOException when the data cannot be written
+     */
+    public void put(String fSym, String tSym, String e, Historic.Resolution resolution, Historic.HistoryColumns columns) throws IOException {
+        if (columns.size() == 0) return;
+        series(fSym, tSym, e, resolution).put(columns);
+    }
+
+    /**
+     * Reads the stored data points between two times
+     * @param fSym The cryptocurrency symbol of the data
+     * @param tSym The currency symbol of the data
+     * @param e The exchange of the data, null for CCCAGG
+     * @param resolution The time between two data points
+     * @param fromTs First unix timestamp to return data for
+     * @param toTs Last unix timestamp to return data for
+     * @param maxPoints The maximum number of data points to return, starting from fromTs
+     * @return The stored data points, which may have gaps
+     * @throws IOException when the data cannot be read
+     */
+    public Historic.HistoryColumns read(String fSym, String tSym, String e, Historic.Resolution resolution,
+                                        int fromTs, int toTs, int maxPoints) throws IOException {
+        return series(fSym, tSym, e, resolution).read(fromTs, toTs, maxPoints);
+    }
+
+    /**
+     * @see CandleStore#read(String, String, String, Historic.Resolution, int, int, int)
+     */
+    public Historic.HistoryColumns read(String fSym, String tSym, String e, Historic.Resolution resolution,
+                                        int fromTs, int toTs) throws IOException {
+        return read(fSym, tSym, e, resolution, fromTs, toTs, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds the ranges of data points which are not stored between two times
+     * @param fSym The cryptocurrency symbol of the data
+     * @param tSym The currency symbol of the data
+     * @param e The exchange of the data, null for CCCAGG
+     * @param resolution The time between two data points
+     * @param fromTs First unix timestamp of interest, aligned to the resolution
+     * @param toTs Last unix timestamp of interest, aligned to the resolution
+     * @return The first and last time of every missing range, oldest first
+     * @throws IOException when the data cannot be read
+     */
+    public List<int[]> missingRanges(String fSym, String tSym, String e, Historic.Resolution resolution,
+                                     int fromTs, int toTs) throws IOException {
+        return series(fSym, tSym, e, resolution).missingRanges(fromTs, toTs, resolution.getSeconds());
+    }
+
+    /**
+     * Writes a merge up to its journal without applying it, as a crash during the merge would leave it
+     */
+    void putInterrupted(String fSym, String tSym, String e, Historic.Resolution resolution, Historic.HistoryColumns columns) throws IOException {
+        Series s = series(fSym, tSym, e, resolution);
+        synchronized (s) {
+            s.journal(columns);
+        }
+    }
+
+    /**
+     * Writes all changes to disk
+     */
+    public void flush() {
+        for (Series s : series.values()) {
+            s.flush();
+        }
+    }
+
+    /**
+     * Writes all changes to disk and closes every file
+     * @throws IOException when a file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Series s : series.values()) {
+            try {
+                s.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        series.clear();
+        if (failure != null) throw failure;
+    }
+
+    private Series series(String fSym, String tSym, String e, Historic.Resolution resolution) throws IOException {
+        String name = fileName(fSym, tSym, e, resolution);
+        Series s = series.get(name);
+        if (s != null) return s;
+
+        synchronized (series) {
+            s = series.get(name);
+            if (s == null) {
+                s = new Series(directory.resolve(name));
+                series.put(name, s);
+            }
+            return s;
+        }
+    }
+
+    private static String fileName(String fSym, String tSym, String e, Historic.Resolution resolution) {
+        String name = fSym.toUpperCase() + "_" + tSym.toUpperCase() + "_" + (e == null ? "CCCAGG" : e) + "_"
+                + resolution.name().toLowerCase();
+        return name.replaceAll("[^A-Za-z0-9_.-]", "-") + ".candles";
+    }
+
+    /**
+     * A single memory-mapped file of records
+     */
+    private static class Series implements Closeable {
+        private final FileChannel channel;
+        private MappedByteBuffer buffer;
+        private int count;
+
+        Series(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                if (channel.size() < HEADER_SIZE) {
+                    map(GROWTH);
+                    buffer.putInt(0, MAGIC);
+                    buffer.putInt(4, RECORD_SIZE);
+                    buffer.putInt(8, 0);
+                } else {
+                    map((int) ((channel.size() - HEADER_SIZE) / RECORD_SIZE));
+                    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != RECORD_SIZE) {
+                        throw new IOException(path + " is not a candle store file");
+                    }
+                    count = Math.max(0, Math.min(buffer.getInt(8), capacity()));
+                    int journal = buffer.getInt(12) - 1;
+                    if (journal >= 0) {
+                        if (journal >= capacity()) {
+                            throw new IOException(path + " has a journal past its end");
+                        }
+                        applyJournal(journal);
+                    }
+                }
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        private void map(int capacity) throws IOException {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        }
+
+        private int capacity() {
+            return (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+        }
+
+        private int timeAt(int index) {
+            return buffer.getInt(HEADER_SIZE + index * RECORD_SIZE);
+        }
+
+        /**
+         * Finds the index of the first record at or after a time
+         */
+        private int search(int time) {
+            int from = 0;
+            int to = count;
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (timeAt(mid) < time) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            return from;
+        }
+
+        synchronized Historic.HistoryColumns read(int fromTs, int toTs, int maxPoints) {
+            int start = search(fromTs);
+            int end = toTs == Integer.MAX_VALUE ? count : search(toTs + 1);
+            end = (int) Math.min(end, (long) start + Math.max(0, maxPoints));
+
+            Historic.HistoryColumns columns = new Historic.HistoryColumns(Math.max(0, end - start));
+            for (int i = start; i < end; i++) {
+                add(columns, i);
+            }
+            if (columns.size() > 0) {
+                columns.setRange("Success", columns.getTime()[0], columns.getTime()[columns.size() - 1]);
+            } else {
+                columns.setRange("Success", fromTs, toTs);
+            }
+            return columns;
+        }
+
+        synchronized List<int[]> missingRanges(int fromTs, int toTs, int step) {
+            List<int[]> missing = new ArrayList<>();
+            long expected = fromTs;
+            for (int i = search(fromTs); i < count; i++) {
+                int time = timeAt(i);
+                if (time > toTs) break;
+                if (time > expected) {
+                    missing.add(new int[]{(int) expected, time - step});
+                }
+                expected = (long) time + step;
+            }
+            if (expected <= toTs) {
+                missing.add(new int[]{(int) expected, toTs});
+            }
+            return missing;
+        }
+
+        synchronized void put(Historic.HistoryColumns columns) throws IOException {
+            int start = search(columns.getTime()[0]);
+            if (start < count) {
+                applyJournal(journal(columns));
+                return;
+            }
+
+            int newCount = count + columns.size();
+            ensureCapacity(newCount);
+            for (int k = 0; k < columns.size(); k++) {
+                write(count + k, columns, k);
+            }
+
+            // The count is written last so a partially appended record is never read
+            count = newCount;
+            buffer.putInt(8, count);
+        }
+
+        /**
+         * Merges new points with every stored record after the first of them into a journal past the records and marks
+         * it in the header, new points win
+         * @return The index of the journal's first slot, which holds where the merged records go and how many there are
+         */
+        int journal(Historic.HistoryColumns columns) throws IOException {
+            int[] time = columns.getTime();
+            int start = search(time[0]);
+
+            Historic.HistoryColumns merged = new Historic.HistoryColumns(count - start + columns.size());
+            int i = start;
+            int j = 0;
+            while (i < count || j < columns.size()) {
+                if (j == columns.size() || (i < count && timeAt(i) < time[j])) {
+                    add(merged, i++);
+                } else {
+                    if (i < count && timeAt(i) == time[j]) i++;
+                    merged.add(columns, j++);
+                }
+            }
+
+            // The journal starts after where the merged records end, so applying it never overwrites it
+            int journal = start + merged.size();
+            ensureCapacity(journal + 1 + merged.size());
+            int position = HEADER_SIZE + journal * RECORD_SIZE;
+            buffer.putInt(position, start);
+            buffer.putInt(position + 4, merged.size());
+            for (int k = 0; k < merged.size(); k++) {
+                write(journal + 1 + k, merged, k);
+            }
+            buffer.force();
+
+            buffer.putInt(12, journal + 1);
+            buffer.force();
+            return journal;
+        }
+
+        /**
+         * Copies a journal over the records it replaces, publishes them and clears the journal from the header. Doing it
+         * again after a crash part way through gives the same records.
+         */
+        private void applyJournal(int journal) {
+            int position = HEADER_SIZE + journal * RECORD_SIZE;
+            int start = buffer.getInt(position);
+            int size = buffer.getInt(position + 4);
+
+            ByteBuffer source = buffer.duplicate();
+            source.limit(position + RECORD_SIZE * (1 + size)).position(position + RECORD_SIZE);
+            ByteBuffer target = buffer.duplicate();
+            target.position(HEADER_SIZE + start * RECORD_SIZE);
+            target.put(source);
+
+            count = start + size;
+            buffer.putInt(8, count);
+            buffer.force();
+            buffer.putInt(12, 0);
+        }
+
+        private void ensureCapacity(int records) throws IOException {
+            if (records > capacity()) {
+                map(Math.max(records, capacity() + Math.max(GROWTH, capacity() / 2)));
+            }
+        }
+
+        private void write(int index, Historic.HistoryColumns columns, int k) {
+            int position = HEADER_SIZE + index * RECORD_SIZE;
+            buffer.putInt(position, columns.getTime()[k]);
+            buffer.putDouble(position + 4, columns.getOpen()[k]);
+            buffer.putDouble(position + 12, columns.getHigh()[k]);
+            buffer.putDouble(position + 20, columns.getLow()[k]);
+            buffer.putDouble(position + 28, columns.getClose()[k]);
+            buffer.putDouble(position + 36, columns.getVolumeFrom()[k]);
+            buffer.putDouble(position + 44, columns.getVolumeTo()[k]);
+        }
+
+        private void add(Historic.HistoryColumns columns, int index) {
+            int position = HEADER_SIZE + index * RECORD_SIZE;
+            columns.add(buffer.getInt(position), buffer.getDouble(position + 4), buffer.getDouble(position + 12),
+                    buffer.getDouble(position + 20), buffer.getDouble(position + 28), buffer.getDouble(position + 36),
+                    buffer.getDouble(position + 44));
+        }
+
+        synchronized void flush() {
+            buffer.force();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            buffer.force();
+            channel.close();
+        }
+    }
+}
@@ -1,20 +1,46 @@
 package me.joshmcfarlin.cryptocompareapi;
 
-import com.google.gson.Gson;
+import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
 import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import me.joshmcfarlin.cryptocompareapi.utils.HttpConnection;
+import me.joshmcfarlin.cryptocompareapi.utils.Json;
+import me.joshmcfarlin.cryptocompareapi.utils.StreamingAdapterFactory;
+import me.joshmcfarlin.cryptocompareapi.utils.SymbolTable;
 import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
 
 import java.io.*;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Contains methods for requesting information about coins listed by CryptoCompare
  * @author Josh McFarlin
  */
 public class Coins {
+    /**
+     * The connection used to make requests
+     */
+    private final Connection connection;
+
+    /**
+     * Creates an object which makes requests through a new {@link HttpConnection}
+     */
+    public Coins() {
+        this(new HttpConnection());
+    }
+
+    /**
+     * Creates an object which makes requests through the provided connection
+     * @param connection The connection used to make requests
+     */
+    public Coins(Connection connection) {
+        this.connection = connection;
+    }
+
     /**
      * Gets general info for all the coins available through the CryptoCompare API
      * @return CoinList A object containing different API data
@@ -22,9 +48,37 @@ public class Coins {
      * @throws OutOfCallsException when no more API calls are available
      */
     public CoinList getCoinList() throws IOException, OutOfCallsException {
-        Reader r = Connection.getJSON("https://min-api.cryptocompare.com/data/all/coinlist", CallTypes.PRICE);
+        return connection.getJSON("https://min-api.cryptocompare.com/data/all/coinlist", CallTypes.PRICE, Json.parser(CoinList.class));
+    }
 
-        return new Gson().fromJson(r, CoinList.class);
+    /**
+     * Streams general info for all the coins available through the CryptoCompare API to a consumer one at a time
+     *
+     * Only the coin being read is kept in memory and the values of fields which are not selected are skipped without
+     * being read, so this needs far less memory than {@link Coins#getCoinList()}. The response is not cached, as the
+     * coins are not kept.
+     * @param fields The fields to read, or null to read all of them
+     * @param consumer Receives every coin in the order of the response, called on the calling thread
+     * @return The number of coins read
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    public int streamCoinList(Set<CoinList.CoinEntry.Field> fields, Consumer<CoinList.CoinEntry> consumer) throws IOException, OutOfCallsException {
+        Set<CoinList.CoinEntry.Field> selected = null;
+        if (fields != null) {
+            selected = EnumSet.noneOf(CoinList.CoinEntry.Field.class);
+            selected.addAll(fields);
+        }
+        try (Reader r = connection.getJSON("https://min-api.cryptocompare.com/data/all/coinlist", CallTypes.PRICE)) {
+            return CoinList.AdapterFactory.stream(new JsonReader(r), selected, consumer);
+        }
+    }
+
+    /**
+     * @see Coins#streamCoinList(Set, Consumer)
+     */
+    public int streamCoinList(Consumer<CoinList.CoinEntry> consumer) throws IOException, OutOfCallsException {
+        return streamCoinList(null, consumer);
     }
 
     /**
@@ -38,9 +92,7 @@ public class Coins {
     public PairSnapshot getPairSnapshot(String fromSym, String toSym) throws IOException, OutOfCallsException {
         String formattedUrl = String.format("https://www.cryptocompare.com/api/data/coinsnapshot/?fsym=%s&tsym=%s",
                 fromSym.toUpperCase(), toSym.toUpperCase());
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.PRICE);
-
-        return new Gson().fromJson(r, PairSnapshot.class);
+        return connection.getJSON(formattedUrl, CallTypes.PRICE, Json.parser(PairSnapshot.class));
     }
 
     /**
@@ -52,15 +104,14 @@ public class Coins {
      */
     public CoinSnapshot getCoinSnapshot(int id) throws IOException, OutOfCallsException {
         String formattedUrl = "https://www.cryptocompare.com/api/data/coinsnapshotfullbyid/?id=" + id;
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.PRICE);
-
-        return new Gson().fromJson(r, CoinSnapshot.class);
+        return connection.getJSON(formattedUrl, CallTypes.PRICE, Json.parser(CoinSnapshot.class));
     }
 
     /**
      * Represents all coins provided by the CryptoCompare API
      */
-    public class CoinList {
+    @JsonAdapter(CoinList.AdapterFactory.class)
+    public static class CoinList {
         /**
          * Indicates request success
          */
@@ -103,7 +154,8 @@ public class Coins {
         /**
          * Represents a coin on CryptoCompare's website
          */
-        public class CoinEntry {
+        @JsonAdapter(CoinEntry.AdapterFactory.class)
+        public static class CoinEntry {
             /**
              * The ID of the coin on CryptoCompare's website
              */
@@ -298,6 +350,182 @@ public class Coins {
             public boolean getSponsored() {
                 return sponsored;
             }
+
+            /**
+             * Reads CoinEntry objects without reflection
+             */
+            static class AdapterFactory extends StreamingAdapterFactory<CoinEntry> {
+                AdapterFactory() {
+                    super(CoinEntry.class);
+                }
+
+                @Override
+                protected CoinEntry read(JsonReader in) throws IOException {
+                    return readEntry(in);
+                }
+            }
+
+            /**
+             * The fields of a coin which can be selected when streaming the coin list
+             */
+            public enum Field {
+                ID("Id"), URL("Url"), IMAGE_URL("ImageUrl"), NAME("Name"), SYMBOL("Symbol"), COIN_NAME("CoinName"),
+                FULL_NAME("FullName"), ALGORITHM("Algorithm"), PROOF_TYPE("ProofType"), FULLY_PREMINED("FullyPremined"),
+                TOTAL_COIN_SUPPLY("TotalCoinSupply"), PRE_MINED_VALUE("PreMinedValue"),
+                TOTAL_COINS_FREE_FLOAT("TotalCoinsFreeFloat"), SORT_ORDER("SortOrder"), SPONSORED("Sponsored");
+
+                private static final Map<String, Field> BY_NAME = new HashMap<>();
+
+                static {
+                    for (Field field : values()) {
+                        BY_NAME.put(field.name, field);
+                    }
+                }
+
+                /**
+                 * The name of the field in the API response
+                 */
+                private final String name;
+
+                Field(String name) {
+                    this.name = name;
+                }
+
+                /**
+                 * {@link Field#name}
+                 */
+                public String getName() {
+                    return name;
+                }
+            }
+
+            /**
+             * Reads a single coin
+             * @param in The reader positioned at the coin
+             * @return The coin read
+             * @throws IOException when the coin cannot be read
+             */
+            static CoinEntry readEntry(JsonReader in) throws IOException {
+                return readEntry(in, null);
+            }
+
+            /**
+             * Reads a single coin, skipping the fields which are not selected without reading their values
+             * @param in The reader positioned at the coin
+             * @param fields The fields to read, or null to read all of them
+             * @return The coin read
+             * @throws IOException when the coin cannot be read
+             */
+            static CoinEntry readEntry(JsonReader in, Set<Field> fields) throws IOException {
+                CoinEntry entry = new CoinEntry();
+                in.beginObject();
+                while (in.hasNext()) {
+                    Field field = Field.BY_NAME.get(in.nextName());
+                    if (field == null || (fields != null && !fields.contains(field))) {
+                        in.skipValue();
+                        continue;
+                    }
+
+                    switch (field) {
+                        case ID: entry.id = Json.nextInt(in); break;
+                        case URL: entry.url = Json.nextString(in); break;
+                        case IMAGE_URL: entry.imageUrl = Json.nextString(in); break;
+                        case NAME: entry.name = SymbolTable.symbols().intern(Json.nextString(in)); break;
+                        case SYMBOL: entry.symbol = SymbolTable.symbols().intern(Json.nextString(in)); break;
+                        case COIN_NAME: entry.coinName = Json.nextString(in); break;
+                        case FULL_NAME: entry.fullName = Json.nextString(in); break;
+                        case ALGORITHM: entry.algorithm = Json.nextString(in); break;
+                        case PROOF_TYPE: entry.proofType = Json.nextString(in); break;
+                        case FULLY_PREMINED: entry.fullyPremined = Json.nextString(in); break;
+                        case TOTAL_COIN_SUPPLY: entry.totalCoinSupply = Json.nextString(in); break;
+                        case PRE_MINED_VALUE: entry.preMinedValue = Json.nextString(in); break;
+                        case TOTAL_COINS_FREE_FLOAT: entry.totalCoinsFreeFloat = Json.nextString(in); break;
+                        case SORT_ORDER: entry.sortOrder = Json.nextInt(in); break;
+                        case SPONSORED: entry.sponsored = Json.nextBoolean(in); break;
+                        default: in.skipValue();
+                    }
+                }
+                in.endObject();
+                return entry;
+            }
+        }
+
+        /**
+         * Reads CoinList objects without reflection
+         */
+        static class AdapterFactory extends StreamingAdapterFactory<CoinList> {
+            AdapterFactory() {
+                super(CoinList.class);
+            }
+
+            @Override
+            protected CoinList read(JsonReader in) throws IOException {
+                CoinList coinList = new CoinList();
+                in.beginObject();
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "Response": coinList.response = Json.nextString(in); break;
+                        case "Message": coinList.message = Json.nextString(in); break;
+                        case "Data": coinList.coins = readCoins(in); break;
+                        default: in.skipValue();
+                    }
+                }
+                in.endObject();
+                return coinList;
+            }
+
+            /**
+             * Reads a coin list response, passing every coin to a consumer instead of keeping them
+             * @param in The reader positioned at the response
+             * @param fields The fields to read, or null to read all of them
+             * @param consumer Receives every coin in the order of the response
+             * @return The number of coins read
+             * @throws IOException when the response cannot be read
+             */
+            static int stream(JsonReader in, Set<CoinEntry.Field> fields, Consumer<CoinEntry> consumer) throws IOException {
+                int count = 0;
+                in.beginObject();
+                while (in.hasNext()) {
+                    if (!"Data".equals(in.nextName()) || in.peek() != JsonToken.BEGIN_OBJECT) {
+                        in.skipValue();
+                        continue;
+                    }
+
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        in.nextName();
+                        if (in.peek() == JsonToken.NULL) {
+                            in.nextNull();
+                            continue;
+                        }
+                        consumer.accept(CoinEntry.readEntry(in, fields));
+                        count++;
+                    }
+                    in.endObject();
+                }
+                in.endObject();
+                return count;
+            }
+
+            private static Map<String, CoinEntry> readCoins(JsonReader in) throws IOException {
+                if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                    in.skipValue();
+                    return null;
+                }
+
+                Map<String, CoinEntry> coins = new LinkedHashMap<>();
+                in.beginObject();
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        continue;
+                    }
+                    coins.put(SymbolTable.symbols().intern(name), CoinEntry.readEntry(in));
+                }
+                in.endObject();
+                return coins;
+            }
         }
     }
 
@@ -0,0 +1,384 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.InvalidParameterException;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Derives exchange rates between any two symbols from quotes which are already known
+ *
+ * Every quote is an edge in a conversion graph, together with its inverse. A rate is answered through the path with
+ * the fewest conversions, and of those the one whose oldest quote is the most recent. Quotes older than the maximum
+ * age are ignored, and a request is only made when no path of fresh quotes exists.
+ * @author Josh McFarlin
+ */
+public class CrossRates {
+    /**
+     * The default number of milliseconds a quote can be used for
+     */
+    public static final long DEFAULT_MAX_AGE = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * The default maximum number of conversions in a path
+     */
+    public static final int DEFAULT_MAX_HOPS = 3;
+
+    /**
+     * A known rate from one symbol to another
+     */
+    private static class Quote {
+        private final double rate;
+        private final long time;
+
+        Quote(double rate, long time) {
+            this.rate = rate;
+            this.time = time;
+        }
+    }
+
+    /**
+     * A rate derived from one or more quotes
+     */
+    public static class Conversion {
+        /**
+         * The symbols converted through, starting with the from-symbol and ending with the to-symbol
+         */
+        private final List<String> path;
+
+        /**
+         * The price of one from-symbol in the to-symbol
+         */
+        private final double rate;
+
+        /**
+         * The number of milliseconds since the oldest quote used was received
+         */
+        private final long age;
+
+        /**
+         * Whether a request had to be made because no path of fresh quotes existed
+         */
+        private final boolean requested;
+
+        Conversion(List<String> path, double rate, long age, boolean requested) {
+            this.path = Collections.unmodifiableList(path);
+            this.rate = rate;
+            this.age = age;
+            this.requested = requested;
+        }
+
+        /**
+         * {@link Conversion#path}
+         */
+        public List<String> getPath() {
+            return path;
+        }
+
+        /**
+         * {@link Conversion#rate}
+         */
+        public double getRate() {
+            return rate;
+        }
+
+        /**
+         * {@link Conversion#age}
+         */
+        public long getAge() {
+            return age;
+        }
+
+        /**
+         * {@link Conversion#requested}
+         */
+        public boolean isRequested() {
+            return requested;
+        }
+
+        @Override
+        public String toString() {
+            return String.join("->", path) + " = " + rate + " (" + age + "ms old)";
+        }
+    }
+
+    /**
+     * The object used to request quotes which cannot be derived
+     */
+    private final Market market;
+
+    /**
+     * The known quotes, keyed by from-symbol then to-symbol
+     */
+    private final Map<String, Map<String, Quote>> quotes = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Supplies the current time in milliseconds
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The number of milliseconds a quote can be used for
+     */
+    private volatile long maxAge = DEFAULT_MAX_AGE;
+
+    /**
+     * The maximum number of conversions in a path
+     */
+    private volatile int maxHops = DEFAULT_MAX_HOPS;
+
+    private final LongAdder derived = new LongAdder();
+    private final LongAdder requested = new LongAdder();
+
+    /**
+     * Creates an engine with no known quotes
+     * @param market The object used to request quotes which cannot be derived
+     */
+    public CrossRates(Market market) {
+        this(market, System::currentTimeMillis);
+    }
+
+    CrossRates(Market market, LongSupplier clock) {
+        this.market = market;
+        this.clock = clock;
+    }
+
+    /**
+     * Adds or replaces a quote and its inverse
+     * @param fSym The cryptocurrency symbol of interest
+     * @param tSym The cryptocurrency symbol it is priced in
+     * @param price The price of one from-symbol in the to-symbol, ignored unless positive
+     */
+    public void update(String fSym, String tSym, double price) {
+        lock.writeLock().lock();
+        try {
+            put(fSym.toUpperCase(), tSym.toUpperCase(), price, clock.getAsLong());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces quotes from a response of {@link Market#getMultiPrice(String, String)}
+     * @param prices The price in each to-symbol for each from-symbol
+     */
+    public void update(Map<String, ? extends Map<String, Double>> prices) {
+        long now = clock.getAsLong();
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, ? extends Map<String, Double>> from : prices.entrySet()) {
+                if (from.getValue() == null) continue;
+                String fSym = from.getKey().toUpperCase();
+                for (Map.Entry<String, Double> to : from.getValue().entrySet()) {
+                    if (to.getValue() != null) put(fSym, to.getKey().toUpperCase(), to.getValue(), now);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces every known price of a matrix
+     * @param matrix The matrix to read the prices from
+     */
+    public void update(PriceMatrix matrix) {
+        long now = clock.getAsLong();
+        lock.writeLock().lock();
+        try {
+            for (int from = 0; from < matrix.fromCount(); from++) {
+                for (int to = 0; to < matrix.toCount(); to++) {
+                    put(matrix.fromSymbol(from), matrix.toSymbol(to), matrix.get(from, to), now);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(String fSym, String tSym, double price, long now) {
+        if (!(price > 0) || Double.isInfinite(price) || fSym.equals(tSym)) return;
+        quotes.computeIfAbsent(fSym, k -> new HashMap<>()).put(tSym, new Quote(price, now));
+        quotes.computeIfAbsent(tSym, k -> new HashMap<>()).put(fSym, new Quote(1 / price, now));
+    }
+
+    /**
+     * Requests prices with {@link Market#getMultiPrice(Collection, Collection)} and adds them as quotes
+     * @param fSyms The cryptocurrency symbols of interest
+     * @param tSyms The cryptocurrency symbols to convert into
+     * @return The price in each to-symbol for each from-symbol
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     * @throws InvalidParameterException when a given parameter does not meet the API guidelines
+     */
+    public Map<String, Map<String, Double>> refresh(Collection<String> fSyms, Collection<String> tSyms) throws
+            IOException, OutOfCallsException, InvalidParameterException {
+        Map<String, Map<String, Double>> prices = market.getMultiPrice(fSyms, tSyms);
+        update(prices);
+        return prices;
+    }
+
+    /**
+     * Derives a rate from the known quotes without making a request
+     * @param fSym The cryptocurrency symbol of interest
+     * @param tSym The cryptocurrency symbol to convert into
+     * @return The best conversion, or null if no path of fresh quotes exists
+     */
+    public Conversion find(String fSym, String tSym) {
+        String from = fSym.toUpperCase();
+        String to = tSym.toUpperCase();
+        long now = clock.getAsLong();
+        if (from.equals(to)) {
+            return new Conversion(Collections.singletonList(from), 1, 0, false);
+        }
+
+        long oldest = now - maxAge;
+        lock.readLock().lock();
+        try {
+            // Breadth first by number of conversions, keeping the path with the most recent oldest quote to every symbol
+            Map<String, Long> freshness = new HashMap<>();
+            Map<String, String> previous = new HashMap<>();
+            freshness.put(from, Long.MAX_VALUE);
+            List<String> layer = Collections.singletonList(from);
+
+            for (int hop = 0; hop < maxHops && !layer.isEmpty() && !previous.containsKey(to); hop++) {
+                Map<String, Long> next = new LinkedHashMap<>();
+                for (String symbol : layer) {
+                    long pathTime = freshness.get(symbol);
+                    Map<String, Quote> edges = quotes.get(symbol);
+                    if (edges == null) continue;
+
+                    for (Map.Entry<String, Quote> edge : edges.entrySet()) {
+                        Quote quote = edge.getValue();
+                        String target = edge.getKey();
+                        if (quote.time < oldest || (freshness.containsKey(target) && !next.containsKey(target))) continue;
+
+                        long time = Math.min(pathTime, quote.time);
+                        Long best = next.get(target);
+                        if (best == null || time > best) {
+                            next.put(target, time);
+                            previous.put(target, symbol);
+                        }
+                    }
+                }
+                freshness.putAll(next);
+                layer = new ArrayList<>(next.keySet());
+            }
+
+            if (!previous.containsKey(to)) {
+                return null;
+            }
+
+            LinkedList<String> path = new LinkedList<>();
+            double rate = 1;
+            for (String symbol = to; !symbol.equals(from); symbol = previous.get(symbol)) {
+                String source = previous.get(symbol);
+                rate *= quotes.get(source).get(symbol).rate;
+                path.addFirst(symbol);
+            }
+            path.addFirst(from);
+
+            derived.increment();
+            return new Conversion(path, rate, now - freshness.get(to), false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Derives a rate from the known quotes, requesting it with {@link Market#getPrice(String, String)} when no path of
+     * fresh quotes exists
+     * @param fSym The cryptocurrency symbol of interest
+     * @param tSym The cryptocurrency symbol to convert into
+     * @return The best conversion, or null if the price could not be found either
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     * @throws InvalidParameterException when a given parameter does not meet the API guidelines
+     */
+    public Conversion convert(String fSym, String tSym) throws IOException, OutOfCallsException, InvalidParameterException {
+        Conversion conversion = find(fSym, tSym);
+        if (conversion != null) {
+            return conversion;
+        }
+
+        requested.increment();
+        String from = fSym.toUpperCase();
+        String to = tSym.toUpperCase();
+        Map<String, Double> prices = market.getPrice(from, to);
+        Double price = prices == null ? null : prices.get(to);
+        if (price == null || !(price > 0)) {
+            return null;
+        }
+
+        update(from, to, price);
+        return new Conversion(Arrays.asList(from, to), price, 0, true);
+    }
+
+    /**
+     * Removes every known quote
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            quotes.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the maximum time a quote can be used for
+     * @param unit The unit to return the time in
+     * @return The maximum age of a quote
+     */
+    public long getMaxAge(TimeUnit unit) {
+        return unit.convert(maxAge, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sets the maximum time a quote can be used for
+     * @param maxAge The maximum age of a quote
+     * @param unit The unit of the provided time
+     */
+    public void setMaxAge(long maxAge, TimeUnit unit) {
+        this.maxAge = unit.toMillis(maxAge);
+    }
+
+    /**
+     * {@link CrossRates#maxHops}
+     */
+    public int getMaxHops() {
+        return maxHops;
+    }
+
+    public void setMaxHops(int maxHops) {
+        if (maxHops < 1) {
+            throw new IllegalArgumentException("maxHops must be at least 1");
+        }
+        this.maxHops = maxHops;
+    }
+
+    /**
+     * Gets the number of rates derived from known quotes
+     * @return The number of conversions answered without a request
+     */
+    public long getDerivedCount() {
+        return derived.sum();
+    }
+
+    /**
+     * Gets the number of rates which had to be requested
+     * @return The number of requests made by {@link CrossRates#convert(String, String)}
+     */
+    public long getRequestedCount() {
+        return requested.sum();
+    }
+}
@@ -1,5 +1,15 @@
 package me.joshmcfarlin.cryptocompareapi;
 
+import me.joshmcfarlin.cryptocompareapi.utils.Async;
+import me.joshmcfarlin.cryptocompareapi.utils.CachingConnection;
+import me.joshmcfarlin.cryptocompareapi.utils.CircuitBreakerConnection;
+import me.joshmcfarlin.cryptocompareapi.utils.CoalescingConnection;
+import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import me.joshmcfarlin.cryptocompareapi.utils.HttpConnection;
+import me.joshmcfarlin.cryptocompareapi.utils.RetryingConnection;
+
+import java.util.concurrent.Executor;
+
 /**
  * The class's default class to access all the methods
  */
@@ -12,9 +22,24 @@ public class CryptoCompareAPI {
     public News news;
     public Social social;
 
+    public AsyncCoins coinsAsync;
+    public AsyncExchanges exchangesAsync;
+    public AsyncHistoric historicAsync;
+    public AsyncMarket marketAsync;
+    public AsyncMining miningAsync;
+    public AsyncNews newsAsync;
+    public AsyncSocial socialAsync;
+
+    public CrossRates crossRates;
+
     private String extraParams;
     private Boolean sign;
 
+    /**
+     * The connection shared by all the API methods
+     */
+    private final Connection connection;
+
     /**
      * Sets extraParams and sign to null
      * @see #CryptoCompareAPI(String, Boolean)
@@ -39,22 +64,64 @@ public class CryptoCompareAPI {
         this(null, sign);
     }
 
+    /**
+     * Only instantiates the object with a connection, extraParams and sign are set to null
+     * @see #CryptoCompareAPI(String, Boolean, Connection)
+     */
+    public CryptoCompareAPI(Connection connection) {
+        this(null, null, connection);
+    }
+
+    /**
+     * Creates an object to access all the API methods through a new {@link HttpConnection}, responses are cached by a
+     * {@link CachingConnection}, concurrent identical requests share a single call through a {@link CoalescingConnection},
+     * endpoints which keep failing are cut off by a {@link CircuitBreakerConnection} and transient failures are retried
+     * by a {@link RetryingConnection}
+     * @see #CryptoCompareAPI(String, Boolean, Connection)
+     */
+    public CryptoCompareAPI(String extraParams, Boolean sign) {
+        this(extraParams, sign, new CachingConnection(new CoalescingConnection(
+                new CircuitBreakerConnection(new RetryingConnection(new HttpConnection())))));
+    }
+
+    /**
+     * Creates an object to access all the API methods, asynchronous methods are run on the default executor
+     * @see #CryptoCompareAPI(String, Boolean, Connection, Executor)
+     * @see Async#getDefaultExecutor()
+     */
+    public CryptoCompareAPI(String extraParams, Boolean sign, Connection connection) {
+        this(extraParams, sign, connection, Async.getDefaultExecutor());
+    }
+
     /**
      * Creates an object to access all the API methods
      * @param extraParams The name of your application (we recommend you send it) [Max character length: 2000]
      * @param sign If set to true, the server will sign the requests (by default we don't sign them), this is useful for usage in smart contracts
+     * @param connection The connection used to make all requests
+     * @param executor The executor asynchronous methods are run on
      */
-    public CryptoCompareAPI(String extraParams, Boolean sign) {
+    public CryptoCompareAPI(String extraParams, Boolean sign, Connection connection, Executor executor) {
         this.extraParams = extraParams;
         this.sign = sign;
+        this.connection = connection;
 
-        coins = new Coins();
-        exchanges = new Exchanges();
-        historic = new Historic();
-        market = new Market();
-        mining = new Mining();
-        news = new News();
-        social = new Social();
+        coins = new Coins(connection);
+        exchanges = new Exchanges(connection);
+        historic = new Historic(connection);
+        market = new Market(connection, executor);
+        mining = new Mining(connection);
+        news = new News(connection);
+        social = new Social(connection);
+
+        coinsAsync = new AsyncCoins(coins, executor);
+        exchangesAsync = new AsyncExchanges(exchanges, executor);
+        historicAsync = new AsyncHistoric(historic, executor);
+        marketAsync = new AsyncMarket(market, executor);
+        miningAsync = new AsyncMining(mining, executor);
+        newsAsync = new AsyncNews(news, executor);
+        socialAsync = new AsyncSocial(social, executor);
+
+        crossRates = new CrossRates(market);
     }
 
     /**
@@ -78,4 +145,11 @@ public class CryptoCompareAPI {
     public void setSign(Boolean sign) {
         this.sign = sign;
     }
+
+    /**
+     * {@link CryptoCompareAPI#connection}
+     */
+    public Connection getConnection() {
+        return connection;
+    }
 }
@@ -0,0 +1,31 @@
+package me.joshmcfarlin.cryptocompareapi.Exceptions;
+
+import java.io.IOException;
+
+/**
+ * Represents an error when a request is not made because the server recently failed too often
+ * @author Josh McFarlin
+ */
+public class CircuitOpenException extends IOException {
+    /**
+     * The number of nanoseconds until a request may be made again
+     */
+    private final long nanosUntilRetry;
+
+    /**
+     * Creates an exception to be called when a request is refused by an open circuit breaker
+     * @param message The error message to be displayed
+     * @param nanosUntilRetry The number of nanoseconds until a request may be made again
+     */
+    public CircuitOpenException(String message, long nanosUntilRetry) {
+        super(message);
+        this.nanosUntilRetry = nanosUntilRetry;
+    }
+
+    /**
+     * {@link CircuitOpenException#nanosUntilRetry}
+     */
+    public long getNanosUntilRetry() {
+        return nanosUntilRetry;
+    }
+}
@@ -0,0 +1,19 @@
+package me.joshmcfarlin.cryptocompareapi.Exceptions;
+
+import java.net.SocketTimeoutException;
+
+/**
+ * Represents an error when a connection to the server could not be made in time, before any of the request was sent
+ * @author Josh McFarlin
+ */
+public class ConnectTimeoutException extends SocketTimeoutException {
+    /**
+     * Creates an exception to be called when connecting to the server times out
+     * @param message The error message to be displayed
+     * @param cause The timeout thrown while connecting
+     */
+    public ConnectTimeoutException(String message, SocketTimeoutException cause) {
+        super(message);
+        initCause(cause);
+    }
+}
@@ -0,0 +1,31 @@
+package me.joshmcfarlin.cryptocompareapi.Exceptions;
+
+import java.io.IOException;
+
+/**
+ * Represents an error when the server answers a request with an unsuccessful HTTP status
+ * @author Josh McFarlin
+ */
+public class HttpStatusException extends IOException {
+    /**
+     * The HTTP status code returned by the server
+     */
+    private final int statusCode;
+
+    /**
+     * Creates an exception to be called when the server returns an unsuccessful status code
+     * @param message The error message to be displayed
+     * @param statusCode The HTTP status code returned by the server
+     */
+    public HttpStatusException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * {@link HttpStatusException#statusCode}
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
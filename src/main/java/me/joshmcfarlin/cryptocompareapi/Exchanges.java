@@ -1,15 +1,18 @@
 package me.joshmcfarlin.cryptocompareapi;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 import me.joshmcfarlin.cryptocompareapi.Exceptions.InvalidParameterException;
 import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
 import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import me.joshmcfarlin.cryptocompareapi.utils.HttpConnection;
+import me.joshmcfarlin.cryptocompareapi.utils.Json;
+import me.joshmcfarlin.cryptocompareapi.utils.SymbolTable;
 import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
 
 import java.io.*;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +22,32 @@ import java.util.Map;
  * @author Josh McFarlin
  */
 public class Exchanges {
+    /**
+     * The types responses are parsed into
+     */
+    private static final Type EXCHANGE_MAP_TYPE = new TypeToken<Map<String, Map<String, List<String>>>>() {}.getType();
+    private static final Type EXCHANGE_LIST_TYPE = new TypeToken<List<Exchange>>() {}.getType();
+
+    /**
+     * The connection used to make requests
+     */
+    private final Connection connection;
+
+    /**
+     * Creates an object which makes requests through a new {@link HttpConnection}
+     */
+    public Exchanges() {
+        this(new HttpConnection());
+    }
+
+    /**
+     * Creates an object which makes requests through the provided connection
+     * @param connection The connection used to make requests
+     */
+    public Exchanges(Connection connection) {
+        this.connection = connection;
+    }
+
     /**
      * Gets all available trading pairs for each cryptocurrency on all exchanges available from the API
      * @return ExchangeList a object containing different API data
@@ -26,11 +55,10 @@ public class Exchanges {
      * @throws OutOfCallsException when no more API calls are available
      */
     public ExchangeList getAllExchanges() throws IOException, OutOfCallsException {
-        Reader r = Connection.getJSON("https://min-api.cryptocompare.com/data/all/exchanges", CallTypes.PRICE);
-
-        Type type = new TypeToken<Map<String, Map<String, List<String>>>>() {}.getType();
-        Map<String, Map<String, List<String>>> exchangeMap = new Gson().fromJson(r, type);
-        return new ExchangeList(exchangeMap);
+        return connection.getJSON("https://min-api.cryptocompare.com/data/all/exchanges", CallTypes.PRICE, r -> {
+            Map<String, Map<String, List<String>>> exchangeMap = Json.getGson().fromJson(r, EXCHANGE_MAP_TYPE);
+            return new ExchangeList(exchangeMap);
+        });
     }
 
     /**
@@ -70,11 +98,7 @@ public class Exchanges {
             formattedUrl += "&sign=" + sign.toString();
         }
 
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.PRICE);
-
-        JsonObject jsonObject = new Gson().fromJson(r, JsonObject.class);
-        Type type = new TypeToken<List<Exchange>>() {}.getType();
-        return new Gson().fromJson(jsonObject.get("Data"), type);
+        return connection.getJSON(formattedUrl, CallTypes.PRICE, Json.fieldParser("Data", EXCHANGE_LIST_TYPE));
     }
 
     /**
@@ -165,17 +189,36 @@ public class Exchanges {
          */
         private Map<String, Exchange> exchanges = new HashMap<>();
 
+        /**
+         * The {@link SymbolTable#exchanges()} IDs of the exchanges trading each pair, keyed by the
+         * {@link SymbolTable#symbols()} IDs of the from-symbol and to-symbol packed by {@link ExchangeList#pairKey(int, int)}
+         */
+        private transient Map<Long, BitSet> pairIndex = new HashMap<>();
+
         /**
          * Creates an ExchangeList from a map of exchanges
          * @param map A map of exchanges
          */
         ExchangeList(Map<String, Map<String, List<String>>> map) {
+            SymbolTable symbols = SymbolTable.symbols();
             map.forEach((key, val) -> {
                 Exchange e = new Exchange(val);
-                this.exchanges.put(key, e);
+                int exchangeId = SymbolTable.exchanges().id(key);
+                this.exchanges.put(SymbolTable.exchanges().name(exchangeId), e);
+
+                e.coins.forEach((coin, c) -> {
+                    int fromId = symbols.id(coin);
+                    for (int toId : c.tradingPairIds) {
+                        pairIndex.computeIfAbsent(pairKey(fromId, toId), k -> new BitSet()).set(exchangeId);
+                    }
+                });
             });
         }
 
+        private long pairKey(int fromId, int toId) {
+            return ((long) fromId << 32) | (toId & 0xFFFFFFFFL);
+        }
+
         /**
          * {@link ExchangeList#exchanges}
          */
@@ -183,6 +226,65 @@ public class Exchanges {
             return exchanges;
         }
 
+        /**
+         * Gets the exchanges trading a pair as a set of {@link SymbolTable#exchanges()} IDs, which can be combined with
+         * the ones of other pairs using {@link BitSet#and(BitSet)} and {@link BitSet#or(BitSet)}
+         * @param fSym The cryptocurrency symbol traded from, as listed by the API
+         * @param tSym The currency symbol traded to, as listed by the API
+         * @return A new set of the exchange IDs, empty if no exchange trades the pair
+         */
+        public BitSet getExchangeIds(String fSym, String tSym) {
+            SymbolTable symbols = SymbolTable.symbols();
+            int fromId = symbols.find(fSym);
+            int toId = symbols.find(tSym);
+            BitSet ids = fromId < 0 || toId < 0 ? null : pairIndex.get(pairKey(fromId, toId));
+            return ids == null ? new BitSet() : (BitSet) ids.clone();
+        }
+
+        /**
+         * Gets the names of the exchanges trading a pair
+         * @param fSym The cryptocurrency symbol traded from, as listed by the API
+         * @param tSym The currency symbol traded to, as listed by the API
+         * @return The exchange names, empty if no exchange trades the pair
+         * @see ExchangeList#getExchangeIds(String, String)
+         */
+        public List<String> getExchangesTrading(String fSym, String tSym) {
+            return getExchangeNames(getExchangeIds(fSym, tSym));
+        }
+
+        /**
+         * Checks whether an exchange trades a pair
+         * @param exchange The name of the exchange
+         * @param fSym The cryptocurrency symbol traded from, as listed by the API
+         * @param tSym The currency symbol traded to, as listed by the API
+         * @return Whether the exchange lists the pair
+         */
+        public boolean isTrading(String exchange, String fSym, String tSym) {
+            SymbolTable symbols = SymbolTable.symbols();
+            int exchangeId = SymbolTable.exchanges().find(exchange);
+            int fromId = symbols.find(fSym);
+            int toId = symbols.find(tSym);
+            if (exchangeId < 0 || fromId < 0 || toId < 0) return false;
+
+            BitSet ids = pairIndex.get(pairKey(fromId, toId));
+            return ids != null && ids.get(exchangeId);
+        }
+
+        /**
+         * Converts a set of exchange IDs into exchange names
+         * @param ids The {@link SymbolTable#exchanges()} IDs, such as the ones from
+         * {@link ExchangeList#getExchangeIds(String, String)}
+         * @return The exchange names in order of ID
+         */
+        public List<String> getExchangeNames(BitSet ids) {
+            SymbolTable table = SymbolTable.exchanges();
+            List<String> names = new ArrayList<>(ids.cardinality());
+            for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+                names.add(table.name(id));
+            }
+            return names;
+        }
+
         /**
          * Represents a cryptocurrency exchange
          */
@@ -200,7 +302,7 @@ public class Exchanges {
                 coins.forEach((coin, pair) -> {
                     if (pair != null && !pair.isEmpty()) {
                         Coin c = new Coin(pair);
-                        this.coins.put(coin, c);
+                        this.coins.put(SymbolTable.symbols().intern(coin), c);
                     }
                 });
             }
@@ -222,13 +324,25 @@ public class Exchanges {
              */
             private List<String> tradingPairs;
 
+            /**
+             * The {@link SymbolTable#symbols()} IDs of the trading pairs
+             */
+            private int[] tradingPairIds;
+
             /**
              * Creates a coin from a list of trading pairs
              * @param tradingPairs The trading pairs to set
              */
             Coin(List<String> tradingPairs) {
                 if (tradingPairs != null && !tradingPairs.isEmpty()) {
-                    this.tradingPairs = tradingPairs;
+                    SymbolTable symbols = SymbolTable.symbols();
+                    this.tradingPairs = new ArrayList<>(tradingPairs.size());
+                    this.tradingPairIds = new int[tradingPairs.size()];
+                    for (String pair : tradingPairs) {
+                        int id = symbols.id(pair);
+                        this.tradingPairIds[this.tradingPairs.size()] = id;
+                        this.tradingPairs.add(symbols.name(id));
+                    }
                 }
             }
 
@@ -238,6 +352,13 @@ public class Exchanges {
             public List<String> getTradingPairs() {
                 return tradingPairs;
             }
+
+            /**
+             * {@link Coin#tradingPairIds}
+             */
+            public int[] getTradingPairIds() {
+                return tradingPairIds;
+            }
         }
     }
 }
@@ -1,21 +1,93 @@
 package me.joshmcfarlin.cryptocompareapi;
 
-import com.google.gson.*;
+import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import me.joshmcfarlin.cryptocompareapi.Exceptions.InvalidParameterException;
+import me.joshmcfarlin.cryptocompareapi.utils.Async;
 import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
 import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import me.joshmcfarlin.cryptocompareapi.utils.HttpConnection;
+import me.joshmcfarlin.cryptocompareapi.utils.Json;
+import me.joshmcfarlin.cryptocompareapi.utils.RateLimiting;
+import me.joshmcfarlin.cryptocompareapi.utils.StreamingAdapterFactory;
 import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
 
 import java.io.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Contains methods for requesting information about historic cryptocurrency prices
  * @author Josh McFarlin
  */
 public class Historic {
+    /**
+     * The maximum number of data points the API returns for a single histo call
+     */
+    public static final int MAX_LIMIT = 2000;
+
+    /**
+     * The connection used to make requests
+     */
+    private final Connection connection;
+
+    /**
+     * The executor backfill pages are fetched on
+     */
+    private final Executor executor;
+
+    /**
+     * The number of backfill pages which can be fetched at once
+     */
+    private volatile int backfillConcurrency = 4;
+
+    /**
+     * The longest time in nanoseconds a backfill page waits for the rate limit before giving up
+     */
+    private volatile long backfillMaxWaitNanos = TimeUnit.MINUTES.toNanos(5);
+
+    /**
+     * The store backfill reads data from before requesting it, null to always request it
+     */
+    private volatile CandleStore candleStore;
+
+    /**
+     * Creates an object which makes requests through a new {@link HttpConnection}
+     */
+    public Historic() {
+        this(new HttpConnection());
+    }
+
+    /**
+     * Creates an object which makes requests through the provided connection, fetching backfill pages on the page executor
+     * @param connection The connection used to make requests
+     * @see Async#getPageExecutor()
+     */
+    public Historic(Connection connection) {
+        this(connection, Async.getPageExecutor());
+    }
+
+    /**
+     * Creates an object which makes requests through the provided connection
+     * @param connection The connection used to make requests
+     * @param executor The executor backfill pages are fetched on, which should not be a bounded executor backfill itself
+     * runs on since the pages could then queue behind the backfill waiting for them
+     */
+    public Historic(Connection connection, Executor executor) {
+        this.connection = connection;
+        this.executor = executor;
+    }
+
     /**
      * Get market data for a symbol pair by minute up to to the provided limit
      * @param fSym The cryptocurrency symbol of interest [Max character length: 10]
@@ -35,54 +107,10 @@ public class Historic {
     public History getMinute(String fSym, String tSym, Boolean tryConversion, String e,
                                     Integer aggregate, Boolean aggregatePredictableTimePeriods,
                                     Integer limit, Integer toTs, String extraParams, Boolean sign) throws IOException, OutOfCallsException, InvalidParameterException {
-        if (fSym.length() > 10) {
-            throw new InvalidParameterException("The max character length of fSym is 10!");
-        }
-
-        if (tSym.length() > 10) {
-            throw new InvalidParameterException("The max character length of tSym is 10!");
-        }
-
-        String formattedUrl = String.format("https://min-api.cryptocompare.com/data/histominute?fsym=%s&tsym=%s",
-                fSym.toUpperCase(), tSym.toUpperCase());
-
-        if (tryConversion != null) {
-            formattedUrl += "&tryConversion=" + tryConversion.toString();
-        }
-
-        if (e != null) {
-            if (e.length() > 30) throw new InvalidParameterException("The max character length of e is 30!");
-            formattedUrl += "&e=" + e;
-        }
-
-        if (aggregate != null) {
-            formattedUrl += "&aggregate=" + aggregate;
+        String formattedUrl = histoUrl(Resolution.MINUTE, fSym, tSym, tryConversion, e, aggregate,
+                aggregatePredictableTimePeriods, limit, toTs, extraParams, sign);
 
-            if (aggregatePredictableTimePeriods != null) {
-                formattedUrl += "&aggregatePredictableTimePeriods=" + aggregatePredictableTimePeriods.toString();
-            }
-        }
-
-        if (limit != null) {
-            formattedUrl += "&limit=" + limit;
-        }
-
-        if (toTs != null) {
-            formattedUrl += "&toTs=" + toTs;
-        }
-
-        if (extraParams != null) {
-            if (extraParams.length() > 2000) throw new InvalidParameterException("The max character length of extraParams is 2000!");
-            formattedUrl += "&extraParams=" + extraParams;
-        }
-
-        if (sign != null) {
-            formattedUrl += "&sign=" + sign.toString();
-        }
-
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.HISTO);
-
-        return new Gson().fromJson(r, History.class);
+        return connection.getJSON(formattedUrl, CallTypes.HISTO, Json.parser(History.class));
     }
 
     /**
@@ -125,54 +153,10 @@ public class Historic {
     public History getHour(String fSym, String tSym, Boolean tryConversion, String e,
                                   Integer aggregate, Boolean aggregatePredictableTimePeriods,
                                   Integer limit, Integer toTs, String extraParams, Boolean sign) throws IOException, OutOfCallsException, InvalidParameterException {
-        if (fSym.length() > 10) {
-            throw new InvalidParameterException("The max character length of fSym is 10!");
-        }
-
-        if (tSym.length() > 10) {
-            throw new InvalidParameterException("The max character length of tSym is 10!");
-        }
-
-        String formattedUrl = String.format("https://min-api.cryptocompare.com/data/histohour?fsym=%s&tsym=%s",
-                fSym.toUpperCase(), tSym.toUpperCase());
-
-        if (tryConversion != null) {
-            formattedUrl += "&tryConversion=" + tryConversion.toString();
-        }
-
-        if (e != null) {
-            if (e.length() > 30) throw new InvalidParameterException("The max character length of e is 30!");
-            formattedUrl += "&e=" + e;
-        }
-
-        if (aggregate != null) {
-            formattedUrl += "&aggregate=" + aggregate;
-
-            if (aggregatePredictableTimePeriods != null) {
-                formattedUrl += "&aggregatePredictableTimePeriods=" + aggregatePredictableTimePeriods.toString();
-            }
-        }
-
-        if (limit != null) {
-            formattedUrl += "&limit=" + limit;
-        }
-
-        if (toTs != null) {
-            formattedUrl += "&toTs=" + toTs;
-        }
-
-        if (extraParams != null) {
-            if (extraParams.length() > 2000) throw new InvalidParameterException("The max character length of extraParams is 2000!");
-            formattedUrl += "&extraParams=" + extraParams;
-        }
-
-        if (sign != null) {
-            formattedUrl += "&sign=" + sign.toString();
-        }
+        String formattedUrl = histoUrl(Resolution.HOUR, fSym, tSym, tryConversion, e, aggregate,
+                aggregatePredictableTimePeriods, limit, toTs, extraParams, sign);
 
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.HISTO);
-
-        return new Gson().fromJson(r, History.class);
+        return connection.getJSON(formattedUrl, CallTypes.HISTO, Json.parser(History.class));
     }
 
     /**
@@ -215,6 +199,305 @@ public class Historic {
     public History getDay(String fSym, String tSym, Boolean tryConversion, String e,
                                  Integer aggregate, Boolean aggregatePredictableTimePeriods,
                                  Integer limit, Integer toTs, String extraParams, Boolean sign) throws IOException, OutOfCallsException, InvalidParameterException {
+        String formattedUrl = histoUrl(Resolution.DAY, fSym, tSym, tryConversion, e, aggregate,
+                aggregatePredictableTimePeriods, limit, toTs, extraParams, sign);
+
+        return connection.getJSON(formattedUrl, CallTypes.HISTO, Json.parser(History.class));
+    }
+
+    /**
+     * @see Historic#getDay(String, String, Boolean, String, Integer, Boolean, Integer, Integer, String, Boolean)
+     */
+    public History getDay(String fSym, String tSym) throws IOException, OutOfCallsException, InvalidParameterException {
+        return getDay(fSym, tSym, null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * @see Historic#getDay(String, String, Boolean, String, Integer, Boolean, Integer, Integer, String, Boolean)
+     */
+    public History getDay(String fSym, String tSym, Integer limit) throws IOException, OutOfCallsException, InvalidParameterException {
+        return getDay(fSym, tSym, null, null, null, null, limit, null, null, null);
+    }
+
+    /**
+     * @see Historic#getDay(String, String, Boolean, String, Integer, Boolean, Integer, Integer, String, Boolean)
+     */
+    public History getDay(String fSym, String tSym, Integer limit, Integer toTs) throws IOException, OutOfCallsException, InvalidParameterException {
+        return getDay(fSym, tSym, null, null, null, null, limit, toTs, null, null);
+    }
+
+    /**
+     * Gets market data for a symbol pair at the provided resolution as parallel primitive arrays
+     * @param resolution The time between two data points
+     * @param fSym The cryptocurrency symbol of interest [Max character length: 10]
+     * @param tSym The currency symbol to convert into [Max character length: 10]
+     * @param tryConversion If set to false, it will try to get only direct trading values
+     * @param e The exchange to obtain data from (our aggregated average - CCCAGG - by default) [Max character length: 30]
+     * @param aggregate Time period to aggregate the data over (for daily it's days, for hourly it's hours and for minute histo it's minutes)
+     * @param aggregatePredictableTimePeriods True by default, only used when the aggregate param is also in use. If false it will aggregate based on the current time.
+     * @param limit The number of data points to return
+     * @param toTs Last unix timestamp to return data for
+     * @param extraParams The name of your application (we recommend you send it) [Max character length: 2000]
+     * @param sign If set to true, the server will sign the requests (by default we don't sign them), this is useful for usage in smart contracts
+     * @return HistoryColumns A object containing different API data
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    public HistoryColumns getColumns(Resolution resolution, String fSym, String tSym, Boolean tryConversion, String e,
+                                     Integer aggregate, Boolean aggregatePredictableTimePeriods,
+                                     Integer limit, Integer toTs, String extraParams, Boolean sign) throws IOException, OutOfCallsException, InvalidParameterException {
+        String formattedUrl = histoUrl(resolution, fSym, tSym, tryConversion, e, aggregate,
+                aggregatePredictableTimePeriods, limit, toTs, extraParams, sign);
+
+        return connection.getJSON(formattedUrl, CallTypes.HISTO, Json.parser(HistoryColumns.class));
+    }
+
+    /**
+     * @see Historic#getColumns(Resolution, String, String, Boolean, String, Integer, Boolean, Integer, Integer, String, Boolean)
+     */
+    public HistoryColumns getColumns(Resolution resolution, String fSym, String tSym, Integer limit, Integer toTs) throws IOException, OutOfCallsException, InvalidParameterException {
+        return getColumns(resolution, fSym, tSym, null, null, null, null, limit, toTs, null, null);
+    }
+
+    /**
+     * Gets all market data for a symbol pair between two times, fetching as many pages as needed
+     * @see Historic#backfill(String, String, String, Resolution, int, int, Consumer)
+     */
+    public HistoryColumns backfill(String fSym, String tSym, Resolution resolution, int fromTs, int toTs) throws IOException, OutOfCallsException, InvalidParameterException {
+        return backfill(fSym, tSym, null, resolution, fromTs, toTs);
+    }
+
+    /**
+     * Gets all market data for a symbol pair between two times, fetching as many pages as needed
+     * @see Historic#backfill(String, String, String, Resolution, int, int, Consumer)
+     */
+    public HistoryColumns backfill(String fSym, String tSym, String e, Resolution resolution, int fromTs, int toTs) throws IOException, OutOfCallsException, InvalidParameterException {
+        HistoryColumns merged = new HistoryColumns(Math.max(0, (toTs - fromTs) / resolution.getSeconds() + 1));
+        merged.setRange(null, fromTs, toTs);
+
+        backfill(fSym, tSym, e, resolution, fromTs, toTs, page -> {
+            merged.response = page.response;
+            for (int i = 0; i < page.size(); i++) {
+                merged.add(page, i);
+            }
+        });
+
+        merged.trim();
+        return merged;
+    }
+
+    /**
+     * Fetches all market data for a symbol pair between two times and passes it to a consumer oldest first
+     *
+     * The range is split into pages of up to {@link Historic#MAX_LIMIT} data points, which are fetched in parallel on
+     * the executor. Pages wait for the HISTO rate limit instead of failing. Data points repeated on the edges of two
+     * pages or outside of the range are dropped, so the consumer sees every time at most once and in increasing order.
+     * Pages the server throttles are retried like pages without calls left, any other error fails the backfill.
+     * When a {@link CandleStore} is set, stored data is read from it and only the missing ranges are requested.
+     * @param fSym The cryptocurrency symbol of interest [Max character length: 10]
+     * @param tSym The currency symbol to convert into [Max character length: 10]
+     * @param e The exchange to obtain data from (our aggregated average - CCCAGG - by default) [Max character length: 30]
+     * @param resolution The time between two data points
+     * @param fromTs First unix timestamp to return data for
+     * @param toTs Last unix timestamp to return data for
+     * @param consumer Receives the data one page at a time, called on the calling thread
+     * @throws IOException when a connection cannot be made or the server answers a page with an error
+     * @throws OutOfCallsException when the rate limit does not allow a page to be fetched in time
+     * @throws InvalidParameterException when a given parameter does not meet the API guidelines
+     */
+    public void backfill(String fSym, String tSym, String e, Resolution resolution, int fromTs, int toTs,
+                         Consumer<HistoryColumns> consumer) throws IOException, OutOfCallsException, InvalidParameterException {
+        if (fromTs > toTs) {
+            throw new InvalidParameterException("fromTs must not be after toTs!");
+        }
+
+        // Validates the parameters once before any page is requested
+        histoUrl(resolution, fSym, tSym, null, e, null, null, null, null, null, null);
+
+        int step = resolution.getSeconds();
+        long first = Math.floorDiv(fromTs + (long) step - 1, step) * step;
+        long last = Math.floorDiv(toTs, step) * (long) step;
+        if (first > last) {
+            return;
+        }
+
+        CandleStore store = candleStore;
+        if (store == null) {
+            fetchRange(fSym, tSym, e, resolution, first, last, consumer);
+            return;
+        }
+
+        // Only closed data points are stored, the current one keeps changing until its period ends
+        long closed = Math.floorDiv(System.currentTimeMillis() / 1000, step) * step - step;
+        long storedLast = Math.min(last, closed);
+
+        if (first <= storedLast) {
+            try {
+                for (int[] missing : store.missingRanges(fSym, tSym, e, resolution, (int) first, (int) storedLast)) {
+                    fetchRange(fSym, tSym, e, resolution, missing[0], missing[1], page -> {
+                        try {
+                            store.put(fSym, tSym, e, resolution, page);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    });
+                }
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+
+            long from = first;
+            while (from <= storedLast) {
+                HistoryColumns chunk = store.read(fSym, tSym, e, resolution, (int) from, (int) storedLast, MAX_LIMIT);
+                if (chunk.size() == 0) break;
+                consumer.accept(chunk);
+                from = chunk.time[chunk.size() - 1] + (long) step;
+            }
+        }
+
+        if (last > storedLast) {
+            fetchRange(fSym, tSym, e, resolution, Math.max(first, storedLast + step), last, consumer);
+        }
+    }
+
+    /**
+     * Fetches an aligned range from the API in parallel pages and passes it to a consumer oldest first
+     */
+    private void fetchRange(String fSym, String tSym, String e, Resolution resolution, long first, long last,
+                            Consumer<HistoryColumns> consumer) throws IOException, OutOfCallsException, InvalidParameterException {
+        int step = resolution.getSeconds();
+        ArrayDeque<long[]> pages = planPages(first, last, step);
+        ArrayDeque<CompletableFuture<HistoryColumns>> inFlight = new ArrayDeque<>();
+        long lastTime = Long.MIN_VALUE;
+
+        try {
+            while (!pages.isEmpty() || !inFlight.isEmpty()) {
+                while (!pages.isEmpty() && inFlight.size() < Math.max(1, backfillConcurrency)) {
+                    long[] page = pages.poll();
+                    inFlight.add(Async.supply(executor, () -> fetchPage(fSym, tSym, e, resolution, (int) page[0], (int) page[1])));
+                }
+
+                HistoryColumns page = Async.join(inFlight.poll());
+                HistoryColumns chunk = new HistoryColumns(page.size());
+                for (int i = 0; i < page.size(); i++) {
+                    int time = page.time[i];
+                    if (time > lastTime && time >= first && time <= last) {
+                        chunk.add(page, i);
+                        lastTime = time;
+                    }
+                }
+
+                if (chunk.size() > 0) {
+                    chunk.setRange(page.response, chunk.time[0], chunk.time[chunk.size() - 1]);
+                    chunk.conversionType = page.conversionType;
+                    chunk.trim();
+                    consumer.accept(chunk);
+                }
+            }
+        } finally {
+            for (CompletableFuture<HistoryColumns> future : inFlight) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Splits a range into pages, each overlapping the previous one by a data point so a gap cannot appear between them
+     * @return The limit and toTs of every page, oldest first
+     */
+    private static ArrayDeque<long[]> planPages(long first, long last, int step) {
+        ArrayDeque<long[]> pages = new ArrayDeque<>();
+        long pageTo = last;
+        while (true) {
+            long limit = Math.max(1, Math.min(MAX_LIMIT, (pageTo - first) / step));
+            pages.addFirst(new long[]{limit, pageTo});
+
+            long pageFrom = pageTo - limit * step;
+            if (pageFrom <= first) {
+                return pages;
+            }
+            pageTo = pageFrom;
+        }
+    }
+
+    /**
+     * Fetches a single backfill page, waiting for the rate limit when no calls are left or the server throttled it
+     * @throws IOException when the server answers with an error other than its rate limit
+     */
+    private HistoryColumns fetchPage(String fSym, String tSym, String e, Resolution resolution, int limit, int toTs) throws Exception {
+        long deadline = System.nanoTime() + backfillMaxWaitNanos;
+        while (true) {
+            OutOfCallsException outOfCalls;
+            try {
+                HistoryColumns page = getColumns(resolution, fSym, tSym, null, e, null, null, limit, toTs, null, null);
+                if ("Success".equals(page.response)) {
+                    return page;
+                }
+                // The server reports its own rate limit as an error with an HTTP 200 status
+                if (page.message == null || !page.message.toLowerCase(Locale.ROOT).contains("rate limit")) {
+                    throw new IOException(String.format("Backfill page of %s-%s up to %d failed: %s", fSym, tSym, toTs,
+                            page.message == null ? page.response : page.message));
+                }
+                outOfCalls = new OutOfCallsException(page.message);
+            } catch (OutOfCallsException ex) {
+                outOfCalls = ex;
+            }
+
+            long wait = Math.max(TimeUnit.MILLISECONDS.toNanos(10), RateLimiting.nanosUntilCallable(CallTypes.HISTO));
+            if (System.nanoTime() + wait > deadline) {
+                throw outOfCalls;
+            }
+            RateLimiting.await(CallTypes.HISTO, wait);
+        }
+    }
+
+    /**
+     * {@link Historic#backfillConcurrency}
+     */
+    public int getBackfillConcurrency() {
+        return backfillConcurrency;
+    }
+
+    public void setBackfillConcurrency(int backfillConcurrency) {
+        this.backfillConcurrency = backfillConcurrency;
+    }
+
+    /**
+     * {@link Historic#candleStore}
+     */
+    public CandleStore getCandleStore() {
+        return candleStore;
+    }
+
+    /**
+     * Sets the store backfill keeps data in, so only ranges which are not stored yet are requested
+     *
+     * The data point of the current period is never stored because it keeps changing until the period ends. Ranges
+     * the API has no data for are requested again on every backfill.
+     * @param candleStore The store to use, or null to always request data
+     */
+    public void setCandleStore(CandleStore candleStore) {
+        this.candleStore = candleStore;
+    }
+
+    /**
+     * Sets the longest time a backfill page waits for the rate limit before giving up
+     * @param maxWait The longest time to wait
+     * @param unit The unit of the provided time
+     */
+    public void setBackfillMaxWait(long maxWait, TimeUnit unit) {
+        this.backfillMaxWaitNanos = unit.toNanos(maxWait);
+    }
+
+    /**
+     * Creates the URL for a histo request
+     * @return The formatted URL
+     * @throws InvalidParameterException when a given parameter does not meet the API guidelines
+     * @see Historic#getColumns(Resolution, String, String, Boolean, String, Integer, Boolean, Integer, Integer, String, Boolean)
+     */
+    private static String histoUrl(Resolution resolution, String fSym, String tSym, Boolean tryConversion, String e,
+                                   Integer aggregate, Boolean aggregatePredictableTimePeriods,
+                                   Integer limit, Integer toTs, String extraParams, Boolean sign) throws InvalidParameterException {
         if (fSym.length() > 10) {
             throw new InvalidParameterException("The max character length of fSym is 10!");
         }
@@ -223,67 +506,46 @@ public class Historic {
             throw new InvalidParameterException("The max character length of tSym is 10!");
         }
 
-        String formattedUrl = String.format("https://min-api.cryptocompare.com/data/histoday?fsym=%s&tsym=%s",
-                fSym.toUpperCase(), tSym.toUpperCase());
+        StringBuilder formattedUrl = new StringBuilder(128)
+                .append("https://min-api.cryptocompare.com/data/").append(resolution.getPath())
+                .append("?fsym=").append(fSym.toUpperCase())
+                .append("&tsym=").append(tSym.toUpperCase());
 
         if (tryConversion != null) {
-            formattedUrl += "&tryConversion=" + tryConversion.toString();
+            formattedUrl.append("&tryConversion=").append(tryConversion);
         }
 
         if (e != null) {
             if (e.length() > 30) throw new InvalidParameterException("The max character length of e is 30!");
-            formattedUrl += "&e=" + e;
+            formattedUrl.append("&e=").append(e);
         }
 
         if (aggregate != null) {
-            formattedUrl += "&aggregate=" + aggregate;
+            formattedUrl.append("&aggregate=").append(aggregate);
 
             if (aggregatePredictableTimePeriods != null) {
-                formattedUrl += "&aggregatePredictableTimePeriods=" + aggregatePredictableTimePeriods.toString();
+                formattedUrl.append("&aggregatePredictableTimePeriods=").append(aggregatePredictableTimePeriods);
             }
         }
 
         if (limit != null) {
-            formattedUrl += "&limit=" + limit;
+            formattedUrl.append("&limit=").append(limit);
         }
 
         if (toTs != null) {
-            formattedUrl += "&toTs=" + toTs;
+            formattedUrl.append("&toTs=").append(toTs);
         }
 
         if (extraParams != null) {
             if (extraParams.length() > 2000) throw new InvalidParameterException("The max character length of extraParams is 2000!");
-            formattedUrl += "&extraParams=" + extraParams;
+            formattedUrl.append("&extraParams=").append(extraParams);
         }
 
         if (sign != null) {
-            formattedUrl += "&sign=" + sign.toString();
+            formattedUrl.append("&sign=").append(sign);
         }
 
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.HISTO);
-
-        return new Gson().fromJson(r, History.class);
-    }
-
-    /**
-     * @see Historic#getDay(String, String, Boolean, String, Integer, Boolean, Integer, Integer, String, Boolean)
-     */
-    public History getDay(String fSym, String tSym) throws IOException, OutOfCallsException, InvalidParameterException {
-        return getDay(fSym, tSym, null, null, null, null, null, null, null, null);
-    }
-
-    /**
-     * @see Historic#getDay(String, String, Boolean, String, Integer, Boolean, Integer, Integer, String, Boolean)
-     */
-    public History getDay(String fSym, String tSym, Integer limit) throws IOException, OutOfCallsException, InvalidParameterException {
-        return getDay(fSym, tSym, null, null, null, null, limit, null, null, null);
-    }
-
-    /**
-     * @see Historic#getDay(String, String, Boolean, String, Integer, Boolean, Integer, Integer, String, Boolean)
-     */
-    public History getDay(String fSym, String tSym, Integer limit, Integer toTs) throws IOException, OutOfCallsException, InvalidParameterException {
-        return getDay(fSym, tSym, null, null, null, null, limit, toTs, null, null);
+        return formattedUrl.toString();
     }
 
     /**
@@ -339,10 +601,7 @@ public class Historic {
             formattedUrl += "&sign=" + sign.toString();
         }
 
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.HISTO);
-
-        JsonObject jsonObject = new Gson().fromJson(r, JsonObject.class);
-        return new Gson().fromJson(jsonObject.get(fSym), Map.class);
+        return connection.getJSON(formattedUrl, CallTypes.HISTO, Json.fieldParser(fSym, Map.class));
     }
 
     /**
@@ -419,10 +678,7 @@ public class Historic {
             formattedUrl += "&sign=" + sign.toString();
         }
 
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.PRICE);
-
-        JsonObject jsonObject = new Gson().fromJson(r, JsonObject.class);
-        return jsonObject.get(tSym).getAsDouble();
+        return connection.getJSON(formattedUrl, CallTypes.PRICE, Json.fieldParser(tSym, Double.class));
     }
 
     /**
@@ -506,10 +762,58 @@ public class Historic {
         }
     }
 
+    /**
+     * Represents the time between two historic data points
+     */
+    public enum Resolution {
+        /**
+         * One data point per minute
+         */
+        MINUTE("histominute", 60),
+        /**
+         * One data point per hour
+         */
+        HOUR("histohour", 3600),
+        /**
+         * One data point per day
+         */
+        DAY("histoday", 86400);
+
+        /**
+         * The path of the API call
+         */
+        private String path;
+
+        /**
+         * The number of seconds between two data points
+         */
+        private int seconds;
+
+        Resolution(String path, int seconds) {
+            this.path = path;
+            this.seconds = seconds;
+        }
+
+        /**
+         * {@link Resolution#path}
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * {@link Resolution#seconds}
+         */
+        public int getSeconds() {
+            return seconds;
+        }
+    }
+
     /**
      * Represents historic data provided by the CryptoCompare API
      */
-    public class History {
+    @JsonAdapter(History.AdapterFactory.class)
+    public static class History {
         /**
          * Indicates request success
          */
@@ -617,7 +921,7 @@ public class Historic {
         /**
          * Represents data returned by the API
          */
-        public class Data {
+        public static class Data {
             /**
              * Represents Unix time
              */
@@ -708,7 +1012,7 @@ public class Historic {
         /**
          * Represents a conversion type between cryptocurrencies or currencies
          */
-        public class ConversionType {
+        public static class ConversionType {
             /**
              * The type of currency used to make the conversion
              */
@@ -733,5 +1037,393 @@ public class Historic {
                 return conversionSymbol;
             }
         }
+
+        /**
+         * Reads History objects without reflection
+         */
+        static class AdapterFactory extends StreamingAdapterFactory<History> {
+            AdapterFactory() {
+                super(History.class);
+            }
+
+            @Override
+            protected History read(JsonReader in) throws IOException {
+                History history = new History();
+                in.beginObject();
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "Response": history.response = Json.nextString(in); break;
+                        case "Type": history.type = Json.nextInt(in); break;
+                        case "Data": history.data = readData(in); break;
+                        case "TimeTo": history.timeTo = Json.nextInt(in); break;
+                        case "TimeFrom": history.timeFrom = Json.nextInt(in); break;
+                        case "FirstValueInArray": history.firstValueInArray = Json.nextBoolean(in); break;
+                        case "ConversionType": history.conversionType = readConversionType(in); break;
+                        case "Aggregated": history.aggregated = Json.nextBoolean(in); break;
+                        default: in.skipValue();
+                    }
+                }
+                in.endObject();
+                return history;
+            }
+
+            private static List<Data> readData(JsonReader in) throws IOException {
+                if (in.peek() != JsonToken.BEGIN_ARRAY) {
+                    in.skipValue();
+                    return null;
+                }
+
+                List<Data> data = new ArrayList<>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    Data point = new Data();
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        switch (in.nextName()) {
+                            case "time": point.time = Json.nextInt(in); break;
+                            case "close": point.close = Json.nextDouble(in); break;
+                            case "high": point.high = Json.nextDouble(in); break;
+                            case "low": point.low = Json.nextDouble(in); break;
+                            case "open": point.open = Json.nextDouble(in); break;
+                            case "volumefrom": point.volumeFrom = Json.nextDouble(in); break;
+                            case "volumeto": point.volumeTo = Json.nextDouble(in); break;
+                            default: in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                    data.add(point);
+                }
+                in.endArray();
+                return data;
+            }
+
+            static ConversionType readConversionType(JsonReader in) throws IOException {
+                if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                    in.skipValue();
+                    return null;
+                }
+
+                ConversionType conversionType = new ConversionType();
+                in.beginObject();
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "type": conversionType.type = Json.nextString(in); break;
+                        case "conversionSymbol": conversionType.conversionSymbol = Json.nextString(in); break;
+                        default: in.skipValue();
+                    }
+                }
+                in.endObject();
+                return conversionType;
+            }
+        }
+    }
+
+    /**
+     * Represents historic data provided by the CryptoCompare API, stored as one primitive array per value
+     *
+     * The arrays are shared with the caller instead of copied, and hold exactly {@link HistoryColumns#size()} points.
+     */
+    @JsonAdapter(HistoryColumns.AdapterFactory.class)
+    public static class HistoryColumns {
+        /**
+         * Indicates request success
+         */
+        private String response;
+
+        /**
+         * The reason the request failed, null when it succeeded
+         */
+        private String message;
+
+        /**
+         * Indicates the Unix starting time of the request
+         */
+        private int timeTo;
+
+        /**
+         * Indicates the Unix ending time of the request
+         */
+        private int timeFrom;
+
+        /**
+         * Indicates if a currency conversion was used to get the data
+         */
+        private History.ConversionType conversionType;
+
+        /**
+         * The number of data points
+         */
+        private int size;
+
+        /**
+         * Unix time of every data point
+         */
+        private int[] time;
+
+        /**
+         * Symbol open of every data point
+         */
+        private double[] open;
+
+        /**
+         * Symbol high of every data point
+         */
+        private double[] high;
+
+        /**
+         * Symbol low of every data point
+         */
+        private double[] low;
+
+        /**
+         * Symbol close of every data point
+         */
+        private double[] close;
+
+        /**
+         * Volume from the symbol of every data point
+         */
+        private double[] volumeFrom;
+
+        /**
+         * Volume to the symbol of every data point
+         */
+        private double[] volumeTo;
+
+        HistoryColumns() {
+            this(0);
+        }
+
+        HistoryColumns(int capacity) {
+            time = new int[capacity];
+            open = new double[capacity];
+            high = new double[capacity];
+            low = new double[capacity];
+            close = new double[capacity];
+            volumeFrom = new double[capacity];
+            volumeTo = new double[capacity];
+        }
+
+        /**
+         * Adds a data point at the end, growing the arrays when needed
+         */
+        void add(int time, double open, double high, double low, double close, double volumeFrom, double volumeTo) {
+            if (size == this.time.length) {
+                resize(Math.max(16, size * 2));
+            }
+            this.time[size] = time;
+            this.open[size] = open;
+            this.high[size] = high;
+            this.low[size] = low;
+            this.close[size] = close;
+            this.volumeFrom[size] = volumeFrom;
+            this.volumeTo[size] = volumeTo;
+            size++;
+        }
+
+        /**
+         * Adds a data point from another object at the end
+         */
+        void add(HistoryColumns other, int index) {
+            add(other.time[index], other.open[index], other.high[index], other.low[index], other.close[index],
+                    other.volumeFrom[index], other.volumeTo[index]);
+        }
+
+        /**
+         * Sets the response and the range of times the data covers
+         */
+        void setRange(String response, int timeFrom, int timeTo) {
+            this.response = response;
+            this.timeFrom = timeFrom;
+            this.timeTo = timeTo;
+        }
+
+        /**
+         * Shrinks the arrays to the number of data points
+         */
+        void trim() {
+            if (size != time.length) {
+                resize(size);
+            }
+        }
+
+        private void resize(int capacity) {
+            time = Arrays.copyOf(time, capacity);
+            open = Arrays.copyOf(open, capacity);
+            high = Arrays.copyOf(high, capacity);
+            low = Arrays.copyOf(low, capacity);
+            close = Arrays.copyOf(close, capacity);
+            volumeFrom = Arrays.copyOf(volumeFrom, capacity);
+            volumeTo = Arrays.copyOf(volumeTo, capacity);
+        }
+
+        /**
+         * Finds the first data point at or after a time, the data points must be sorted by time
+         * @param unixTime The Unix time to search for
+         * @return The index of the first data point at or after the time, or size() if there is none
+         */
+        public int indexOf(int unixTime) {
+            int from = 0;
+            int to = size;
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (time[mid] < unixTime) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            return from;
+        }
+
+        /**
+         * {@link HistoryColumns#response}
+         */
+        public String getResponse() {
+            return response;
+        }
+
+        /**
+         * {@link HistoryColumns#message}
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * {@link HistoryColumns#timeTo}
+         */
+        public int getTimeTo() {
+            return timeTo;
+        }
+
+        /**
+         * {@link HistoryColumns#timeFrom}
+         */
+        public int getTimeFrom() {
+            return timeFrom;
+        }
+
+        /**
+         * {@link HistoryColumns#conversionType}
+         */
+        public History.ConversionType getConversionType() {
+            return conversionType;
+        }
+
+        /**
+         * {@link HistoryColumns#size}
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * {@link HistoryColumns#time}
+         */
+        public int[] getTime() {
+            return time;
+        }
+
+        /**
+         * {@link HistoryColumns#open}
+         */
+        public double[] getOpen() {
+            return open;
+        }
+
+        /**
+         * {@link HistoryColumns#high}
+         */
+        public double[] getHigh() {
+            return high;
+        }
+
+        /**
+         * {@link HistoryColumns#low}
+         */
+        public double[] getLow() {
+            return low;
+        }
+
+        /**
+         * {@link HistoryColumns#close}
+         */
+        public double[] getClose() {
+            return close;
+        }
+
+        /**
+         * {@link HistoryColumns#volumeFrom}
+         */
+        public double[] getVolumeFrom() {
+            return volumeFrom;
+        }
+
+        /**
+         * {@link HistoryColumns#volumeTo}
+         */
+        public double[] getVolumeTo() {
+            return volumeTo;
+        }
+
+        /**
+         * Reads HistoryColumns objects straight into the arrays without creating an object per data point
+         */
+        static class AdapterFactory extends StreamingAdapterFactory<HistoryColumns> {
+            AdapterFactory() {
+                super(HistoryColumns.class);
+            }
+
+            @Override
+            protected HistoryColumns read(JsonReader in) throws IOException {
+                HistoryColumns columns = new HistoryColumns(256);
+                in.beginObject();
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "Response": columns.response = Json.nextString(in); break;
+                        case "Message": columns.message = Json.nextString(in); break;
+                        case "Data": readData(in, columns); break;
+                        case "TimeTo": columns.timeTo = Json.nextInt(in); break;
+                        case "TimeFrom": columns.timeFrom = Json.nextInt(in); break;
+                        case "ConversionType": columns.conversionType = History.AdapterFactory.readConversionType(in); break;
+                        default: in.skipValue();
+                    }
+                }
+                in.endObject();
+                columns.trim();
+                return columns;
+            }
+
+            private static void readData(JsonReader in, HistoryColumns columns) throws IOException {
+                if (in.peek() != JsonToken.BEGIN_ARRAY) {
+                    in.skipValue();
+                    return;
+                }
+
+                in.beginArray();
+                while (in.hasNext()) {
+                    int time = 0;
+                    double open = 0, high = 0, low = 0, close = 0, volumeFrom = 0, volumeTo = 0;
+
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        switch (in.nextName()) {
+                            case "time": time = Json.nextInt(in); break;
+                            case "close": close = Json.nextDouble(in); break;
+                            case "high": high = Json.nextDouble(in); break;
+                            case "low": low = Json.nextDouble(in); break;
+                            case "open": open = Json.nextDouble(in); break;
+                            case "volumefrom": volumeFrom = Json.nextDouble(in); break;
+                            case "volumeto": volumeTo = Json.nextDouble(in); break;
+                            default: in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                    columns.add(time, open, high, low, close, volumeFrom, volumeTo);
+                }
+                in.endArray();
+            }
+        }
     }
 }
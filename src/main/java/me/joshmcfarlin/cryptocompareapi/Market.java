@@ -1,24 +1,105 @@
 package me.joshmcfarlin.cryptocompareapi;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
+import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import me.joshmcfarlin.cryptocompareapi.Exceptions.InvalidParameterException;
+import me.joshmcfarlin.cryptocompareapi.utils.Async;
 import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
 import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import me.joshmcfarlin.cryptocompareapi.utils.HttpConnection;
+import me.joshmcfarlin.cryptocompareapi.utils.Json;
+import me.joshmcfarlin.cryptocompareapi.utils.RateLimiting;
+import me.joshmcfarlin.cryptocompareapi.utils.ResponseParser;
+import me.joshmcfarlin.cryptocompareapi.utils.StreamingAdapterFactory;
+import me.joshmcfarlin.cryptocompareapi.utils.SymbolTable;
 import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
 
 import java.io.*;
 import java.lang.reflect.Type;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Contains methods for requesting information about the cryptocurrency market on multiple exchanges
  * @author Josh McFarlin
  */
 public class Market {
+    /**
+     * The types responses are parsed into
+     */
+    private static final Type PRICE_TYPE = new TypeToken<Map<String, Double>>() {}.getType();
+    private static final Type MULTI_PRICE_TYPE = new TypeToken<Map<String, Map<String, Double>>>() {}.getType();
+    private static final Type MULTI_FULL_TYPE = new TypeToken<Map<String, Map<String, toSym>>>() {}.getType();
+    private static final Type COIN_LIST_TYPE = new TypeToken<List<Coin>>() {}.getType();
+    private static final Type PAIR_LIST_TYPE = new TypeToken<List<Pair>>() {}.getType();
+
+    /**
+     * The maximum character length of the fSyms parameter of the multi endpoints
+     */
+    public static final int MAX_FSYMS_LENGTH = 300;
+
+    /**
+     * The maximum character length of the tSyms parameter of the multi endpoints
+     */
+    public static final int MAX_TSYMS_LENGTH = 100;
+
+    /**
+     * The connection used to make requests
+     */
+    private final Connection connection;
+
+    /**
+     * The executor batches of symbols are requested on
+     */
+    private final Executor executor;
+
+    /**
+     * The number of batches of symbols which can be requested at once
+     */
+    private volatile int batchConcurrency = 4;
+
+    /**
+     * The longest time in nanoseconds a batch waits for the PRICE rate limit before giving up
+     */
+    private volatile long batchMaxWaitNanos = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * Polls the subscribed pairs, created with the first subscription
+     */
+    private volatile PriceScheduler scheduler;
+
+    /**
+     * Creates an object which makes requests through a new {@link HttpConnection}
+     */
+    public Market() {
+        this(new HttpConnection());
+    }
+
+    /**
+     * Creates an object which makes requests through the provided connection
+     * @param connection The connection used to make requests
+     */
+    public Market(Connection connection) {
+        this(connection, Async.getDefaultExecutor());
+    }
+
+    /**
+     * Creates an object which makes requests through the provided connection
+     * @param connection The connection used to make requests
+     * @param executor The executor batches of symbols are requested on
+     */
+    public Market(Connection connection, Executor executor) {
+        this.connection = connection;
+        this.executor = executor;
+    }
+
     /**
      * Gets price of an input symbol in multiple output symbols
      * @param fSym The cryptocurrency symbol of interest [Max character length: 10]
@@ -63,10 +144,7 @@ public class Market {
             formattedUrl += "&sign=" + sign.toString();
         }
 
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.PRICE);
-
-        Type type = new TypeToken<Map<String, Double>>() {}.getType();
-        return new Gson().fromJson(r, type);
+        return connection.getJSON(formattedUrl, CallTypes.PRICE, Json.parser(PRICE_TYPE));
     }
 
     /**
@@ -92,106 +170,449 @@ public class Market {
     public Map<String, Map<String, Double>> getMultiPrice(String fSyms, String tSyms, Boolean tryConversion, String e, String extraParams, Boolean sign) throws
             IOException, OutOfCallsException, InvalidParameterException {
 
-        if (fSyms.length() > 300) {
+        String formattedUrl = multiUrl("pricemulti", fSyms, tSyms, tryConversion, e, extraParams, sign);
+        return connection.getJSON(formattedUrl, CallTypes.PRICE, Json.parser(MULTI_PRICE_TYPE));
+    }
+
+    /**
+     * @see Market#getMultiPrice(String, String, Boolean, String, String, Boolean)
+     */
+    public Map<String, Map<String, Double>> getMultiPrice(String fSym, String tSyms) throws
+            IOException, OutOfCallsException, InvalidParameterException {
+        return getMultiPrice(fSym, tSyms, null, null, null, null);
+    }
+
+    /**
+     * Gets full information about multiple input symbols to multiple output symbols
+     * @param fSyms Comma separated cryptocurrency symbols list [Max character length: 300]
+     * @param tSyms Comma separated cryptocurrency symbols list to convert into [Max character length: 100]
+     * @param tryConversion If set to false, it will try to get only direct trading values
+     * @param e The exchange to obtain data from (our aggregated average - CCCAGG - by default) [Max character length: 30]
+     * @param extraParams The name of your application (we recommend you send it) [Max character length: 2000]
+     * @param sign If set to true, the server will sign the requests (by default we don't sign them), this is useful for usage in smart contracts
+     * @return Map containing price for each to-symbol
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    public Map<String, Map<String, toSym>> getMultiFull(String fSyms, String tSyms, Boolean tryConversion, String e, String extraParams, Boolean sign) throws
+            IOException, OutOfCallsException, InvalidParameterException {
+
+        String formattedUrl = multiUrl("pricemultifull", fSyms, tSyms, tryConversion, e, extraParams, sign);
+        return connection.getJSON(formattedUrl, CallTypes.PRICE, Json.fieldParser("RAW", MULTI_FULL_TYPE));
+    }
+
+    /**
+     * @see Market#getMultiFull(String, String, Boolean, String, String, Boolean)
+     */
+    public Map<String, Map<String, toSym>> getMultiFull(String fSym, String tSyms) throws
+            IOException, OutOfCallsException, InvalidParameterException {
+        return getMultiFull(fSym, tSyms, null, null, null, null);
+    }
+
+    /**
+     * Starts polling full information for a set of pairs, notifying the listener of the pairs which changed
+     *
+     * All subscriptions share a single polling loop, which merges the pairs due at the same time into batched requests
+     * and stays within the local rate limits.
+     * @param fSyms The cryptocurrency symbols of interest
+     * @param tSyms The cryptocurrency symbols to convert into
+     * @param interval The time between two polls
+     * @param unit The unit of the provided time
+     * @param listener Receives the pairs whose price or last update time changed, starting with every pair
+     * @return The subscription, which must be cancelled to stop polling
+     * @see PriceScheduler
+     */
+    public PriceScheduler.Subscription subscribe(Collection<String> fSyms, Collection<String> tSyms, long interval, TimeUnit unit,
+                                                 PriceScheduler.Listener listener) {
+        return getScheduler().subscribe(fSyms, tSyms, interval, unit, listener);
+    }
+
+    /**
+     * {@link Market#batchConcurrency}
+     */
+    public int getBatchConcurrency() {
+        return batchConcurrency;
+    }
+
+    public void setBatchConcurrency(int batchConcurrency) {
+        this.batchConcurrency = batchConcurrency;
+    }
+
+    /**
+     * Sets the longest time a batch of symbols waits for the PRICE rate limit before giving up
+     * @param maxWait The longest time to wait
+     * @param unit The unit of the provided time
+     */
+    public void setBatchMaxWait(long maxWait, TimeUnit unit) {
+        this.batchMaxWaitNanos = unit.toNanos(maxWait);
+    }
+
+    /**
+     * Gets the scheduler polling the subscribed pairs
+     * @return The scheduler, created on first use
+     */
+    public PriceScheduler getScheduler() {
+        PriceScheduler current = scheduler;
+        if (current == null) {
+            synchronized (this) {
+                current = scheduler;
+                if (current == null) {
+                    current = new PriceScheduler(this);
+                    scheduler = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Builds and validates the URL of a multi endpoint
+     */
+    private static String multiUrl(String path, String fSyms, String tSyms, Boolean tryConversion, String e,
+                                   String extraParams, Boolean sign) throws InvalidParameterException {
+        if (fSyms.length() > MAX_FSYMS_LENGTH) {
             throw new InvalidParameterException("The max character length of fSyms is 300!");
         }
 
-        if (tSyms.length() > 100) {
+        if (tSyms.length() > MAX_TSYMS_LENGTH) {
             throw new InvalidParameterException("The max character length of tSyms is 100!");
         }
 
-        String formattedUrl = String.format("https://min-api.cryptocompare.com/data/pricemulti?fsyms=%s&tsyms=%s",
-                fSyms.toUpperCase(), tSyms.toUpperCase());
+        StringBuilder formattedUrl = new StringBuilder(128)
+                .append("https://min-api.cryptocompare.com/data/").append(path)
+                .append("?fsyms=").append(fSyms.toUpperCase())
+                .append("&tsyms=").append(tSyms.toUpperCase());
 
         if (tryConversion != null) {
-            formattedUrl += "&tryConversion=" + tryConversion.toString();
+            formattedUrl.append("&tryConversion=").append(tryConversion);
         }
 
         if (e != null) {
             if (e.length() > 30) throw new InvalidParameterException("The max character length of e is 30!");
-            formattedUrl += "&e=" + e;
+            formattedUrl.append("&e=").append(e);
         }
 
         if (extraParams != null) {
             if (extraParams.length() > 2000) throw new InvalidParameterException("The max character length of extraParams is 2000!");
-            formattedUrl += "&extraParams=" + extraParams;
+            formattedUrl.append("&extraParams=").append(extraParams);
         }
 
         if (sign != null) {
-            formattedUrl += "&sign=" + sign.toString();
+            formattedUrl.append("&sign=").append(sign);
         }
 
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.PRICE);
+        return formattedUrl.toString();
+    }
 
-        Type type = new TypeToken<Map<String, Map<String, Double>>>() {}.getType();
-        return new Gson().fromJson(r, type);
+    /**
+     * Updates every price in a matrix in place
+     *
+     * The symbols are split into as few batches as the length limits of the endpoint allow, which are requested in
+     * parallel. Every response is streamed directly into an array without creating any maps, prices missing from a
+     * response become NaN. Every batch counts as a separate API call.
+     * @param matrix The matrix to update
+     * @param tryConversion If set to false, it will try to get only direct trading values
+     * @param e The exchange to obtain data from (our aggregated average - CCCAGG - by default) [Max character length: 30]
+     * @param extraParams The name of your application (we recommend you send it) [Max character length: 2000]
+     * @param sign If set to true, the server will sign the requests (by default we don't sign them), this is useful for usage in smart contracts
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     * @throws InvalidParameterException when a given parameter does not meet the API guidelines
+     */
+    public void refresh(PriceMatrix matrix, Boolean tryConversion, String e, String extraParams, Boolean sign) throws
+            IOException, OutOfCallsException, InvalidParameterException {
+        List<int[]> fRanges = matrix.ranges(true, MAX_FSYMS_LENGTH);
+        List<int[]> tRanges = matrix.ranges(false, MAX_TSYMS_LENGTH);
+        if (fRanges.size() == 1 && tRanges.size() == 1) {
+            refreshBlock(matrix, fRanges.get(0), tRanges.get(0), tryConversion, e, extraParams, sign);
+        } else {
+            Async.join(refreshAsync(matrix, tryConversion, e, extraParams, sign));
+        }
     }
 
     /**
-     * @see Market#getMultiPrice(String, String, Boolean, String, String, Boolean)
+     * @see Market#refresh(PriceMatrix, Boolean, String, String, Boolean)
      */
-    public Map<String, Map<String, Double>> getMultiPrice(String fSym, String tSyms) throws
+    public void refresh(PriceMatrix matrix) throws IOException, OutOfCallsException, InvalidParameterException {
+        refresh(matrix, null, null, null, null);
+    }
+
+    /**
+     * Updates every price in a matrix in place without blocking the calling thread
+     */
+    CompletableFuture<Void> refreshAsync(PriceMatrix matrix, Boolean tryConversion, String e, String extraParams, Boolean sign) {
+        List<CompletableFuture<Void>> blocks = new ArrayList<>();
+        for (int[] fRange : matrix.ranges(true, MAX_FSYMS_LENGTH)) {
+            for (int[] tRange : matrix.ranges(false, MAX_TSYMS_LENGTH)) {
+                blocks.add(Async.supply(executor, () -> {
+                    refreshBlock(matrix, fRange, tRange, tryConversion, e, extraParams, sign);
+                    return null;
+                }));
+            }
+        }
+        return CompletableFuture.allOf(blocks.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private void refreshBlock(PriceMatrix matrix, int[] fRange, int[] tRange, Boolean tryConversion, String e,
+                              String extraParams, Boolean sign) throws IOException, OutOfCallsException, InvalidParameterException {
+        String formattedUrl = multiUrl("pricemulti", matrix.join(true, fRange[0], fRange[1]),
+                matrix.join(false, tRange[0], tRange[1]), tryConversion, e, extraParams, sign);
+        // Read through the unparsed path, so a cache never answers a refresh or mixes its block up with a parsed map
+        double[] block;
+        try (Reader r = connection.getJSON(formattedUrl, CallTypes.PRICE)) {
+            block = matrix.parseBlock(r, fRange, tRange);
+        }
+        matrix.apply(fRange, tRange, block);
+    }
+
+    /**
+     * Gets the price of any number of input symbols in any number of output symbols
+     *
+     * The symbols are split into as few batches as the length limits of the endpoint allow, which are requested in
+     * parallel and merged into a single map. Every batch counts as a separate API call.
+     * @param fSyms The cryptocurrency symbols of interest [Max character length of each: 300]
+     * @param tSyms The cryptocurrency symbols to convert into [Max character length of each: 100]
+     * @param tryConversion If set to false, it will try to get only direct trading values
+     * @param e The exchange to obtain data from (our aggregated average - CCCAGG - by default) [Max character length: 30]
+     * @param extraParams The name of your application (we recommend you send it) [Max character length: 2000]
+     * @param sign If set to true, the server will sign the requests (by default we don't sign them), this is useful for usage in smart contracts
+     * @return Map containing the price in each to-symbol for each from-symbol
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     * @throws InvalidParameterException when a given parameter does not meet the API guidelines
+     */
+    public Map<String, Map<String, Double>> getMultiPrice(Collection<String> fSyms, Collection<String> tSyms, Boolean tryConversion,
+                                                          String e, String extraParams, Boolean sign) throws
             IOException, OutOfCallsException, InvalidParameterException {
-        return getMultiPrice(fSym, tSyms, null, null, null, null);
+        return batched(fSyms, tSyms, (f, t) -> getMultiPrice(f, t, tryConversion, e, extraParams, sign));
     }
 
     /**
-     * Gets full information about multiple input symbols to multiple output symbols
-     * @param fSyms Comma separated cryptocurrency symbols list [Max character length: 300]
-     * @param tSyms Comma separated cryptocurrency symbols list to convert into [Max character length: 100]
+     * @see Market#getMultiPrice(Collection, Collection, Boolean, String, String, Boolean)
+     */
+    public Map<String, Map<String, Double>> getMultiPrice(Collection<String> fSyms, Collection<String> tSyms) throws
+            IOException, OutOfCallsException, InvalidParameterException {
+        return getMultiPrice(fSyms, tSyms, null, null, null, null);
+    }
+
+    /**
+     * Gets full information about any number of input symbols to any number of output symbols
+     *
+     * The symbols are split into as few batches as the length limits of the endpoint allow, which are requested in
+     * parallel and merged into a single map. Every batch counts as a separate API call.
+     * @param fSyms The cryptocurrency symbols of interest [Max character length of each: 300]
+     * @param tSyms The cryptocurrency symbols to convert into [Max character length of each: 100]
      * @param tryConversion If set to false, it will try to get only direct trading values
      * @param e The exchange to obtain data from (our aggregated average - CCCAGG - by default) [Max character length: 30]
      * @param extraParams The name of your application (we recommend you send it) [Max character length: 2000]
      * @param sign If set to true, the server will sign the requests (by default we don't sign them), this is useful for usage in smart contracts
-     * @return Map containing price for each to-symbol
+     * @return Map containing full information in each to-symbol for each from-symbol
      * @throws IOException when a connection cannot be made
      * @throws OutOfCallsException when no more API calls are available
+     * @throws InvalidParameterException when a given parameter does not meet the API guidelines
      */
-    public Map<String, Map<String, toSym>> getMultiFull(String fSyms, String tSyms, Boolean tryConversion, String e, String extraParams, Boolean sign) throws
+    public Map<String, Map<String, toSym>> getMultiFull(Collection<String> fSyms, Collection<String> tSyms, Boolean tryConversion,
+                                                        String e, String extraParams, Boolean sign) throws
             IOException, OutOfCallsException, InvalidParameterException {
+        return batched(fSyms, tSyms, (f, t) -> getMultiFull(f, t, tryConversion, e, extraParams, sign));
+    }
 
-        if (fSyms.length() > 300) {
-            throw new InvalidParameterException("The max character length of fSyms is 300!");
-        }
+    /**
+     * @see Market#getMultiFull(Collection, Collection, Boolean, String, String, Boolean)
+     */
+    public Map<String, Map<String, toSym>> getMultiFull(Collection<String> fSyms, Collection<String> tSyms) throws
+            IOException, OutOfCallsException, InvalidParameterException {
+        return getMultiFull(fSyms, tSyms, null, null, null, null);
+    }
 
-        if (tSyms.length() > 100) {
-            throw new InvalidParameterException("The max character length of tSyms is 100!");
-        }
+    /**
+     * Gets full information like {@link Market#getMultiFull(Collection, Collection)}, reading every batch through the
+     * unparsed path so a cache never answers with an old response
+     */
+    Map<String, Map<String, toSym>> getMultiFullUncached(Collection<String> fSyms, Collection<String> tSyms) throws
+            IOException, OutOfCallsException, InvalidParameterException {
+        ResponseParser<Map<String, Map<String, toSym>>> parser = Json.fieldParser("RAW", MULTI_FULL_TYPE);
+        return batched(fSyms, tSyms, (f, t) -> {
+            try (Reader r = connection.getJSON(multiUrl("pricemultifull", f, t, null, null, null, null), CallTypes.PRICE)) {
+                return parser.parse(r);
+            }
+        });
+    }
 
-        String formattedUrl = String.format("https://min-api.cryptocompare.com/data/pricemultifull?fsyms=%s&tsyms=%s",
-                fSyms.toUpperCase(), tSyms.toUpperCase());
+    /**
+     * Requests a multi endpoint for a single batch of comma separated symbols
+     */
+    @FunctionalInterface
+    interface BatchCall<V> {
+        Map<String, Map<String, V>> call(String fSyms, String tSyms) throws IOException, OutOfCallsException, InvalidParameterException;
+    }
 
-        if (tryConversion != null) {
-            formattedUrl += "&tryConversion=" + tryConversion.toString();
+    /**
+     * Splits symbols into batches and requests them, on the calling thread when a single batch is enough
+     */
+    private <V> Map<String, Map<String, V>> batched(Collection<String> fSyms, Collection<String> tSyms, BatchCall<V> call) throws
+            IOException, OutOfCallsException, InvalidParameterException {
+        List<String> fBatches = partition(fSyms, MAX_FSYMS_LENGTH, "fSyms");
+        List<String> tBatches = partition(tSyms, MAX_TSYMS_LENGTH, "tSyms");
+        if (fBatches.isEmpty() || tBatches.isEmpty()) {
+            return new LinkedHashMap<>();
         }
-
-        if (e != null) {
-            if (e.length() > 30) throw new InvalidParameterException("The max character length of e is 30!");
-            formattedUrl += "&e=" + e;
+        if (fBatches.size() == 1 && tBatches.size() == 1) {
+            return call.call(fBatches.get(0), tBatches.get(0));
         }
+        return Async.join(requestBatches(fBatches, tBatches, call));
+    }
 
-        if (extraParams != null) {
-            if (extraParams.length() > 2000) throw new InvalidParameterException("The max character length of extraParams is 2000!");
-            formattedUrl += "&extraParams=" + extraParams;
+    /**
+     * Splits symbols into batches and requests them without blocking the calling thread
+     */
+    <V> CompletableFuture<Map<String, Map<String, V>>> batchedAsync(Collection<String> fSyms, Collection<String> tSyms, BatchCall<V> call) {
+        try {
+            List<String> fBatches = partition(fSyms, MAX_FSYMS_LENGTH, "fSyms");
+            List<String> tBatches = partition(tSyms, MAX_TSYMS_LENGTH, "tSyms");
+            if (fBatches.isEmpty() || tBatches.isEmpty()) {
+                return CompletableFuture.completedFuture(new LinkedHashMap<>());
+            }
+            return requestBatches(fBatches, tBatches, call);
+        } catch (InvalidParameterException e) {
+            CompletableFuture<Map<String, Map<String, V>>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
         }
+    }
 
-        if (sign != null) {
-            formattedUrl += "&sign=" + sign.toString();
-        }
+    /**
+     * Requests every combination of from and to batches in parallel and merges the results. At most
+     * {@link Market#batchConcurrency} batches are in flight and a batch out of calls waits for the PRICE rate limit.
+     * Once a batch fails no further batches are started and queued ones are skipped.
+     */
+    private <V> CompletableFuture<Map<String, Map<String, V>>> requestBatches(List<String> fBatches, List<String> tBatches, BatchCall<V> call) {
+        ArrayDeque<String[]> pending = new ArrayDeque<>();
+        for (String f : fBatches) {
+            for (String t : tBatches) {
+                pending.add(new String[]{f, t});
+            }
+        }
+
+        List<CompletableFuture<Map<String, Map<String, V>>>> batches = new CopyOnWriteArrayList<>();
+        CompletableFuture<Map<String, Map<String, V>>> merged = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(pending.size());
+        int window = Math.max(1, Math.min(batchConcurrency, pending.size()));
+        for (int i = 0; i < window; i++) {
+            startBatch(pending, batches, merged, remaining, call);
+        }
+        return merged;
+    }
 
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.PRICE);
+    /**
+     * Starts the next pending batch unless the merged result is already complete, starting another one when it succeeds
+     */
+    private <V> void startBatch(ArrayDeque<String[]> pending, List<CompletableFuture<Map<String, Map<String, V>>>> batches,
+                                CompletableFuture<Map<String, Map<String, V>>> merged, AtomicInteger remaining, BatchCall<V> call) {
+        String[] next;
+        synchronized (pending) {
+            if (merged.isDone()) return;
+            next = pending.poll();
+        }
+        if (next == null) return;
+
+        CompletableFuture<Map<String, Map<String, V>>> batch = Async.supply(executor, () -> callBatch(call, next[0], next[1]));
+        batches.add(batch);
+        batch.whenComplete((result, failure) -> {
+            if (failure != null) {
+                if (merged.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure)) {
+                    for (CompletableFuture<Map<String, Map<String, V>>> other : batches) {
+                        other.cancel(false);
+                    }
+                }
+            } else if (remaining.decrementAndGet() == 0) {
+                merged.complete(merge(batches));
+            } else {
+                startBatch(pending, batches, merged, remaining, call);
+            }
+        });
+        // A failure may have cancelled the others just before this batch was added
+        if (merged.isCompletedExceptionally()) batch.cancel(false);
+    }
 
-        JsonObject jsonObject = new Gson().fromJson(r, JsonObject.class);
-        Type type = new TypeToken<Map<String, Map<String, toSym>>>() {}.getType();
-        return new Gson().fromJson(jsonObject.get("RAW"), type);
+    /**
+     * Requests a single batch, waiting for the rate limit when no calls are left
+     */
+    private <V> Map<String, Map<String, V>> callBatch(BatchCall<V> call, String fSyms, String tSyms) throws Exception {
+        long deadline = System.nanoTime() + batchMaxWaitNanos;
+        while (true) {
+            try {
+                return call.call(fSyms, tSyms);
+            } catch (OutOfCallsException outOfCalls) {
+                long wait = Math.max(TimeUnit.MILLISECONDS.toNanos(10), RateLimiting.nanosUntilCallable(CallTypes.PRICE));
+                if (System.nanoTime() + wait > deadline) {
+                    throw outOfCalls;
+                }
+                RateLimiting.await(CallTypes.PRICE, wait);
+            }
+        }
     }
 
     /**
-     * @see Market#getMultiFull(String, String, Boolean, String, String, Boolean)
+     * Merges the results of completed batches, combining the to-symbols of from-symbols present in several batches
      */
-    public Map<String, Map<String, toSym>> getMultiFull(String fSym, String tSyms) throws
-            IOException, OutOfCallsException, InvalidParameterException {
-        return getMultiFull(fSym, tSyms, null, null, null, null);
+    private static <V> Map<String, Map<String, V>> merge(List<CompletableFuture<Map<String, Map<String, V>>>> batches) {
+        Map<String, Map<String, V>> merged = new LinkedHashMap<>();
+        for (CompletableFuture<Map<String, Map<String, V>>> batch : batches) {
+            Map<String, Map<String, V>> result = batch.join();
+            if (result == null) continue;
+            for (Map.Entry<String, Map<String, V>> from : result.entrySet()) {
+                merged.computeIfAbsent(from.getKey(), k -> new LinkedHashMap<>()).putAll(from.getValue());
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Splits symbols into as few comma separated lists as possible without any list exceeding a length
+     *
+     * Symbols are upper cased and duplicates are removed, then placed longest first into the first list they fit in.
+     * @param symbols The symbols to split
+     * @param maxLength The maximum length of a list including the commas
+     * @param name The name of the parameter, used in error messages
+     * @return The comma separated lists
+     * @throws InvalidParameterException when a single symbol is longer than the maximum length
+     */
+    static List<String> partition(Collection<String> symbols, int maxLength, String name) throws InvalidParameterException {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            String trimmed = symbol.trim().toUpperCase();
+            if (trimmed.isEmpty()) continue;
+            if (trimmed.length() > maxLength) {
+                throw new InvalidParameterException(String.format("The max character length of a symbol in %s is %d!", name, maxLength));
+            }
+            unique.add(trimmed);
+        }
+
+        List<String> sorted = new ArrayList<>(unique);
+        sorted.sort(Comparator.comparingInt(String::length).reversed());
+
+        List<StringBuilder> batches = new ArrayList<>();
+        for (String symbol : sorted) {
+            StringBuilder fit = null;
+            for (StringBuilder batch : batches) {
+                if (batch.length() + 1 + symbol.length() <= maxLength) {
+                    fit = batch;
+                    break;
+                }
+            }
+            if (fit == null) {
+                batches.add(new StringBuilder(maxLength).append(symbol));
+            } else {
+                fit.append(',').append(symbol);
+            }
+        }
+
+        List<String> result = new ArrayList<>(batches.size());
+        for (StringBuilder batch : batches) {
+            result.add(batch.toString());
+        }
+        return result;
     }
 
     /**
@@ -232,10 +653,7 @@ public class Market {
             formattedUrl += "&sign=" + sign.toString();
         }
 
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.PRICE);
-
-        JsonObject jsonObject = new Gson().fromJson(r, JsonObject.class);
-        return new Gson().fromJson(jsonObject.getAsJsonObject("RAW"), ExchangeAverage.class);
+        return connection.getJSON(formattedUrl, CallTypes.PRICE, Json.fieldParser("RAW", ExchangeAverage.class));
     }
 
     /**
@@ -284,11 +702,7 @@ public class Market {
             formattedUrl += "&sign=" + sign.toString();
         }
 
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.PRICE);
-
-        JsonObject jsonObject = new Gson().fromJson(r, JsonObject.class);
-        Type type = new TypeToken<List<Coin>>() {}.getType();
-        return new Gson().fromJson(jsonObject.get("Data"), type);
+        return connection.getJSON(formattedUrl, CallTypes.PRICE, Json.fieldParser("Data", COIN_LIST_TYPE));
     }
 
     /**
@@ -335,11 +749,7 @@ public class Market {
             formattedUrl += "&sign=" + sign.toString();
         }
 
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.PRICE);
-
-        JsonObject jsonObject = new Gson().fromJson(r, JsonObject.class);
-        Type type = new TypeToken<List<Pair>>() {}.getType();
-        return new Gson().fromJson(jsonObject.get("Data"), type);
+        return connection.getJSON(formattedUrl, CallTypes.PRICE, Json.fieldParser("Data", PAIR_LIST_TYPE));
     }
 
     /**
@@ -352,7 +762,8 @@ public class Market {
     /**
      * Represents the trading pair to-symbol
      */
-    public class toSym {
+    @JsonAdapter(toSym.AdapterFactory.class)
+    public static class toSym {
         /**
          * Type
          */
@@ -733,6 +1144,57 @@ public class Market {
         public double getTotalVolume24HourTo() {
             return totalVolume24HourTo;
         }
+
+        /**
+         * Reads toSym objects without reflection
+         */
+        static class AdapterFactory extends StreamingAdapterFactory<toSym> {
+            AdapterFactory() {
+                super(toSym.class);
+            }
+
+            @Override
+            protected toSym read(JsonReader in) throws IOException {
+                toSym value = new toSym();
+                in.beginObject();
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "TYPE": value.type = Json.nextString(in); break;
+                        case "MARKET": value.market = SymbolTable.exchanges().intern(Json.nextString(in)); break;
+                        case "FROMSYMBOL": value.fromSymbol = SymbolTable.symbols().intern(Json.nextString(in)); break;
+                        case "TOSYMBOL": value.toSymbol = SymbolTable.symbols().intern(Json.nextString(in)); break;
+                        case "FLAGS": value.flags = Json.nextInt(in); break;
+                        case "PRICE": value.price = Json.nextDouble(in); break;
+                        case "LASTUPDATE": value.lastUpdate = Json.nextInt(in); break;
+                        case "LASTVOLUME": value.lastVolume = Json.nextDouble(in); break;
+                        case "LASTVOLUMETO": value.lastVolumeTo = Json.nextDouble(in); break;
+                        case "LASTTRADEID": value.lastTradeID = Json.nextString(in); break;
+                        case "VOLUMEDAY": value.volumeDay = Json.nextDouble(in); break;
+                        case "VOLUMEDAYTO": value.volumeDayTo = Json.nextDouble(in); break;
+                        case "VOLUME24HOUR": value.volume24Hour = Json.nextDouble(in); break;
+                        case "VOLUME24HOURTO": value.volume24HourTo = Json.nextDouble(in); break;
+                        case "OPENDAY": value.openDay = Json.nextDouble(in); break;
+                        case "HIGHDAY": value.highDay = Json.nextDouble(in); break;
+                        case "LOWDAY": value.lowDay = Json.nextDouble(in); break;
+                        case "OPEN24HOUR": value.open24Hour = Json.nextDouble(in); break;
+                        case "HIGH24HOUR": value.high24Hour = Json.nextDouble(in); break;
+                        case "LOW24HOUR": value.low24Hour = Json.nextDouble(in); break;
+                        case "LASTMARKET": value.lastMarket = SymbolTable.exchanges().intern(Json.nextString(in)); break;
+                        case "CHANGE24HOUR": value.change24Hour = Json.nextDouble(in); break;
+                        case "CHANGEPCT24HOUR": value.changePct24Hour = Json.nextDouble(in); break;
+                        case "CHANGEDAY": value.changeDay = Json.nextDouble(in); break;
+                        case "CHANGEPCTDAY": value.changePctDay = Json.nextDouble(in); break;
+                        case "SUPPLY": value.supply = Json.nextDouble(in); break;
+                        case "MKTCAP": value.marketCap = Json.nextDouble(in); break;
+                        case "TOTALVOLUME24H": value.totalVolume24Hour = Json.nextDouble(in); break;
+                        case "TOTALVOLUME24HTO": value.totalVolume24HourTo = Json.nextDouble(in); break;
+                        default: in.skipValue();
+                    }
+                }
+                in.endObject();
+                return value;
+            }
+        }
     }
 
     /**
@@ -1,9 +1,10 @@
 package me.joshmcfarlin.cryptocompareapi;
 
-import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
 import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
 import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import me.joshmcfarlin.cryptocompareapi.utils.HttpConnection;
+import me.joshmcfarlin.cryptocompareapi.utils.Json;
 import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
 
 import java.io.*;
@@ -14,6 +15,26 @@ import java.util.Map;
  * @author Josh McFarlin
  */
 public class Mining {
+    /**
+     * The connection used to make requests
+     */
+    private final Connection connection;
+
+    /**
+     * Creates an object which makes requests through a new {@link HttpConnection}
+     */
+    public Mining() {
+        this(new HttpConnection());
+    }
+
+    /**
+     * Creates an object which makes requests through the provided connection
+     * @param connection The connection used to make requests
+     */
+    public Mining(Connection connection) {
+        this.connection = connection;
+    }
+
     /**
      * Gets information about recent mining contracts
      * @return Contracts A object containing different API data
@@ -21,9 +42,7 @@ public class Mining {
      * @throws OutOfCallsException when no more API calls are available
      */
     public Contracts getContracts() throws IOException, OutOfCallsException {
-        Reader r = Connection.getJSON("https://www.cryptocompare.com/api/data/miningcontracts/", CallTypes.OTHER);
-
-        return new Gson().fromJson(r, Contracts.class);
+        return connection.getJSON("https://www.cryptocompare.com/api/data/miningcontracts/", CallTypes.OTHER, Json.parser(Contracts.class));
     }
 
     /**
@@ -33,9 +52,7 @@ public class Mining {
      * @throws OutOfCallsException when no more API calls are available
      */
     public Equipment getEquipment() throws IOException, OutOfCallsException {
-        Reader r = Connection.getJSON("https://www.cryptocompare.com/api/data/miningequipment/", CallTypes.OTHER);
-
-        return new Gson().fromJson(r, Equipment.class);
+        return connection.getJSON("https://www.cryptocompare.com/api/data/miningequipment/", CallTypes.OTHER, Json.parser(Equipment.class));
     }
 
     /**
@@ -1,21 +1,51 @@
 package me.joshmcfarlin.cryptocompareapi;
 
-import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
 import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import me.joshmcfarlin.cryptocompareapi.utils.HttpConnection;
+import me.joshmcfarlin.cryptocompareapi.utils.Json;
 import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
 
 import java.io.*;
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Contains methods for requesting information about news listed on CryptoCompare
  * @author Josh McFarlin
  */
 public class News {
+    /**
+     * The types responses are parsed into
+     */
+    private static final Type PROVIDER_LIST_TYPE = new TypeToken<List<NewsProvider>>() {}.getType();
+    private static final Type STORY_LIST_TYPE = new TypeToken<List<NewsStory>>() {}.getType();
+
+    /**
+     * The connection used to make requests
+     */
+    private final Connection connection;
+
+    /**
+     * Creates an object which makes requests through a new {@link HttpConnection}
+     */
+    public News() {
+        this(new HttpConnection());
+    }
+
+    /**
+     * Creates an object which makes requests through the provided connection
+     * @param connection The connection used to make requests
+     */
+    public News(Connection connection) {
+        this.connection = connection;
+    }
+
     /**
      * Gets a list of news providers on the CryptoCompare website
      * @return List containing different news providers
@@ -23,10 +53,7 @@ public class News {
      * @throws OutOfCallsException when no more API calls are available
      */
     public List<NewsProvider> newsProviderList() throws IOException, OutOfCallsException {
-        Reader r = Connection.getJSON("https://min-api.cryptocompare.com/data/news/providers", CallTypes.NEWS);
-
-        Type newsListType = new TypeToken<List<NewsProvider>>() {}.getType();
-        return new Gson().fromJson(r, newsListType);
+        return connection.getJSON("https://min-api.cryptocompare.com/data/news/providers", CallTypes.NEWS, Json.parser(PROVIDER_LIST_TYPE));
     }
 
     /**
@@ -36,10 +63,60 @@ public class News {
      * @throws OutOfCallsException when no more API calls are available
      */
     public List<NewsStory> newsList() throws IOException, OutOfCallsException {
-        Reader r = Connection.getJSON("https://min-api.cryptocompare.com/data/news/", CallTypes.NEWS);
+        return connection.getJSON("https://min-api.cryptocompare.com/data/news/", CallTypes.NEWS, Json.parser(STORY_LIST_TYPE));
+    }
 
-        Type newsListType = new TypeToken<List<NewsStory>>() {}.getType();
-        return new Gson().fromJson(r, newsListType);
+    /**
+     * Gets a page of news stories on the CryptoCompare website
+     * @param lTs Only stories published before this Unix time are returned, the latest ones if null
+     * @param lang The language of the stories, such as EN
+     * @return List containing different news stories, newest first
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    public List<NewsStory> newsList(Integer lTs, String lang) throws IOException, OutOfCallsException {
+        return connection.getJSON(newsUrl(lTs, lang), CallTypes.NEWS, Json.parser(STORY_LIST_TYPE));
+    }
+
+    /**
+     * Streams a page of news stories, newest first, until the consumer asks to stop
+     *
+     * The response is closed as soon as reading stops, so older stories are neither parsed nor, when the connection
+     * streams, downloaded.
+     * @param lTs Only stories published before this Unix time are returned, the latest ones if null
+     * @param lang The language of the stories, null for the default
+     * @param consumer Receives every story and returns whether to continue with the next one
+     * @return The number of stories read
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    int streamNews(Integer lTs, String lang, Predicate<NewsStory> consumer) throws IOException, OutOfCallsException {
+        TypeAdapter<NewsStory> adapter = Json.getGson().getAdapter(NewsStory.class);
+        int count = 0;
+        try (Reader r = connection.getJSON(newsUrl(lTs, lang), CallTypes.NEWS)) {
+            JsonReader in = new JsonReader(r);
+            in.beginArray();
+            while (in.hasNext()) {
+                NewsStory story = adapter.read(in);
+                if (story == null) continue;
+                count++;
+                if (!consumer.test(story)) break;
+            }
+        }
+        return count;
+    }
+
+    private static String newsUrl(Integer lTs, String lang) {
+        String formattedUrl = "https://min-api.cryptocompare.com/data/news/";
+        String separator = "?";
+        if (lTs != null) {
+            formattedUrl += separator + "lTs=" + lTs;
+            separator = "&";
+        }
+        if (lang != null) {
+            formattedUrl += separator + "lang=" + lang.toUpperCase();
+        }
+        return formattedUrl;
     }
 
     /**
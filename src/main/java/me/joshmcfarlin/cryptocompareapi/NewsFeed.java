@@ -0,0 +1,270 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the latest news and passes only the stories which were not seen before to its listeners
+ *
+ * The feed remembers the newest publication time it has seen. Each poll streams the latest page and stops reading at
+ * the first story which is older than that or was delivered in that second, so stories which were already delivered
+ * are not parsed again. When every story on the page is new, older pages are requested with the lTs parameter until the
+ * gap is closed. Stories are de-duplicated by their GUID, of which a bounded number of the most recent are remembered.
+ * @author Josh McFarlin
+ */
+public class NewsFeed {
+    /**
+     * The default number of GUIDs remembered
+     */
+    public static final int DEFAULT_MAX_GUIDS = 10_000;
+
+    /**
+     * The default maximum number of pages requested by a poll to close a gap
+     */
+    public static final int DEFAULT_MAX_PAGES = 5;
+
+    /**
+     * Receives the stories which are new
+     */
+    public interface Listener {
+        /**
+         * Called with the stories found by a poll, on the thread which polled
+         * @param stories The new stories, oldest first
+         */
+        void onStories(List<News.NewsStory> stories);
+
+        /**
+         * Called when a scheduled poll fails
+         * @param e The exception the poll failed with
+         */
+        default void onError(Exception e) {
+        }
+    }
+
+    /**
+     * The object used to make the requests
+     */
+    private final News news;
+
+    /**
+     * The language of the stories, null for the default
+     */
+    private final String lang;
+
+    /**
+     * The most recently seen GUIDs, the oldest are forgotten first
+     */
+    private final Set<String> seen;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The publication time of the newest story seen, 0 before the first poll
+     */
+    private volatile int lastPublishedOn;
+
+    /**
+     * The ID of the newest story seen
+     */
+    private volatile int lastId;
+
+    /**
+     * The maximum number of pages requested by a poll to close a gap
+     */
+    private volatile int maxPages = DEFAULT_MAX_PAGES;
+
+    /**
+     * Runs scheduled polls, created when polling is started
+     */
+    private ScheduledThreadPoolExecutor executor;
+    private ScheduledFuture<?> task;
+
+    /**
+     * Creates a feed of stories in the default language
+     * @param news The object used to make the requests
+     */
+    public NewsFeed(News news) {
+        this(news, null, DEFAULT_MAX_GUIDS);
+    }
+
+    /**
+     * Creates a feed
+     * @param news The object used to make the requests
+     * @param lang The language of the stories, such as EN, null for the default
+     * @param maxGuids The number of GUIDs remembered, which should be a lot larger than a page of stories
+     */
+    public NewsFeed(News news, String lang, int maxGuids) {
+        if (maxGuids < 1) {
+            throw new IllegalArgumentException("maxGuids must be at least 1");
+        }
+        this.news = news;
+        this.lang = lang;
+        this.seen = Collections.newSetFromMap(new LinkedHashMap<String, Boolean>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxGuids;
+            }
+        });
+    }
+
+    /**
+     * Requests the stories published since the last poll and passes them to every listener
+     * @return The new stories, oldest first, every story on the latest page for the first poll
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    public synchronized List<News.NewsStory> poll() throws IOException, OutOfCallsException {
+        int cursor = lastPublishedOn;
+        List<News.NewsStory> stories = new ArrayList<>();
+        // Only remembered once the whole poll succeeded, so stories read before a failed page are delivered next time
+        Set<String> found = new HashSet<>();
+        Integer lTs = null;
+
+        for (int page = 0; page < maxPages; page++) {
+            int[] oldest = {Integer.MAX_VALUE};
+            boolean[] caughtUp = {false};
+            int read = news.streamNews(lTs, lang, story -> {
+                String guid = guid(story);
+                boolean added = story.getPublishedOn() >= cursor && !seen.contains(guid) && found.add(guid);
+                if (!added && story.getPublishedOn() <= cursor) {
+                    // Every story from here on is older than the newest one delivered, or is that one
+                    caughtUp[0] = true;
+                    return false;
+                }
+                oldest[0] = Math.min(oldest[0], story.getPublishedOn());
+                if (added) stories.add(story);
+                return true;
+            });
+
+            // Before the first poll there is nothing to catch up with
+            if (caughtUp[0] || read == 0 || cursor == 0 || oldest[0] == Integer.MAX_VALUE) break;
+
+            // Stories published in the same second as the oldest one are requested again and removed by GUID
+            lTs = oldest[0] + 1;
+        }
+
+        stories.sort(Comparator.comparingInt(News.NewsStory::getPublishedOn).thenComparingInt(News.NewsStory::getId));
+        for (News.NewsStory story : stories) {
+            seen.add(guid(story));
+        }
+        if (!stories.isEmpty()) {
+            News.NewsStory newest = stories.get(stories.size() - 1);
+            if (newest.getPublishedOn() >= lastPublishedOn) {
+                lastPublishedOn = newest.getPublishedOn();
+                lastId = newest.getId();
+            }
+
+            List<News.NewsStory> delivered = Collections.unmodifiableList(stories);
+            for (Listener listener : listeners) {
+                listener.onStories(delivered);
+            }
+        }
+        return stories;
+    }
+
+    private static String guid(News.NewsStory story) {
+        return story.getGuid() != null ? story.getGuid() : "id:" + story.getId();
+    }
+
+    /**
+     * Adds a listener which receives the new stories of every poll
+     * @param listener The listener to add
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener
+     * @param listener The listener to remove
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts polling on a background thread, replacing any earlier schedule
+     * @param interval The time between two polls
+     * @param unit The unit of the provided time
+     */
+    public synchronized void start(long interval, TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        if (executor == null) {
+            executor = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "cryptocompare-news-feed");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+        }
+        if (task != null) task.cancel(false);
+        task = executor.scheduleWithFixedDelay(this::scheduledPoll, 0, interval, unit);
+    }
+
+    /**
+     * Stops polling on the background thread
+     */
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * Polls and reports a failure to every listener, neither of which may stop the schedule
+     */
+    private void scheduledPoll() {
+        try {
+            poll();
+        } catch (Exception e) {
+            for (Listener listener : listeners) {
+                try {
+                    listener.onError(e);
+                } catch (RuntimeException ignored) {
+                    // The schedule continues with the next poll
+                }
+            }
+        }
+    }
+
+    /**
+     * {@link NewsFeed#lastPublishedOn}
+     */
+    public int getLastPublishedOn() {
+        return lastPublishedOn;
+    }
+
+    /**
+     * {@link NewsFeed#lastId}
+     */
+    public int getLastId() {
+        return lastId;
+    }
+
+    /**
+     * {@link NewsFeed#maxPages}
+     */
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    public void setMaxPages(int maxPages) {
+        if (maxPages < 1) {
+            throw new IllegalArgumentException("maxPages must be at least 1");
+        }
+        this.maxPages = maxPages;
+    }
+}
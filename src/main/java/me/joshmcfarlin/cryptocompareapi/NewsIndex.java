@@ -0,0 +1,556 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An inverted index over the title, body and tags of news stories, answering boolean queries within a time range
+ *
+ * Every story added gets the next document number, and each term keeps the document numbers containing it in an int
+ * array in increasing order, so terms are combined by merging arrays. Text is split into lower case words, and each
+ * pipe separated tag is also indexed as a whole, so a tag such as "BTC" or "Bitcoin Cash" matches as well.
+ *
+ * Only a limited number of stories within a maximum age of the newest one are kept, the oldest are removed first. It
+ * can be added to a {@link NewsFeed} as a listener to index stories as they arrive.
+ * @author Josh McFarlin
+ */
+public class NewsIndex implements NewsFeed.Listener {
+    /**
+     * The default maximum number of stories kept
+     */
+    public static final int DEFAULT_MAX_STORIES = 500_000;
+
+    /**
+     * A condition on the terms of a story
+     */
+    public static abstract class Query {
+        /**
+         * Finds the matching documents within a range of document numbers
+         * @param index The index to search
+         * @param from The first document number
+         * @param to The last document number, exclusive
+         * @return The matching document numbers in increasing order
+         */
+        abstract int[] evaluate(NewsIndex index, int from, int to);
+
+        /**
+         * Matches stories containing a word or tag
+         * @param term The word or tag, case insensitive
+         * @return The query
+         */
+        public static Query term(String term) {
+            String normalized = term.trim().toLowerCase(Locale.ROOT);
+            return new Query() {
+                @Override
+                int[] evaluate(NewsIndex index, int from, int to) {
+                    return index.postings(normalized, from, to);
+                }
+
+                @Override
+                public String toString() {
+                    return normalized;
+                }
+            };
+        }
+
+        /**
+         * Matches stories containing every term
+         * @param terms The words or tags, case insensitive
+         * @return The query
+         */
+        public static Query all(String... terms) {
+            Query query = term(terms[0]);
+            for (int i = 1; i < terms.length; i++) {
+                query = query.and(term(terms[i]));
+            }
+            return query;
+        }
+
+        /**
+         * Matches stories containing any of the terms
+         * @param terms The words or tags, case insensitive
+         * @return The query
+         */
+        public static Query any(String... terms) {
+            Query query = term(terms[0]);
+            for (int i = 1; i < terms.length; i++) {
+                query = query.or(term(terms[i]));
+            }
+            return query;
+        }
+
+        /**
+         * Matches stories matching this query and another one
+         * @param other The other query
+         * @return The query
+         */
+        public Query and(Query other) {
+            Query self = this;
+            return new Query() {
+                @Override
+                int[] evaluate(NewsIndex index, int from, int to) {
+                    int[] left = self.evaluate(index, from, to);
+                    return left.length == 0 ? left : intersect(left, other.evaluate(index, from, to));
+                }
+
+                @Override
+                public String toString() {
+                    return "(" + self + " AND " + other + ")";
+                }
+            };
+        }
+
+        /**
+         * Matches stories matching this query or another one
+         * @param other The other query
+         * @return The query
+         */
+        public Query or(Query other) {
+            Query self = this;
+            return new Query() {
+                @Override
+                int[] evaluate(NewsIndex index, int from, int to) {
+                    return union(self.evaluate(index, from, to), other.evaluate(index, from, to));
+                }
+
+                @Override
+                public String toString() {
+                    return "(" + self + " OR " + other + ")";
+                }
+            };
+        }
+
+        /**
+         * Matches stories matching this query but not another one
+         * @param other The other query
+         * @return The query
+         */
+        public Query andNot(Query other) {
+            Query self = this;
+            return new Query() {
+                @Override
+                int[] evaluate(NewsIndex index, int from, int to) {
+                    int[] left = self.evaluate(index, from, to);
+                    return left.length == 0 ? left : subtract(left, other.evaluate(index, from, to));
+                }
+
+                @Override
+                public String toString() {
+                    return "(" + self + " AND NOT " + other + ")";
+                }
+            };
+        }
+    }
+
+    /**
+     * The document numbers containing a term, valid from start to size
+     */
+    private static class Postings {
+        private int[] docs = new int[4];
+        private int start;
+        private int size;
+
+        void add(int doc) {
+            // A term appearing several times in a story is only added once
+            if (size > start && docs[size - 1] == doc) return;
+            if (size == docs.length) {
+                if (start > 0) {
+                    System.arraycopy(docs, start, docs, 0, size - start);
+                    size -= start;
+                    start = 0;
+                }
+                if (size == docs.length) docs = Arrays.copyOf(docs, docs.length * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        /**
+         * Finds the position of the first document number not lower than a number
+         */
+        int lowerBound(int doc) {
+            int index = Arrays.binarySearch(docs, start, size, doc);
+            return index < 0 ? -index - 1 : index;
+        }
+    }
+
+    /**
+     * The maximum number of stories kept
+     */
+    private final int maxStories;
+
+    /**
+     * The maximum number of seconds a story can be older than the newest one, 0 to keep stories of any age
+     */
+    private volatile long maxAge;
+
+    /**
+     * The stories kept and their publication times, document d is at d % maxStories
+     */
+    private final News.NewsStory[] stories;
+    private final int[] published;
+
+    /**
+     * The latest publication time of the stories up to each document, which never decreases
+     */
+    private final int[] newestUntil;
+
+    private final Map<String, Postings> terms = new HashMap<>();
+
+    /**
+     * The oldest document kept and the next document number, the documents kept are the ones in between
+     */
+    private int firstDoc;
+    private int nextDoc;
+
+    /**
+     * The number of documents removed since the posting lists were last compacted
+     */
+    private int removedSinceCompaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Creates an index keeping up to {@link NewsIndex#DEFAULT_MAX_STORIES} stories of any age
+     */
+    public NewsIndex() {
+        this(DEFAULT_MAX_STORIES, 0, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates an empty index
+     * @param maxStories The maximum number of stories kept
+     * @param maxAge The maximum time a story can be published before the newest one, 0 to keep stories of any age
+     * @param unit The unit of the provided time
+     */
+    public NewsIndex(int maxStories, long maxAge, TimeUnit unit) {
+        if (maxStories < 1) {
+            throw new IllegalArgumentException("maxStories must be at least 1");
+        }
+        this.maxStories = maxStories;
+        this.maxAge = unit.toSeconds(maxAge);
+        stories = new News.NewsStory[maxStories];
+        published = new int[maxStories];
+        newestUntil = new int[maxStories];
+    }
+
+    @Override
+    public void onStories(List<News.NewsStory> stories) {
+        addAll(stories);
+    }
+
+    /**
+     * Adds a story, removing the oldest ones which no longer fit
+     * @param story The story to add
+     */
+    public void add(News.NewsStory story) {
+        lock.writeLock().lock();
+        try {
+            insert(story);
+            retain();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds stories in order, removing the oldest ones which no longer fit
+     * @param stories The stories to add, ideally oldest first
+     */
+    public void addAll(Collection<News.NewsStory> stories) {
+        lock.writeLock().lock();
+        try {
+            for (News.NewsStory story : stories) {
+                insert(story);
+            }
+            retain();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(News.NewsStory story) {
+        if (nextDoc - firstDoc == maxStories) {
+            remove();
+        }
+
+        int doc = nextDoc++;
+        int slot = doc % maxStories;
+        stories[slot] = story;
+        published[slot] = story.getPublishedOn();
+        newestUntil[slot] = doc == firstDoc ? story.getPublishedOn()
+                : Math.max(story.getPublishedOn(), newestUntil[(doc - 1) % maxStories]);
+
+        tokenize(story.getTitle(), doc);
+        tokenize(story.getBody(), doc);
+        if (story.getTags() != null) {
+            for (String tag : story.getTags().split("\\|")) {
+                String trimmed = tag.trim().toLowerCase(Locale.ROOT);
+                if (!trimmed.isEmpty()) {
+                    terms.computeIfAbsent(trimmed, k -> new Postings()).add(doc);
+                    tokenize(trimmed, doc);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds every word of a text, a word being a run of letters and digits
+     */
+    private void tokenize(String text, int doc) {
+        if (text == null) return;
+
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean word = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                terms.computeIfAbsent(text.substring(start, i).toLowerCase(Locale.ROOT), k -> new Postings()).add(doc);
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest stories which are older than the maximum age
+     */
+    private void retain() {
+        if (maxAge <= 0 || nextDoc == firstDoc) return;
+
+        long oldest = newestUntil[(nextDoc - 1) % maxStories] - maxAge;
+        while (firstDoc < nextDoc && published[firstDoc % maxStories] < oldest) {
+            remove();
+        }
+    }
+
+    private void remove() {
+        stories[firstDoc % maxStories] = null;
+        firstDoc++;
+
+        // Posting lists are trimmed once as many documents were removed as can be kept, so the cost is spread out
+        if (++removedSinceCompaction >= maxStories) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        Iterator<Postings> iterator = terms.values().iterator();
+        while (iterator.hasNext()) {
+            Postings postings = iterator.next();
+            postings.start = postings.lowerBound(firstDoc);
+            if (postings.start == postings.size) iterator.remove();
+        }
+        removedSinceCompaction = 0;
+    }
+
+    /**
+     * Gets the document numbers containing a term within a range
+     */
+    private int[] postings(String term, int from, int to) {
+        Postings postings = terms.get(term);
+        if (postings == null) return new int[0];
+        int start = postings.lowerBound(from);
+        int end = postings.lowerBound(to);
+        return Arrays.copyOfRange(postings.docs, start, end);
+    }
+
+    /**
+     * Finds the stories matching a query
+     * @param query The condition the stories have to meet
+     * @return The matching stories, most recently added first
+     */
+    public List<News.NewsStory> search(Query query) {
+        return search(query, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds the stories matching a query published within a time range
+     * @param query The condition the stories have to meet
+     * @param fromTime The earliest Unix time the stories were published at
+     * @param toTime The latest Unix time the stories were published at, exclusive
+     * @return The matching stories, most recently added first
+     */
+    public List<News.NewsStory> search(Query query, int fromTime, int toTime) {
+        lock.readLock().lock();
+        try {
+            int[] docs = matches(query, fromTime, toTime);
+            List<News.NewsStory> results = new ArrayList<>(docs.length);
+            for (int i = docs.length - 1; i >= 0; i--) {
+                results.add(stories[docs[i] % maxStories]);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the stories matching a query published within a time before the newest story
+     * @param query The condition the stories have to meet
+     * @param time The time before the newest story
+     * @param unit The unit of the provided time
+     * @return The matching stories, most recently added first
+     */
+    public List<News.NewsStory> searchRecent(Query query, long time, TimeUnit unit) {
+        int newest = getNewestPublishedOn();
+        return search(query, (int) Math.max(Integer.MIN_VALUE, newest - unit.toSeconds(time)), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Counts the stories matching a query published within a time range
+     * @param query The condition the stories have to meet
+     * @param fromTime The earliest Unix time the stories were published at
+     * @param toTime The latest Unix time the stories were published at, exclusive
+     * @return The number of matching stories
+     */
+    public int count(Query query, int fromTime, int toTime) {
+        lock.readLock().lock();
+        try {
+            return matches(query, fromTime, toTime).length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] matches(Query query, int fromTime, int toTime) {
+        // Documents before the first one with a story published at or after the start cannot match
+        int low = firstDoc;
+        int high = nextDoc;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (newestUntil[middle % maxStories] < fromTime) low = middle + 1;
+            else high = middle;
+        }
+
+        int[] docs = query.evaluate(this, low, nextDoc);
+        int matches = 0;
+        for (int doc : docs) {
+            int time = published[doc % maxStories];
+            if (time >= fromTime && time < toTime) docs[matches++] = doc;
+        }
+        return matches == docs.length ? docs : Arrays.copyOf(docs, matches);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) result[size++] = a[i++];
+            else if (i == a.length || b[j] < a[i]) result[size++] = b[j++];
+            else {
+                result[size++] = a[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int[] subtract(int[] a, int[] b) {
+        int[] result = new int[a.length];
+        int size = 0;
+        for (int i = 0, j = 0; i < a.length; i++) {
+            while (j < b.length && b[j] < a[i]) j++;
+            if (j == b.length || b[j] != a[i]) result[size++] = a[i];
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Gets the number of stories kept
+     * @return The number of stories which can be found
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nextDoc - firstDoc;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of distinct terms indexed, including ones which only appear in removed stories
+     * @return The number of terms
+     */
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the latest publication time of the stories added
+     * @return The Unix time, 0 if no story is kept
+     */
+    public int getNewestPublishedOn() {
+        lock.readLock().lock();
+        try {
+            return nextDoc == firstDoc ? 0 : newestUntil[(nextDoc - 1) % maxStories];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every story
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(stories, null);
+            terms.clear();
+            firstDoc = nextDoc;
+            removedSinceCompaction = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * {@link NewsIndex#maxStories}
+     */
+    public int getMaxStories() {
+        return maxStories;
+    }
+
+    /**
+     * Gets the maximum time a story can be published before the newest one
+     * @param unit The unit to return the time in
+     * @return The maximum age, 0 if stories of any age are kept
+     */
+    public long getMaxAge(TimeUnit unit) {
+        return unit.convert(maxAge, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Sets the maximum time a story can be published before the newest one, applied when the next story is added
+     * @param maxAge The maximum age, 0 to keep stories of any age
+     * @param unit The unit of the provided time
+     */
+    public void setMaxAge(long maxAge, TimeUnit unit) {
+        this.maxAge = unit.toSeconds(maxAge);
+    }
+}
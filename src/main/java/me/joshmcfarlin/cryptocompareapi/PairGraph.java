@@ -0,0 +1,678 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.InvalidParameterException;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
+import me.joshmcfarlin.cryptocompareapi.utils.SymbolTable;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * A graph of every trading pair on every exchange, weighted by the latest known prices
+ *
+ * Each pair an exchange lists is an edge from the from-symbol to the to-symbol and an inverse edge back, both on that
+ * exchange. The topology is fixed when the graph is created from an {@link Exchanges.ExchangeList}, only the rates of
+ * the edges change. Rates are stored as negative logarithms, so the best conversion is a shortest path and an
+ * arbitrage opportunity is a negative cycle. An edge without a known price is ignored.
+ *
+ * The arbitrage search keeps its state between runs and continues from the edges which changed instead of starting
+ * again. Symbols last reached through an edge which got worse are searched again from scratch, together with the
+ * symbols leading into them. Only finding a cycle or raising the fee starts the next search over.
+ * @author Josh McFarlin
+ */
+public class PairGraph {
+    /**
+     * The default maximum number of conversions in a path
+     */
+    public static final int DEFAULT_MAX_HOPS = 4;
+
+    /**
+     * A conversion on an exchange
+     */
+    public static class Edge {
+        /**
+         * The symbol converted from
+         */
+        private final String from;
+
+        /**
+         * The symbol converted into
+         */
+        private final String to;
+
+        /**
+         * The exchange the conversion is made on
+         */
+        private final String exchange;
+
+        /**
+         * The amount of the to-symbol received for one from-symbol, before the fee
+         */
+        private final double rate;
+
+        Edge(String from, String to, String exchange, double rate) {
+            this.from = from;
+            this.to = to;
+            this.exchange = exchange;
+            this.rate = rate;
+        }
+
+        /**
+         * {@link Edge#from}
+         */
+        public String getFrom() {
+            return from;
+        }
+
+        /**
+         * {@link Edge#to}
+         */
+        public String getTo() {
+            return to;
+        }
+
+        /**
+         * {@link Edge#exchange}
+         */
+        public String getExchange() {
+            return exchange;
+        }
+
+        /**
+         * {@link Edge#rate}
+         */
+        public double getRate() {
+            return rate;
+        }
+
+        @Override
+        public String toString() {
+            return from + "->" + to + "@" + exchange + " " + rate;
+        }
+    }
+
+    /**
+     * A sequence of conversions, either between two symbols or from a symbol back to itself
+     */
+    public static class Path {
+        /**
+         * The conversions in order
+         */
+        private final List<Edge> edges;
+
+        /**
+         * The amount of the last symbol received for one of the first symbol, after fees
+         */
+        private final double rate;
+
+        Path(List<Edge> edges, double rate) {
+            this.edges = Collections.unmodifiableList(edges);
+            this.rate = rate;
+        }
+
+        /**
+         * {@link Path#edges}
+         */
+        public List<Edge> getEdges() {
+            return edges;
+        }
+
+        /**
+         * {@link Path#rate}
+         */
+        public double getRate() {
+            return rate;
+        }
+
+        /**
+         * Gets the symbols converted through
+         * @return The symbols starting with the first from-symbol and ending with the last to-symbol
+         */
+        public List<String> getSymbols() {
+            List<String> symbols = new ArrayList<>(edges.size() + 1);
+            if (!edges.isEmpty()) symbols.add(edges.get(0).getFrom());
+            for (Edge edge : edges) {
+                symbols.add(edge.getTo());
+            }
+            return symbols;
+        }
+
+        @Override
+        public String toString() {
+            return edges + " = " + rate;
+        }
+    }
+
+    /**
+     * The {@link SymbolTable#symbols()} ID of every node
+     */
+    private final int[] nodeSymbols;
+
+    /**
+     * The node of every symbol ID
+     */
+    private final Map<Integer, Integer> nodes = new HashMap<>();
+
+    /**
+     * The nodes and {@link SymbolTable#exchanges()} ID of every edge, forward edges at even indices followed by their
+     * inverse
+     */
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final int[] edgeExchange;
+
+    /**
+     * The negative logarithm of the rate of every edge, NaN when the rate is not known
+     */
+    private final double[] weights;
+
+    /**
+     * The edges leaving node n are adjacency[offsets[n]] to adjacency[offsets[n + 1]], exclusive
+     */
+    private final int[] offsets;
+    private final int[] adjacency;
+
+    /**
+     * The forward edge of every pair on every exchange, keyed by exchange ID then pair
+     */
+    private final Map<Long, Integer> pairEdges = new HashMap<>();
+
+    /**
+     * The from-symbols and to-symbols listed by each exchange, used to request its prices
+     */
+    private final Map<String, Set<String>> exchangeFromSymbols = new HashMap<>();
+    private final Map<String, Set<String>> exchangeToSymbols = new HashMap<>();
+
+    /**
+     * The state of the arbitrage search, the distance of every node from a virtual source connected to all of them and
+     * the edge the distance was reached through
+     */
+    private final double[] distances;
+    private final int[] predecessors;
+
+    /**
+     * The tails of edges whose weight decreased since the last search
+     */
+    private final BitSet changed = new BitSet();
+
+    /**
+     * The edges whose weight increased or became unknown since the last search
+     */
+    private final BitSet increased = new BitSet();
+
+    /**
+     * Whether a cycle was found or the fee increased since the last search, so it has to start again
+     */
+    private boolean reset = true;
+
+    /**
+     * The fraction of every conversion paid as a fee
+     */
+    private double fee;
+
+    /**
+     * The maximum number of conversions in a path
+     */
+    private int maxHops = DEFAULT_MAX_HOPS;
+
+    /**
+     * Creates a graph with every rate unknown
+     * @param exchangeList The exchanges and the pairs they list
+     */
+    public PairGraph(Exchanges.ExchangeList exchangeList) {
+        SymbolTable symbols = SymbolTable.symbols();
+        SymbolTable exchanges = SymbolTable.exchanges();
+        List<Integer> symbolIds = new ArrayList<>();
+        List<int[]> pairs = new ArrayList<>();
+
+        exchangeList.getExchanges().forEach((exchange, listing) -> {
+            int exchangeId = exchanges.id(exchange);
+            Set<String> fromSymbols = new LinkedHashSet<>();
+            Set<String> toSymbols = new LinkedHashSet<>();
+            listing.getCoins().forEach((coin, c) -> {
+                int from = node(symbols.id(coin), symbolIds);
+                for (int toId : c.getTradingPairIds()) {
+                    int to = node(toId, symbolIds);
+                    if (from == to || pairEdges.putIfAbsent(key(exchangeId, from, to), pairs.size() * 2) != null) continue;
+
+                    pairs.add(new int[]{from, to, exchangeId});
+                    fromSymbols.add(coin);
+                    toSymbols.add(symbols.name(toId));
+                }
+            });
+            exchangeFromSymbols.put(exchange, fromSymbols);
+            exchangeToSymbols.put(exchange, toSymbols);
+        });
+
+        int nodeCount = symbolIds.size();
+        int edgeCount = pairs.size() * 2;
+        nodeSymbols = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            nodeSymbols[i] = symbolIds.get(i);
+        }
+
+        edgeFrom = new int[edgeCount];
+        edgeTo = new int[edgeCount];
+        edgeExchange = new int[edgeCount];
+        weights = new double[edgeCount];
+        Arrays.fill(weights, Double.NaN);
+        for (int i = 0; i < pairs.size(); i++) {
+            int[] pair = pairs.get(i);
+            edgeFrom[2 * i] = pair[0];
+            edgeTo[2 * i] = pair[1];
+            edgeFrom[2 * i + 1] = pair[1];
+            edgeTo[2 * i + 1] = pair[0];
+            edgeExchange[2 * i] = pair[2];
+            edgeExchange[2 * i + 1] = pair[2];
+        }
+
+        // Counting sort of the edges by the node they leave
+        offsets = new int[nodeCount + 1];
+        for (int from : edgeFrom) {
+            offsets[from + 1]++;
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            offsets[n + 1] += offsets[n];
+        }
+        adjacency = new int[edgeCount];
+        int[] next = Arrays.copyOf(offsets, nodeCount);
+        for (int e = 0; e < edgeCount; e++) {
+            adjacency[next[edgeFrom[e]]++] = e;
+        }
+
+        distances = new double[nodeCount];
+        predecessors = new int[nodeCount];
+    }
+
+    private int node(int symbolId, List<Integer> symbolIds) {
+        Integer node = nodes.get(symbolId);
+        if (node == null) {
+            node = symbolIds.size();
+            nodes.put(symbolId, node);
+            symbolIds.add(symbolId);
+        }
+        return node;
+    }
+
+    private static long key(int exchangeId, int from, int to) {
+        return ((long) exchangeId << 42) ^ ((long) from << 21) ^ to;
+    }
+
+    private int nodeOf(String symbol) {
+        int id = SymbolTable.symbols().find(symbol);
+        Integer node = id < 0 ? null : nodes.get(id);
+        return node == null ? -1 : node;
+    }
+
+    private String symbolOf(int node) {
+        return SymbolTable.symbols().name(nodeSymbols[node]);
+    }
+
+    /**
+     * Sets the price of a pair on an exchange, which also sets the inverse rate
+     * @param exchange The name of the exchange
+     * @param fSym The cryptocurrency symbol of interest
+     * @param tSym The cryptocurrency symbol it is priced in
+     * @param price The price of one from-symbol in the to-symbol, or NaN to mark it as unknown
+     * @return Whether the exchange lists the pair, prices of pairs which are not listed are ignored
+     */
+    public synchronized boolean update(String exchange, String fSym, String tSym, double price) {
+        int exchangeId = SymbolTable.exchanges().find(exchange);
+        int from = nodeOf(fSym);
+        int to = nodeOf(tSym);
+        if (exchangeId < 0 || from < 0 || to < 0) return false;
+
+        Integer forward = pairEdges.get(key(exchangeId, from, to));
+        if (forward != null) {
+            setWeight(forward, price);
+            return true;
+        }
+
+        // The exchange lists the pair the other way around
+        Integer inverse = pairEdges.get(key(exchangeId, to, from));
+        if (inverse != null) {
+            setWeight(inverse, 1 / price);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sets the prices of the pairs listed by an exchange from a response of
+     * {@link Market#getMultiPrice(Collection, Collection, Boolean, String, String, Boolean)}
+     * @param exchange The name of the exchange the prices were requested from
+     * @param prices The price in each to-symbol for each from-symbol
+     * @return The number of prices which belonged to a listed pair
+     */
+    public synchronized int update(String exchange, Map<String, ? extends Map<String, Double>> prices) {
+        int updated = 0;
+        for (Map.Entry<String, ? extends Map<String, Double>> from : prices.entrySet()) {
+            if (from.getValue() == null) continue;
+            for (Map.Entry<String, Double> to : from.getValue().entrySet()) {
+                if (to.getValue() != null && update(exchange, from.getKey(), to.getKey(), to.getValue())) updated++;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Sets the prices of the listed pairs from a response of {@link Market#getMultiFull(Collection, Collection)},
+     * using the market of each price as its exchange
+     * @param full The full information in each to-symbol for each from-symbol
+     * @return The number of prices which belonged to a listed pair
+     */
+    public synchronized int update(Map<String, ? extends Map<String, Market.toSym>> full) {
+        int updated = 0;
+        for (Map.Entry<String, ? extends Map<String, Market.toSym>> from : full.entrySet()) {
+            if (from.getValue() == null) continue;
+            for (Map.Entry<String, Market.toSym> to : from.getValue().entrySet()) {
+                Market.toSym quote = to.getValue();
+                if (quote != null && quote.getMarket() != null
+                        && update(quote.getMarket(), from.getKey(), to.getKey(), quote.getPrice())) updated++;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Requests the current price of every pair an exchange lists and sets them
+     * @param market The object used to make the requests
+     * @param exchange The name of the exchange
+     * @return The number of prices which belonged to a listed pair
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     * @throws InvalidParameterException when a given parameter does not meet the API guidelines
+     */
+    public int refresh(Market market, String exchange) throws IOException, OutOfCallsException, InvalidParameterException {
+        Set<String> fSyms;
+        Set<String> tSyms;
+        synchronized (this) {
+            fSyms = exchangeFromSymbols.get(exchange);
+            tSyms = exchangeToSymbols.get(exchange);
+        }
+        if (fSyms == null || fSyms.isEmpty()) return 0;
+
+        return update(exchange, market.getMultiPrice(fSyms, tSyms, false, exchange, null, null));
+    }
+
+    private void setWeight(int forward, double price) {
+        double weight = price > 0 && !Double.isInfinite(price) ? -Math.log(price) : Double.NaN;
+        setEdgeWeight(forward, weight);
+        setEdgeWeight(forward + 1, -weight);
+    }
+
+    private void setEdgeWeight(int edge, double weight) {
+        double previous = weights[edge];
+        weights[edge] = weight;
+        if (Double.isNaN(weight)) {
+            if (!Double.isNaN(previous)) increased.set(edge);
+        } else if (Double.isNaN(previous) || weight < previous) {
+            changed.set(edgeFrom[edge]);
+        } else if (weight > previous) {
+            increased.set(edge);
+        }
+    }
+
+    /**
+     * Finds the conversion with the best rate between two symbols, through any exchanges
+     *
+     * The path has at most {@link PairGraph#getMaxHops()} conversions. While an arbitrage opportunity exists the best
+     * path can pass through it, so it may visit a symbol more than once.
+     * @param fSym The symbol to convert from
+     * @param tSym The symbol to convert into
+     * @return The best path, or null if the symbols are not connected by edges with known rates
+     */
+    public synchronized Path findBestPath(String fSym, String tSym) {
+        int source = nodeOf(fSym);
+        int target = nodeOf(tSym);
+        if (source < 0 || target < 0 || source == target) return null;
+
+        // Bellman-Ford limited to a number of hops, layer k holds the best walks of at most k edges
+        int n = nodeSymbols.length;
+        double feeWeight = feeWeight();
+        double[][] distance = new double[maxHops + 1][n];
+        int[][] via = new int[maxHops + 1][n];
+        int[][] hops = new int[maxHops + 1][n];
+        Arrays.fill(distance[0], Double.POSITIVE_INFINITY);
+        distance[0][source] = 0;
+
+        for (int k = 1; k <= maxHops; k++) {
+            double[] previous = distance[k - 1];
+            double[] current = distance[k];
+            System.arraycopy(previous, 0, current, 0, n);
+            System.arraycopy(via[k - 1], 0, via[k], 0, n);
+            System.arraycopy(hops[k - 1], 0, hops[k], 0, n);
+
+            boolean relaxed = false;
+            for (int e = 0; e < weights.length; e++) {
+                double weight = weights[e];
+                double start = previous[edgeFrom[e]];
+                if (Double.isNaN(weight) || start == Double.POSITIVE_INFINITY) continue;
+
+                int to = edgeTo[e];
+                if (start + weight + feeWeight < current[to]) {
+                    current[to] = start + weight + feeWeight;
+                    via[k][to] = e;
+                    hops[k][to] = k;
+                    relaxed = true;
+                }
+            }
+            if (!relaxed) {
+                Arrays.fill(distance, k + 1, maxHops + 1, current);
+                Arrays.fill(via, k + 1, maxHops + 1, via[k]);
+                Arrays.fill(hops, k + 1, maxHops + 1, hops[k]);
+                break;
+            }
+        }
+
+        if (distance[maxHops][target] == Double.POSITIVE_INFINITY) return null;
+
+        LinkedList<Edge> edges = new LinkedList<>();
+        int node = target;
+        // Only the source has a walk of 0 edges, so the walk is complete when it reaches one
+        for (int k = maxHops; hops[k][node] > 0; k--) {
+            k = hops[k][node];
+            int e = via[k][node];
+            edges.addFirst(edge(e));
+            node = edgeFrom[e];
+        }
+        return new Path(edges, Math.exp(-distance[maxHops][target]));
+    }
+
+    /**
+     * Finds arbitrage opportunities, cycles of conversions which end with more of a symbol than they started with
+     * after fees
+     * @return The cycles found, empty if there are none
+     */
+    public synchronized List<Path> findArbitrage() {
+        int n = nodeSymbols.length;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        BitSet queued = new BitSet(n);
+        if (reset) {
+            Arrays.fill(distances, 0);
+            Arrays.fill(predecessors, -1);
+            for (int node = 0; node < n; node++) {
+                queue.add(node);
+            }
+            queued.set(0, n);
+            reset = false;
+        } else {
+            invalidate();
+            for (int node = changed.nextSetBit(0); node >= 0; node = changed.nextSetBit(node + 1)) {
+                queue.add(node);
+                queued.set(node);
+            }
+        }
+        changed.clear();
+        increased.clear();
+
+        // Queue based Bellman-Ford from a virtual source, checking the predecessor graph for cycles every n relaxations
+        double feeWeight = feeWeight();
+        int relaxations = 0;
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            queued.clear(node);
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                int e = adjacency[i];
+                double weight = weights[e];
+                if (Double.isNaN(weight)) continue;
+
+                int to = edgeTo[e];
+                double distance = distances[node] + weight + feeWeight;
+                if (distance < distances[to] - 1e-12) {
+                    distances[to] = distance;
+                    predecessors[to] = e;
+                    if (!queued.get(to)) {
+                        queue.add(to);
+                        queued.set(to);
+                    }
+
+                    if (++relaxations % n == 0) {
+                        List<Path> cycles = cycles();
+                        if (!cycles.isEmpty()) {
+                            reset = true;
+                            return cycles;
+                        }
+                    }
+                }
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Resets every symbol whose distance was reached through an edge which got worse to the distance of the virtual
+     * source, and marks it and the symbols with edges into it as changed so the search finds its distance again
+     */
+    private void invalidate() {
+        if (increased.isEmpty()) return;
+        int n = nodeSymbols.length;
+
+        // 1 when the chain of predecessors passes through a worse edge, 2 when it does not
+        byte[] state = new byte[n];
+        for (int e = increased.nextSetBit(0); e >= 0; e = increased.nextSetBit(e + 1)) {
+            if (predecessors[edgeTo[e]] == e) state[edgeTo[e]] = 1;
+        }
+
+        int[] chain = new int[n];
+        for (int start = 0; start < n; start++) {
+            int length = 0;
+            int node = start;
+            while (state[node] == 0 && predecessors[node] >= 0 && length < n) {
+                chain[length++] = node;
+                node = edgeFrom[predecessors[node]];
+            }
+            // A chain longer than the graph is a cycle, which is searched again to be safe
+            byte found = (byte) (state[node] == 1 || length == n ? 1 : 2);
+            if (state[node] == 0) state[node] = found;
+            for (int i = 0; i < length; i++) {
+                state[chain[i]] = found;
+            }
+        }
+
+        for (int node = 0; node < n; node++) {
+            if (state[node] == 1) {
+                distances[node] = 0;
+                predecessors[node] = -1;
+                changed.set(node);
+            }
+        }
+        for (int e = 0; e < weights.length; e++) {
+            if (state[edgeTo[e]] == 1) changed.set(edgeFrom[e]);
+        }
+    }
+
+    /**
+     * Finds the cycles in the predecessor graph, every one of which is a negative cycle
+     */
+    private List<Path> cycles() {
+        int n = nodeSymbols.length;
+        int[] visited = new int[n];
+        List<Path> cycles = new ArrayList<>();
+        double feeWeight = feeWeight();
+
+        for (int start = 0; start < n; start++) {
+            int node = start;
+            while (node >= 0 && visited[node] == 0) {
+                visited[node] = start + 1;
+                node = predecessors[node] < 0 ? -1 : edgeFrom[predecessors[node]];
+            }
+            if (node < 0 || visited[node] != start + 1) continue;
+
+            // The walk from start came back to a node it visited, which is on a cycle
+            LinkedList<Edge> edges = new LinkedList<>();
+            double weight = 0;
+            int cycleNode = node;
+            do {
+                int e = predecessors[cycleNode];
+                edges.addFirst(edge(e));
+                weight += weights[e] + feeWeight;
+                cycleNode = edgeFrom[e];
+            } while (cycleNode != node);
+
+            if (weight < 0) {
+                cycles.add(new Path(edges, Math.exp(-weight)));
+            }
+        }
+        return cycles;
+    }
+
+    private double feeWeight() {
+        return -Math.log(1 - fee);
+    }
+
+    private Edge edge(int e) {
+        return new Edge(symbolOf(edgeFrom[e]), symbolOf(edgeTo[e]), SymbolTable.exchanges().name(edgeExchange[e]),
+                Math.exp(-weights[e]));
+    }
+
+    /**
+     * Gets the number of symbols in the graph
+     * @return The number of nodes
+     */
+    public int getNodeCount() {
+        return nodeSymbols.length;
+    }
+
+    /**
+     * Gets the number of conversions in the graph, two for every pair listed by an exchange
+     * @return The number of edges
+     */
+    public int getEdgeCount() {
+        return weights.length;
+    }
+
+    /**
+     * {@link PairGraph#fee}
+     */
+    public synchronized double getFee() {
+        return fee;
+    }
+
+    /**
+     * Sets the fraction of every conversion paid as a fee
+     * @param fee The fee, such as 0.001 for 0.1%
+     */
+    public synchronized void setFee(double fee) {
+        if (!(fee >= 0 && fee < 1)) {
+            throw new IllegalArgumentException("fee must be at least 0 and less than 1");
+        }
+        if (fee > this.fee) reset = true;
+        else if (fee < this.fee) changed.set(0, nodeSymbols.length);
+        this.fee = fee;
+    }
+
+    /**
+     * {@link PairGraph#maxHops}
+     */
+    public synchronized int getMaxHops() {
+        return maxHops;
+    }
+
+    public synchronized void setMaxHops(int maxHops) {
+        if (maxHops < 1) {
+            throw new IllegalArgumentException("maxHops must be at least 1");
+        }
+        this.maxHops = maxHops;
+    }
+}
@@ -0,0 +1,263 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import me.joshmcfarlin.cryptocompareapi.utils.Json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * A dense matrix of prices for a fixed set of from-symbols and to-symbols
+ *
+ * Symbols are mapped to indices once, and prices are kept in a single flat array which is updated in place by
+ * {@link Market#refresh(PriceMatrix)}. Reading a price by index needs no lookups or allocations. A price which is not
+ * known is NaN.
+ *
+ * A refresh writes one batch of prices at a time, so a reader running at the same time can see prices from before and
+ * after it. {@link PriceMatrix#getVersion()} increases after every batch for readers which need to detect this.
+ * @author Josh McFarlin
+ */
+public class PriceMatrix {
+    private final String[] fromSymbols;
+    private final String[] toSymbols;
+    private final Map<String, Integer> fromIndices;
+    private final Map<String, Integer> toIndices;
+
+    /**
+     * The prices, the price of from-symbol f in to-symbol t is at f * toCount + t
+     */
+    private final double[] prices;
+
+    /**
+     * The number of batches of prices written so far
+     */
+    private volatile long version;
+
+    /**
+     * Creates a matrix with every price unknown
+     * @param fSyms The cryptocurrency symbols of interest
+     * @param tSyms The cryptocurrency symbols to convert into
+     */
+    public PriceMatrix(Collection<String> fSyms, Collection<String> tSyms) {
+        fromSymbols = normalize(fSyms);
+        toSymbols = normalize(tSyms);
+        fromIndices = indices(fromSymbols);
+        toIndices = indices(toSymbols);
+        prices = new double[fromSymbols.length * toSymbols.length];
+        Arrays.fill(prices, Double.NaN);
+    }
+
+    private static String[] normalize(Collection<String> symbols) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            String trimmed = symbol.trim().toUpperCase();
+            if (!trimmed.isEmpty()) unique.add(trimmed);
+        }
+        return unique.toArray(new String[0]);
+    }
+
+    private static Map<String, Integer> indices(String[] symbols) {
+        Map<String, Integer> indices = new HashMap<>(symbols.length * 2);
+        for (int i = 0; i < symbols.length; i++) {
+            indices.put(symbols[i], i);
+        }
+        return indices;
+    }
+
+    /**
+     * Gets the index of a from-symbol
+     * @param fSym The cryptocurrency symbol
+     * @return The index of the symbol, or -1 if it is not in the matrix
+     */
+    public int fromIndex(String fSym) {
+        Integer index = fromIndices.get(fSym.toUpperCase());
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Gets the index of a to-symbol
+     * @param tSym The cryptocurrency symbol
+     * @return The index of the symbol, or -1 if it is not in the matrix
+     */
+    public int toIndex(String tSym) {
+        Integer index = toIndices.get(tSym.toUpperCase());
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Gets a price by the indices of its symbols
+     * @param from The index of the from-symbol
+     * @param to The index of the to-symbol
+     * @return The price of the from-symbol in the to-symbol, or NaN if it is not known
+     */
+    public double get(int from, int to) {
+        return prices[from * toSymbols.length + to];
+    }
+
+    /**
+     * Gets a price by its symbols
+     * @param fSym The cryptocurrency symbol of interest
+     * @param tSym The cryptocurrency symbol to convert into
+     * @return The price of the from-symbol in the to-symbol, or NaN if it is not known or not in the matrix
+     */
+    public double get(String fSym, String tSym) {
+        int from = fromIndex(fSym);
+        int to = toIndex(tSym);
+        return from < 0 || to < 0 ? Double.NaN : get(from, to);
+    }
+
+    /**
+     * Copies the prices of a from-symbol in every to-symbol
+     * @param from The index of the from-symbol
+     * @param into The array to copy into, at least {@link PriceMatrix#toCount()} long
+     */
+    public void getRow(int from, double[] into) {
+        System.arraycopy(prices, from * toSymbols.length, into, 0, toSymbols.length);
+    }
+
+    /**
+     * Gets the from-symbol at an index
+     * @param from The index of the from-symbol
+     * @return The upper case symbol
+     */
+    public String fromSymbol(int from) {
+        return fromSymbols[from];
+    }
+
+    /**
+     * Gets the to-symbol at an index
+     * @param to The index of the to-symbol
+     * @return The upper case symbol
+     */
+    public String toSymbol(int to) {
+        return toSymbols[to];
+    }
+
+    /**
+     * Gets the from-symbols in index order
+     * @return The upper case symbols
+     */
+    public List<String> getFromSymbols() {
+        return Collections.unmodifiableList(Arrays.asList(fromSymbols));
+    }
+
+    /**
+     * Gets the to-symbols in index order
+     * @return The upper case symbols
+     */
+    public List<String> getToSymbols() {
+        return Collections.unmodifiableList(Arrays.asList(toSymbols));
+    }
+
+    /**
+     * Gets the number of from-symbols
+     * @return The number of rows in the matrix
+     */
+    public int fromCount() {
+        return fromSymbols.length;
+    }
+
+    /**
+     * Gets the number of to-symbols
+     * @return The number of columns in the matrix
+     */
+    public int toCount() {
+        return toSymbols.length;
+    }
+
+    /**
+     * {@link PriceMatrix#version}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Splits the from-symbols or to-symbols into ranges of indices which fit in a comma separated list
+     * @param from Whether to split the from-symbols instead of the to-symbols
+     * @param maxLength The maximum length of a list including the commas
+     * @return The first and last index, exclusive, of every range
+     */
+    List<int[]> ranges(boolean from, int maxLength) {
+        String[] symbols = from ? fromSymbols : toSymbols;
+        List<int[]> ranges = new ArrayList<>();
+        int start = 0;
+        int length = -1;
+        for (int i = 0; i < symbols.length; i++) {
+            if (length + 1 + symbols[i].length() > maxLength && i > start) {
+                ranges.add(new int[]{start, i});
+                start = i;
+                length = -1;
+            }
+            length += 1 + symbols[i].length();
+        }
+        if (start < symbols.length) {
+            ranges.add(new int[]{start, symbols.length});
+        }
+        return ranges;
+    }
+
+    /**
+     * Joins a range of from-symbols or to-symbols into a comma separated list
+     */
+    String join(boolean from, int start, int end) {
+        String[] symbols = from ? fromSymbols : toSymbols;
+        StringBuilder joined = new StringBuilder();
+        for (int i = start; i < end; i++) {
+            if (i > start) joined.append(',');
+            joined.append(symbols[i]);
+        }
+        return joined.toString();
+    }
+
+    /**
+     * Streams a pricemulti response for a block of the matrix into an array, without creating any maps
+     * @param r The response
+     * @param fRange The first and last index, exclusive, of the from-symbols in the block
+     * @param tRange The first and last index, exclusive, of the to-symbols in the block
+     * @return The prices of the block by row, NaN for every price missing from the response
+     * @throws IOException when the response cannot be read
+     */
+    double[] parseBlock(Reader r, int[] fRange, int[] tRange) throws IOException {
+        int width = tRange[1] - tRange[0];
+        double[] block = new double[(fRange[1] - fRange[0]) * width];
+        Arrays.fill(block, Double.NaN);
+
+        JsonReader in = new JsonReader(r);
+        in.beginObject();
+        while (in.hasNext()) {
+            Integer from = fromIndices.get(in.nextName());
+            if (from == null || from < fRange[0] || from >= fRange[1] || in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                continue;
+            }
+
+            int row = (from - fRange[0]) * width;
+            in.beginObject();
+            while (in.hasNext()) {
+                Integer to = toIndices.get(in.nextName());
+                if (to == null || to < tRange[0] || to >= tRange[1] || in.peek() == JsonToken.NULL) {
+                    in.skipValue();
+                } else {
+                    block[row + to - tRange[0]] = Json.nextDouble(in);
+                }
+            }
+            in.endObject();
+        }
+        in.endObject();
+        return block;
+    }
+
+    /**
+     * Copies a block of prices into the matrix
+     */
+    synchronized void apply(int[] fRange, int[] tRange, double[] block) {
+        int width = tRange[1] - tRange[0];
+        for (int from = fRange[0]; from < fRange[1]; from++) {
+            System.arraycopy(block, (from - fRange[0]) * width, prices, from * toSymbols.length + tRange[0], width);
+        }
+        version++;
+    }
+}
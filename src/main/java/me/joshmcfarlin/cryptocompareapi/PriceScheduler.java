@@ -0,0 +1,322 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
+import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
+import me.joshmcfarlin.cryptocompareapi.utils.IntervalTypes;
+import me.joshmcfarlin.cryptocompareapi.utils.RateLimiting;
+
+import java.io.Closeable;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Polls full price information for every subscription in a single shared loop and notifies listeners of changes
+ *
+ * Every tick the subscriptions which are due are grouped by their to-symbols, and the from-symbols of each group are
+ * requested with as few batched calls as {@link Market#getMultiFull(Collection, Collection)} allows, so only subscribed
+ * pairs are requested. Responses are never taken from a cache. A pair is reported to a listener when its price or last
+ * update time differs from the one the listener saw last. A group is skipped when the local rate limits do not leave
+ * enough PRICE calls for it and retried on the next tick, and its listeners receive an {@link OutOfCallsException}
+ * once it has been skipped for a whole interval.
+ * @author Josh McFarlin
+ */
+public class PriceScheduler {
+    /**
+     * The default number of milliseconds between checks for due subscriptions
+     */
+    public static final long DEFAULT_TICK = 200;
+
+    /**
+     * Receives the pairs of a subscription which changed
+     */
+    public interface Listener {
+        /**
+         * Called on the polling thread with every pair which changed, so it should return quickly
+         * @param changed The new information for each changed to-symbol of each from-symbol
+         */
+        void onChange(Map<String, Map<String, Market.toSym>> changed);
+
+        /**
+         * Called on the polling thread when a poll fails, or was skipped for the rate limit for a whole interval
+         * @param e The exception the poll failed with
+         */
+        default void onError(Exception e) {
+        }
+    }
+
+    /**
+     * A set of pairs polled at an interval until it is cancelled
+     */
+    public class Subscription implements Closeable {
+        private final Set<String> fSyms;
+        private final Set<String> tSyms;
+        private final long intervalNanos;
+        private final Listener listener;
+
+        /**
+         * The information last reported for every pair, keyed by from-symbol and to-symbol
+         */
+        private final Map<String, Market.toSym> last = new HashMap<>();
+
+        private long nextPoll;
+        private volatile boolean active = true;
+
+        Subscription(Set<String> fSyms, Set<String> tSyms, long intervalNanos, Listener listener) {
+            this.fSyms = fSyms;
+            this.tSyms = tSyms;
+            this.intervalNanos = intervalNanos;
+            this.listener = listener;
+            this.nextPoll = System.nanoTime();
+        }
+
+        /**
+         * Stops polling for this subscription
+         */
+        public void cancel() {
+            active = false;
+            remove(this);
+        }
+
+        @Override
+        public void close() {
+            cancel();
+        }
+
+        /**
+         * {@link Subscription#active}
+         */
+        public boolean isActive() {
+            return active;
+        }
+
+        /**
+         * Notifies the listener of every subscribed pair which changed since it was last notified
+         */
+        private void dispatch(Map<String, Map<String, Market.toSym>> result) {
+            Map<String, Map<String, Market.toSym>> changed = new LinkedHashMap<>();
+            for (String fSym : fSyms) {
+                Map<String, Market.toSym> row = result.get(fSym);
+                if (row == null) continue;
+
+                for (String tSym : tSyms) {
+                    Market.toSym current = row.get(tSym);
+                    if (current == null) continue;
+
+                    Market.toSym previous = last.put(fSym + "/" + tSym, current);
+                    if (previous == null || previous.getLastUpdate() != current.getLastUpdate()
+                            || Double.compare(previous.getPrice(), current.getPrice()) != 0) {
+                        changed.computeIfAbsent(fSym, k -> new LinkedHashMap<>()).put(tSym, current);
+                    }
+                }
+            }
+
+            if (!changed.isEmpty() && active) {
+                try {
+                    listener.onChange(changed);
+                } catch (RuntimeException e) {
+                    listener.onError(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The object used to make the requests
+     */
+    private final Market market;
+
+    /**
+     * The active subscriptions
+     */
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Runs the polling loop, created with the first subscription
+     */
+    private ScheduledThreadPoolExecutor executor;
+
+    /**
+     * The polling loop while there are subscriptions
+     */
+    private ScheduledFuture<?> task;
+
+    /**
+     * The number of milliseconds between checks for due subscriptions
+     */
+    private volatile long tick = DEFAULT_TICK;
+
+    /**
+     * Creates a scheduler with no subscriptions
+     * @param market The object used to make the requests
+     */
+    public PriceScheduler(Market market) {
+        this.market = market;
+    }
+
+    /**
+     * Starts polling a set of pairs
+     * @param fSyms The cryptocurrency symbols of interest
+     * @param tSyms The cryptocurrency symbols to convert into
+     * @param interval The time between two polls
+     * @param unit The unit of the provided time
+     * @param listener Receives the pairs which changed, starting with every pair on the first poll
+     * @return The subscription, which must be cancelled to stop polling
+     */
+    public Subscription subscribe(Collection<String> fSyms, Collection<String> tSyms, long interval, TimeUnit unit, Listener listener) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+
+        Subscription subscription = new Subscription(normalize(fSyms), normalize(tSyms), unit.toNanos(interval), listener);
+        subscriptions.add(subscription);
+        synchronized (this) {
+            if (task == null) {
+                if (executor == null) {
+                    executor = new ScheduledThreadPoolExecutor(1, r -> {
+                        Thread thread = new Thread(r, "cryptocompare-price-scheduler");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    executor.setKeepAliveTime(1, TimeUnit.MINUTES);
+                    executor.allowCoreThreadTimeOut(true);
+                    executor.setRemoveOnCancelPolicy(true);
+                }
+                task = executor.scheduleWithFixedDelay(this::poll, 0, tick, TimeUnit.MILLISECONDS);
+            }
+        }
+        return subscription;
+    }
+
+    private static Set<String> normalize(Collection<String> symbols) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            String trimmed = symbol.trim().toUpperCase();
+            if (!trimmed.isEmpty()) normalized.add(trimmed);
+        }
+        return normalized;
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.remove(subscription);
+        synchronized (this) {
+            if (subscriptions.isEmpty() && task != null) {
+                task.cancel(false);
+                task = null;
+            }
+        }
+    }
+
+    /**
+     * Polls every due subscription, a listener throwing an exception must not stop the loop
+     */
+    private void poll() {
+        try {
+            poll(System.nanoTime());
+        } catch (RuntimeException ignored) {
+            // Thrown by a listener's onError, the loop continues with the next tick
+        }
+    }
+
+    /**
+     * Polls every subscription due at a time, with one set of batched requests for each set of to-symbols
+     */
+    void poll(long now) {
+        // Subscriptions with the same to-symbols share requests, which then only contain subscribed pairs
+        Map<Set<String>, List<Subscription>> groups = new LinkedHashMap<>();
+        for (Subscription subscription : subscriptions) {
+            if (subscription.active && now - subscription.nextPoll >= 0) {
+                groups.computeIfAbsent(subscription.tSyms, k -> new ArrayList<>()).add(subscription);
+            }
+        }
+
+        for (Map.Entry<Set<String>, List<Subscription>> group : groups.entrySet()) {
+            poll(now, group.getKey(), group.getValue());
+        }
+    }
+
+    private void poll(long now, Set<String> tSyms, List<Subscription> due) {
+        Set<String> fSyms = new LinkedHashSet<>();
+        for (Subscription subscription : due) {
+            fSyms.addAll(subscription.fSyms);
+        }
+
+        Map<String, Map<String, Market.toSym>> result;
+        int calls = 0;
+        try {
+            calls = Market.partition(fSyms, Market.MAX_FSYMS_LENGTH, "fSyms").size()
+                    * Market.partition(tSyms, Market.MAX_TSYMS_LENGTH, "tSyms").size();
+            if (!withinRateLimit(calls)) {
+                throttled(now, due, calls);
+                return;
+            }
+
+            result = market.getMultiFullUncached(fSyms, tSyms);
+        } catch (OutOfCallsException e) {
+            throttled(now, due, calls);
+            return;
+        } catch (Exception e) {
+            for (Subscription subscription : due) {
+                subscription.nextPoll = now + subscription.intervalNanos;
+                subscription.listener.onError(e);
+            }
+            return;
+        }
+
+        for (Subscription subscription : due) {
+            subscription.nextPoll = now + subscription.intervalNanos;
+            if (result != null) subscription.dispatch(result);
+        }
+    }
+
+    /**
+     * Retries subscriptions skipped for the rate limit on the next tick, but reports the ones which missed a whole
+     * interval, so a subscription needing more calls than the limits ever allow does not fail silently
+     */
+    private static void throttled(long now, List<Subscription> due, int calls) {
+        for (Subscription subscription : due) {
+            if (now - subscription.nextPoll >= subscription.intervalNanos) {
+                subscription.nextPoll = now + subscription.intervalNanos;
+                subscription.listener.onError(new OutOfCallsException(String.format(
+                        "Not enough PRICE calls are left for the %d calls a poll needs, please try later.", calls)));
+            }
+        }
+    }
+
+    /**
+     * Checks whether the local rate limits leave enough PRICE calls in every interval
+     */
+    private static boolean withinRateLimit(int calls) {
+        for (IntervalTypes interval : IntervalTypes.values()) {
+            if (RateLimiting.getCallsLeft(CallTypes.PRICE, interval) < calls) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of active subscriptions
+     * @return The number of subscriptions which have not been cancelled
+     */
+    public int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * {@link PriceScheduler#tick}
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Sets the time between checks for due subscriptions, used from the next subscription after all were cancelled
+     * @param tick The number of milliseconds between checks
+     */
+    public void setTick(long tick) {
+        if (tick <= 0) {
+            throw new IllegalArgumentException("tick must be positive");
+        }
+        this.tick = tick;
+    }
+}
@@ -1,9 +1,10 @@
 package me.joshmcfarlin.cryptocompareapi;
 
-import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
 import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
 import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import me.joshmcfarlin.cryptocompareapi.utils.HttpConnection;
+import me.joshmcfarlin.cryptocompareapi.utils.Json;
 import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
 
 import java.io.*;
@@ -14,6 +15,26 @@ import java.util.List;
  * @author Josh McFarlin
  */
 public class Social {
+    /**
+     * The connection used to make requests
+     */
+    private final Connection connection;
+
+    /**
+     * Creates an object which makes requests through a new {@link HttpConnection}
+     */
+    public Social() {
+        this(new HttpConnection());
+    }
+
+    /**
+     * Creates an object which makes requests through the provided connection
+     * @param connection The connection used to make requests
+     */
+    public Social(Connection connection) {
+        this.connection = connection;
+    }
+
     /**
      * Gets social media information about a provided cryptocurrency or exchange
      * @param id The CryptoCompare ID to find information for
@@ -24,8 +45,7 @@ public class Social {
     public SocialStats getStats(int id) throws IOException, OutOfCallsException {
         String formattedUrl = "https://www.cryptocompare.com/api/data/socialstats/?id=" + id;
 
-        Reader r = Connection.getJSON(formattedUrl, CallTypes.OTHER);
-        return new Gson().fromJson(r, SocialStats.class);
+        return connection.getJSON(formattedUrl, CallTypes.OTHER, Json.parser(SocialStats.class));
     }
 
     /**
@@ -0,0 +1,51 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import jdk.jfr.*;
+
+/**
+ * A flight recorder event for parsing a response, lasting as long as the parser ran
+ * @author Josh McFarlin
+ */
+@Name("me.joshmcfarlin.cryptocompareapi.ApiParse")
+@Label("API Response Parse")
+@Category({"CryptoCompare"})
+@Description("Parsing a response of the CryptoCompare API")
+final class ApiParseEvent extends Event {
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Call Type")
+    String callType;
+
+    @Label("URL Template")
+    String urlTemplate;
+
+    @Label("Result Type")
+    Class<?> resultType;
+
+    /**
+     * Creates and begins an event, only called when {@link Jfr#AVAILABLE}
+     */
+    static ApiParseEvent start() {
+        ApiParseEvent event = new ApiParseEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it if it is recorded, the fields which need work are only filled in then
+     * @param urlString The URL of the response
+     * @param type The type of API call made
+     * @param result The parsed response, null if parsing failed
+     */
+    void finish(String urlString, CallTypes type, Object result) {
+        end();
+        if (shouldCommit()) {
+            endpoint = Metrics.endpoint(urlString);
+            callType = type == null ? null : type.name();
+            urlTemplate = Jfr.template(urlString);
+            resultType = result == null ? null : result.getClass();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import jdk.jfr.*;
+
+/**
+ * A flight recorder event for an HTTP request made by {@link HttpConnection}, lasting from waiting for a connection
+ * until the response body was read
+ * @author Josh McFarlin
+ */
+@Name("me.joshmcfarlin.cryptocompareapi.ApiRequest")
+@Label("API Request")
+@Category({"CryptoCompare"})
+@Description("An HTTP request to the CryptoCompare API")
+final class ApiRequestEvent extends Event {
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Call Type")
+    String callType;
+
+    @Label("URL Template")
+    String urlTemplate;
+
+    @Label("Status")
+    @Description("The HTTP status, 0 if no response was received")
+    int status;
+
+    @Label("Payload")
+    @DataAmount
+    long bytes;
+
+    @Label("Connection Wait")
+    @Description("The time spent waiting for one of the connections to the host")
+    @Timespan
+    long connectionWait;
+
+    /**
+     * Creates and begins an event, only called when {@link Jfr#AVAILABLE}
+     */
+    static ApiRequestEvent start() {
+        ApiRequestEvent event = new ApiRequestEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it if it is recorded, the fields which need work are only filled in then
+     * @param urlString The URL requested
+     * @param type The type of API call made
+     */
+    void finish(String urlString, CallTypes type) {
+        end();
+        if (shouldCommit()) {
+            endpoint = Metrics.endpoint(urlString);
+            callType = type == null ? null : type.name();
+            urlTemplate = Jfr.template(urlString);
+            commit();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.InvalidParameterException;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contains methods for running API calls asynchronously
+ * @author Josh McFarlin
+ */
+public class Async {
+    /**
+     * The maximum number of threads used by the fallback executor
+     */
+    private static final int MAX_POOL_THREADS = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+
+    /**
+     * Represents an API call which may throw a checked exception
+     * @param <T> The type returned by the call
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * Gets the executor shared by all asynchronous API methods unless another one is provided
+     * @return An executor using virtual threads on JDK 21 and newer, otherwise a bounded pool of daemon threads
+     */
+    public static Executor getDefaultExecutor() {
+        return DefaultExecutor.INSTANCE;
+    }
+
+    /**
+     * Gets the executor backfill pages are fetched on unless another one is provided
+     *
+     * Kept apart from the default executor so a backfill running on it never waits for pages queued behind itself.
+     * @return An executor using virtual threads on JDK 21 and newer, otherwise an unbounded pool of daemon threads
+     */
+    public static Executor getPageExecutor() {
+        return PageExecutor.INSTANCE;
+    }
+
+    /**
+     * Runs an API call on the provided executor
+     * @param executor The executor to run the call on
+     * @param call The API call to run
+     * @param <T> The type returned by the call
+     * @return A future which completes with the result of the call, or exceptionally with the exception it threw. The
+     * call is not made when the future was already completed or cancelled before it started.
+     */
+    public static <T> CompletableFuture<T> supply(Executor executor, Call<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                // Skips calls which were cancelled while they were queued
+                if (future.isDone()) return;
+                try {
+                    future.complete(call.call());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Waits for a future created by {@link Async#supply(Executor, Call)}, rethrowing the exception the call failed with
+     * @param future The future to wait for
+     * @param <T> The type returned by the call
+     * @return The result of the call
+     * @throws IOException when the call failed with one, or the waiting thread was interrupted
+     * @throws OutOfCallsException when the call failed with one
+     * @throws InvalidParameterException when the call failed with one
+     */
+    public static <T> T join(CompletableFuture<T> future) throws IOException, OutOfCallsException, InvalidParameterException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an API call");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof OutOfCallsException) throw (OutOfCallsException) cause;
+            if (cause instanceof InvalidParameterException) throw (InvalidParameterException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            if (cause instanceof InterruptedException) throw new InterruptedIOException("Interrupted while making an API call");
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Creates an executor using virtual threads when they are available
+     * @return The executor, or null before JDK 21
+     */
+    private static Executor virtualThreads() {
+        try {
+            // Looked up reflectively so the library still runs on JDK 8
+            Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) virtual.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a factory for daemon threads named after a prefix
+     */
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Lazily creates the default executor the first time it is needed
+     */
+    private static class DefaultExecutor {
+        private static final Executor INSTANCE = create();
+
+        private static Executor create() {
+            Executor virtual = virtualThreads();
+            if (virtual != null) {
+                return virtual;
+            }
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_POOL_THREADS, MAX_POOL_THREADS,
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), daemonThreads("cryptocompare-async-"));
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+    }
+
+    /**
+     * Lazily creates the backfill page executor the first time it is needed
+     */
+    private static class PageExecutor {
+        private static final Executor INSTANCE = create();
+
+        private static Executor create() {
+            Executor virtual = virtualThreads();
+            if (virtual != null) {
+                return virtual;
+            }
+            // Never queues, pages wait for the rate limit on their own threads and each backfill limits how many it starts
+            return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    daemonThreads("cryptocompare-page-"));
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.CircuitOpenException;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link Connection} which keeps parsed responses for a configurable time so repeated calls do not make a request
+ *
+ * How long a response is kept depends on the path of its URL, the rule with the longest matching path prefix is used
+ * and responses matching no rule are not cached. By default only reference data such as the coin list, exchanges, news
+ * providers and mining data is kept, for hours. Prices are not cached unless a rule is set for them, as callers would
+ * otherwise receive old prices without knowing. The cache holds a limited number of responses and evicts the least
+ * recently or least frequently used one when it is full.
+ *
+ * Responses are kept for their URL and the {@link ResponseParser#getKey() key} of the parser, so calls parsing the same
+ * URL differently never receive each other's objects. Calls which only return a Reader are never cached.
+ *
+ * When a maximum staleness is set, expired responses are kept until they are replaced or evicted and are returned
+ * instead of a {@link CircuitOpenException}, so calls to an endpoint whose circuit breaker is open still get an answer.
+ *
+ * Cached objects are shared by every caller receiving them. Before a response is kept, a response which is a map, list
+ * or set is replaced by an unmodifiable copy, along with the collections nested directly in it. The API's own objects
+ * are returned as they were parsed and must not be modified by callers.
+ * @author Josh McFarlin
+ */
+public class CachingConnection implements Connection {
+    /**
+     * The default maximum number of responses kept
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    /**
+     * Decides which response is evicted when the cache is full
+     */
+    public enum EvictionPolicy {
+        /**
+         * Evicts the response which was used longest ago
+         */
+        LRU,
+
+        /**
+         * Evicts the response which was used the fewest times, the least recently used of those on a tie
+         */
+        LFU
+    }
+
+    /**
+     * The URL of a response and the key of the parser it was parsed with
+     */
+    private static class Key {
+        private final String url;
+        private final Object parser;
+
+        Key(String url, Object parser) {
+            this.url = url;
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return url.equals(other.url) && Objects.equals(parser, other.parser);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * url.hashCode() + Objects.hashCode(parser);
+        }
+    }
+
+    /**
+     * A cached response
+     */
+    private static class Entry {
+        private final Object value;
+        private final long expiresAt;
+        private long hits;
+
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * The connection requests are made through
+     */
+    private final Connection delegate;
+
+    /**
+     * The number of nanoseconds responses are kept, keyed by URL path prefix
+     */
+    private final TreeMap<String, Long> ttls = new TreeMap<>();
+
+    /**
+     * The cached responses keyed by URL and parser, in order of use
+     */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Supplies the current time in nanoseconds
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The maximum number of responses kept
+     */
+    private volatile int maxEntries;
+
+    /**
+     * Decides which response is evicted when the cache is full
+     */
+    private volatile EvictionPolicy evictionPolicy;
+
+    /**
+     * The number of nanoseconds after expiring a response is still returned when its circuit is open, 0 to never
+     */
+    private volatile long maxStale;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+
+    /**
+     * Receives every cache hit and miss
+     */
+    private volatile Metrics metrics = Metrics.NONE;
+
+    /**
+     * Creates a cache with the default rules in front of a new {@link HttpConnection}
+     */
+    public CachingConnection() {
+        this(new HttpConnection());
+    }
+
+    /**
+     * Creates a cache with the default rules, keeping up to {@link CachingConnection#DEFAULT_MAX_ENTRIES} responses
+     * @param delegate The connection requests are made through
+     */
+    public CachingConnection(Connection delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES, EvictionPolicy.LRU);
+    }
+
+    /**
+     * Creates a cache with the default rules
+     * @param delegate The connection requests are made through
+     * @param maxEntries The maximum number of responses kept
+     * @param evictionPolicy Decides which response is evicted when the cache is full
+     */
+    public CachingConnection(Connection delegate, int maxEntries, EvictionPolicy evictionPolicy) {
+        this(delegate, maxEntries, evictionPolicy, System::nanoTime);
+    }
+
+    CachingConnection(Connection delegate, int maxEntries, EvictionPolicy evictionPolicy, LongSupplier clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        setMaxEntries(maxEntries);
+        setEvictionPolicy(evictionPolicy);
+
+        setTtl("/data/all/coinlist", 6, TimeUnit.HOURS);
+        setTtl("/data/all/exchanges", 6, TimeUnit.HOURS);
+        setTtl("/data/news/providers", 6, TimeUnit.HOURS);
+        setTtl("/api/data/miningcontracts", 1, TimeUnit.HOURS);
+        setTtl("/api/data/miningequipment", 1, TimeUnit.HOURS);
+        setTtl("/api/data/coinsnapshotfullbyid", 1, TimeUnit.HOURS);
+        setTtl("/api/data/socialstats", 10, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public Reader getJSON(String urlString) throws IOException {
+        return delegate.getJSON(urlString);
+    }
+
+    @Override
+    public Reader getJSON(String urlString, CallTypes type) throws IOException, OutOfCallsException {
+        return delegate.getJSON(urlString, type);
+    }
+
+    /**
+     * Gets a cached response for a URL, or requests, parses and caches it when there is no fresh one
+     * @param urlString The URL to get JSON information from
+     * @param type The type of API call being made
+     * @param parser The parser used to read the response
+     * @param <T> The type of the parsed response
+     * @return The parsed response, which is shared with other callers and must not be modified when it is cached
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getJSON(String urlString, CallTypes type, ResponseParser<T> parser) throws IOException, OutOfCallsException {
+        long ttl = ttlFor(urlString);
+        if (ttl <= 0) {
+            return delegate.getJSON(urlString, type, parser);
+        }
+
+        Key key = new Key(urlString, parser.getKey());
+        Entry stale = null;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt - clock.getAsLong() > 0) {
+                    entry.hits++;
+                    hits.increment();
+                    metrics.recordCacheAccess(path(urlString), true);
+                    return (T) entry.value;
+                }
+                if (maxStale > 0) {
+                    stale = entry;
+                } else {
+                    entries.remove(key);
+                }
+            }
+        }
+
+        misses.increment();
+        metrics.recordCacheAccess(path(urlString), false);
+        T value;
+        try {
+            value = delegate.getJSON(urlString, type, parser);
+        } catch (CircuitOpenException e) {
+            if (stale == null || clock.getAsLong() - stale.expiresAt > maxStale) throw e;
+            staleHits.increment();
+            return (T) stale.value;
+        }
+        value = (T) freeze(value, new IdentityHashMap<>());
+        put(key, value, clock.getAsLong() + ttl);
+        return value;
+    }
+
+    private void put(Key key, Object value, long expiresAt) {
+        synchronized (entries) {
+            entries.put(key, new Entry(value, expiresAt));
+            while (entries.size() > maxEntries) {
+                entries.remove(victim(key));
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Replaces a parsed collection and the collections nested in it with unmodifiable copies, other objects are kept
+     * @param value The parsed response or a part of it
+     * @param frozen The parts already frozen, so shared and cyclic references are only copied once
+     * @return The frozen value, which is the same object unless it is a collection
+     */
+    private static Object freeze(Object value, IdentityHashMap<Object, Object> frozen) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) return value;
+        Object done = frozen.get(value);
+        if (done != null) return done;
+
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            frozen.put(value, Collections.unmodifiableMap(copy));
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                copy.put(e.getKey(), freeze(e.getValue(), frozen));
+            }
+        } else if (value instanceof List) {
+            List<Object> copy = new ArrayList<>(((List<?>) value).size());
+            frozen.put(value, Collections.unmodifiableList(copy));
+            for (Object element : (List<?>) value) {
+                copy.add(freeze(element, frozen));
+            }
+        } else if (value instanceof Set) {
+            Set<Object> copy = new LinkedHashSet<>();
+            frozen.put(value, Collections.unmodifiableSet(copy));
+            for (Object element : (Set<?>) value) {
+                copy.add(freeze(element, frozen));
+            }
+        } else {
+            // The fields of other objects are never touched, they may be shared with live state
+            frozen.put(value, value);
+        }
+        return frozen.get(value);
+    }
+
+    /**
+     * Chooses the response to evict, expired responses are always evicted first
+     * @param added The response which was just added, never chosen so it gets a chance to be used
+     */
+    private Key victim(Key added) {
+        long now = clock.getAsLong();
+        Key victim = null;
+        long fewestHits = Long.MAX_VALUE;
+
+        // Iterates from the least to the most recently used response
+        for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+            Entry entry = e.getValue();
+            if (e.getKey().equals(added)) continue;
+            if (entry.expiresAt - now <= 0) return e.getKey();
+            if (evictionPolicy == EvictionPolicy.LRU) {
+                if (victim == null) victim = e.getKey();
+            } else if (entry.hits < fewestHits) {
+                victim = e.getKey();
+                fewestHits = entry.hits;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Finds the number of nanoseconds a response is kept using the rule with the longest matching path prefix
+     */
+    private long ttlFor(String urlString) {
+        String path = path(urlString);
+        synchronized (ttls) {
+            // Every prefix of the path sorts before it, and longer prefixes sort after shorter ones
+            for (Map.Entry<String, Long> rule : ttls.headMap(path, true).descendingMap().entrySet()) {
+                if (path.startsWith(rule.getKey())) return rule.getValue();
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Gets the path of a URL without its scheme, host and query
+     */
+    private static String path(String urlString) {
+        return Metrics.endpoint(urlString);
+    }
+
+    /**
+     * Sets how long responses are kept for URLs starting with a path, replacing any rule for the same path
+     * @param pathPrefix The start of the URL path, such as "/data/price"
+     * @param ttl How long responses are kept, 0 to not cache them
+     * @param unit The unit of the provided time
+     */
+    public void setTtl(String pathPrefix, long ttl, TimeUnit unit) {
+        synchronized (ttls) {
+            ttls.put(pathPrefix, unit.toNanos(ttl));
+        }
+    }
+
+    /**
+     * Removes the rule for a path, so responses fall back to the rule with the next longest matching prefix
+     * @param pathPrefix The start of the URL path the rule was set for
+     */
+    public void removeTtl(String pathPrefix) {
+        synchronized (ttls) {
+            ttls.remove(pathPrefix);
+        }
+    }
+
+    /**
+     * Removes the cached responses for a URL
+     * @param urlString The URL of the responses
+     */
+    public void invalidate(String urlString) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.url.equals(urlString));
+        }
+    }
+
+    /**
+     * Removes every cached response for URLs starting with a path
+     * @param pathPrefix The start of the URL path, such as "/data/price"
+     */
+    public void invalidatePath(String pathPrefix) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> path(key.url).startsWith(pathPrefix));
+        }
+    }
+
+    /**
+     * Removes every cached response
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the number of responses currently cached, including expired ones which have not been removed yet
+     * @return The number of cached responses
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * {@link CachingConnection#delegate}
+     */
+    public Connection getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * {@link CachingConnection#maxEntries}
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * {@link CachingConnection#evictionPolicy}
+     */
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+        this.evictionPolicy = evictionPolicy;
+    }
+
+    /**
+     * {@link CachingConnection#maxStale}
+     */
+    public long getMaxStale() {
+        return maxStale;
+    }
+
+    /**
+     * Sets how long after expiring a response is still returned when the circuit of its endpoint is open
+     * @param maxStale How long expired responses are kept for this, 0 to remove them once they expire
+     * @param unit The unit of the provided time
+     */
+    public void setMaxStale(long maxStale, TimeUnit unit) {
+        if (maxStale < 0) {
+            throw new IllegalArgumentException("maxStale must not be negative");
+        }
+        this.maxStale = unit.toNanos(maxStale);
+    }
+
+    /**
+     * {@link CachingConnection#metrics}
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics == null ? Metrics.NONE : metrics;
+    }
+
+    /**
+     * Gets the number of calls answered from the cache
+     * @return The number of cache hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of cacheable calls which had to make a request
+     * @return The number of cache misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of calls answered with an expired response because the circuit of their endpoint was open
+     * @return The number of stale hits
+     */
+    public long getStaleHitCount() {
+        return staleHits.sum();
+    }
+
+    /**
+     * Gets the number of responses removed because the cache was full
+     * @return The number of evictions
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+}
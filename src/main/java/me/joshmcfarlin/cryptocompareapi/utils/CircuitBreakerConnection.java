@@ -0,0 +1,388 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.CircuitOpenException;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.HttpStatusException;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link Connection} which stops making requests to an endpoint for a while after it failed several times in a row
+ *
+ * Every host and endpoint has its own breaker, so a degraded endpoint such as the legacy {@code /api/data/} ones on
+ * www.cryptocompare.com does not hold up threads calling the others. Failures are connections which could not be made
+ * or timed out and responses with a 5xx status. After {@link CircuitBreakerConnection#failureThreshold} of them in a
+ * row the breaker opens and calls fail at once with a {@link CircuitOpenException}, which a {@link CachingConnection}
+ * can answer with a stale response. Once the breaker has been open for {@link CircuitBreakerConnection#openTime} a
+ * single call is let through as a probe, which closes the breaker when it succeeds and opens it again otherwise.
+ * @author Josh McFarlin
+ */
+public class CircuitBreakerConnection implements Connection {
+    /**
+     * The default number of failures in a row which open a breaker
+     */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+    /**
+     * The default number of seconds a breaker stays open before a probe is let through
+     */
+    public static final long DEFAULT_OPEN_TIME = 30;
+
+    /**
+     * The state of a breaker
+     */
+    public enum State {
+        /**
+         * Calls are made
+         */
+        CLOSED,
+
+        /**
+         * Calls fail at once
+         */
+        OPEN,
+
+        /**
+         * A single probe call is made, the others fail at once
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Decides which calls share a breaker
+     */
+    public enum Scope {
+        /**
+         * Every path on a host has its own breaker
+         */
+        ENDPOINT,
+
+        /**
+         * Every path on a host shares a breaker
+         */
+        HOST
+    }
+
+    /**
+     * A call which is guarded by a breaker
+     */
+    private interface Call<T> {
+        T call() throws IOException, OutOfCallsException;
+    }
+
+    /**
+     * The breaker of a host or endpoint, all of its fields are guarded by itself
+     */
+    private class Breaker {
+        private final String key;
+        private State state = State.CLOSED;
+        private int failures;
+        private long openedAt;
+        private boolean probing;
+
+        Breaker(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Lets a call through or refuses it
+         * @return Whether the call is a probe
+         */
+        synchronized boolean acquire() throws CircuitOpenException {
+            if (state == State.CLOSED) return false;
+
+            long waited = clock.getAsLong() - openedAt;
+            if (state == State.OPEN && waited >= openTime) {
+                state = State.HALF_OPEN;
+            }
+            if (state == State.HALF_OPEN && !probing) {
+                probing = true;
+                return true;
+            }
+
+            rejected.increment();
+            throw new CircuitOpenException(String.format("The circuit for %s is open after %d failures", key, failures),
+                    Math.max(0, openTime - waited));
+        }
+
+        synchronized void onSuccess() {
+            state = State.CLOSED;
+            failures = 0;
+            probing = false;
+        }
+
+        synchronized void onFailure() {
+            failures++;
+            probing = false;
+            if (state == State.HALF_OPEN || failures >= failureThreshold) {
+                if (state != State.OPEN) opened.increment();
+                state = State.OPEN;
+                openedAt = clock.getAsLong();
+            }
+        }
+
+        /**
+         * Lets another call probe when this one ended without reaching the server
+         */
+        synchronized void release(boolean probe) {
+            if (probe) probing = false;
+        }
+
+        synchronized State getState() {
+            return state == State.OPEN && clock.getAsLong() - openedAt >= openTime ? State.HALF_OPEN : state;
+        }
+    }
+
+    /**
+     * The connection requests are made through
+     */
+    private final Connection delegate;
+
+    /**
+     * The breakers keyed by host or by host and path
+     */
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * Supplies the current time in nanoseconds
+     */
+    private final LongSupplier clock;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Decides which calls share a breaker
+     */
+    private final Scope scope;
+
+    /**
+     * The number of failures in a row which open a breaker
+     */
+    private volatile int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+
+    /**
+     * The number of nanoseconds a breaker stays open before a probe is let through
+     */
+    private volatile long openTime = TimeUnit.SECONDS.toNanos(DEFAULT_OPEN_TIME);
+
+    /**
+     * Creates a breaker for every endpoint in front of a new {@link HttpConnection}
+     */
+    public CircuitBreakerConnection() {
+        this(new HttpConnection());
+    }
+
+    /**
+     * Creates a breaker for every endpoint
+     * @param delegate The connection requests are made through
+     */
+    public CircuitBreakerConnection(Connection delegate) {
+        this(delegate, Scope.ENDPOINT);
+    }
+
+    /**
+     * Creates a breaker for every endpoint or host
+     * @param delegate The connection requests are made through
+     * @param scope Decides which calls share a breaker
+     */
+    public CircuitBreakerConnection(Connection delegate, Scope scope) {
+        this(delegate, scope, System::nanoTime);
+    }
+
+    CircuitBreakerConnection(Connection delegate, Scope scope, LongSupplier clock) {
+        this.delegate = delegate;
+        this.scope = scope;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets JSON data from a provided URL without checking call availability, unless its breaker is open
+     * @param urlString The URL to get JSON information from
+     * @return Reader containing Json information, which must be closed by the caller
+     * @throws IOException when a connection cannot be made
+     * @throws CircuitOpenException when the breaker of the URL is open
+     */
+    @Override
+    public Reader getJSON(String urlString) throws IOException {
+        try {
+            return guard(urlString, () -> delegate.getJSON(urlString));
+        } catch (OutOfCallsException e) {
+            // Never thrown, as call availability is not checked
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets JSON data from a provided URL after checking call availability, unless its breaker is open
+     * @param urlString The URL to get JSON information from
+     * @param type The type of API call being made
+     * @return Reader containing Json information, which must be closed by the caller
+     * @throws IOException when a connection cannot be made
+     * @throws CircuitOpenException when the breaker of the URL is open
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    @Override
+    public Reader getJSON(String urlString, CallTypes type) throws IOException, OutOfCallsException {
+        return guard(urlString, () -> delegate.getJSON(urlString, type));
+    }
+
+    /**
+     * Gets JSON data from a provided URL after checking call availability and parses it, unless its breaker is open
+     * @param urlString The URL to get JSON information from
+     * @param type The type of API call being made
+     * @param parser The parser used to read the response
+     * @param <T> The type of the parsed response
+     * @return The parsed response
+     * @throws IOException when a connection cannot be made
+     * @throws CircuitOpenException when the breaker of the URL is open
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    @Override
+    public <T> T getJSON(String urlString, CallTypes type, ResponseParser<T> parser) throws IOException, OutOfCallsException {
+        return guard(urlString, () -> delegate.getJSON(urlString, type, parser));
+    }
+
+    private <T> T guard(String urlString, Call<T> call) throws IOException, OutOfCallsException {
+        String key = key(urlString);
+        Breaker breaker = breakers.get(key);
+        if (breaker == null) {
+            breaker = breakers.computeIfAbsent(key, Breaker::new);
+        }
+
+        boolean probe = breaker.acquire();
+        try {
+            T value = call.call();
+            breaker.onSuccess();
+            return value;
+        } catch (IOException e) {
+            if (isFailure(e)) {
+                breaker.onFailure();
+            } else if (e instanceof HttpStatusException) {
+                // The server answered, so it is reachable
+                breaker.onSuccess();
+            } else {
+                breaker.release(probe);
+            }
+            throw e;
+        } catch (OutOfCallsException | RuntimeException | Error e) {
+            breaker.release(probe);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether a failure shows the server is degraded, rather than the request being refused
+     * @param e The exception a request failed with
+     * @return Whether the failure counts towards opening the breaker
+     */
+    static boolean isFailure(IOException e) {
+        if (e instanceof HttpStatusException) {
+            return ((HttpStatusException) e).getStatusCode() >= 500;
+        }
+        if (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException)) {
+            // The calling thread was interrupted
+            return false;
+        }
+        return !(e instanceof CircuitOpenException) && !(e.getCause() instanceof OutOfCallsException);
+    }
+
+    /**
+     * Gets the host of a URL, followed by its path when every endpoint has its own breaker
+     */
+    private String key(String urlString) {
+        int start = urlString.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = urlString.indexOf('/', start);
+        String host = end < 0 ? urlString.substring(start) : urlString.substring(start, end);
+        return scope == Scope.HOST ? host : host + Metrics.endpoint(urlString);
+    }
+
+    /**
+     * Gets the state of the breaker a URL is called through
+     * @param urlString The URL
+     * @return The state of the breaker, {@link State#CLOSED} if it was not called yet
+     */
+    public State getState(String urlString) {
+        Breaker breaker = breakers.get(key(urlString));
+        return breaker == null ? State.CLOSED : breaker.getState();
+    }
+
+    /**
+     * Closes every breaker
+     */
+    public void reset() {
+        breakers.clear();
+    }
+
+    /**
+     * Gets the number of times a breaker opened
+     * @return The number of times
+     */
+    public long getOpenedCount() {
+        return opened.sum();
+    }
+
+    /**
+     * Gets the number of calls which failed at once because their breaker was open
+     * @return The number of calls
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * {@link CircuitBreakerConnection#delegate}
+     */
+    public Connection getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * {@link CircuitBreakerConnection#scope}
+     */
+    public Scope getScope() {
+        return scope;
+    }
+
+    /**
+     * {@link CircuitBreakerConnection#failureThreshold}
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1");
+        }
+        this.failureThreshold = failureThreshold;
+    }
+
+    /**
+     * {@link CircuitBreakerConnection#openTime}
+     */
+    public long getOpenTime() {
+        return openTime;
+    }
+
+    /**
+     * Sets how long a breaker stays open before a probe is let through
+     * @param openTime The time a breaker stays open
+     * @param unit The unit of the provided time
+     */
+    public void setOpenTime(long openTime, TimeUnit unit) {
+        if (openTime < 0) {
+            throw new IllegalArgumentException("openTime must not be negative");
+        }
+        this.openTime = unit.toNanos(openTime);
+    }
+}
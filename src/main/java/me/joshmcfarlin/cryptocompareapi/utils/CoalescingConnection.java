@@ -0,0 +1,208 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
+
+import java.io.*;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Connection} which lets concurrent requests for the same URL share a single request
+ *
+ * The first caller for a URL makes the request and spends the API call, every caller asking for the same URL while it
+ * is in flight waits for it and receives a copy of the same response. Each caller parses its own copy, so the parsed
+ * objects are never shared between threads. The response is only copied when another caller is waiting for it, a
+ * request nobody joined hands the delegate's reader straight to its caller. Once the request completes the next call
+ * for the URL makes a new request.
+ * @author Josh McFarlin
+ */
+public class CoalescingConnection implements Connection {
+    /**
+     * The connection requests are made through
+     */
+    private final Connection delegate;
+
+    /**
+     * The requests currently in flight, keyed by URL
+     */
+    private final Map<String, Request> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * The number of requests made through the delegate
+     */
+    private final LongAdder requests = new LongAdder();
+
+    /**
+     * The number of calls which shared a request already in flight
+     */
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Creates a coalescing connection in front of a new {@link HttpConnection}
+     */
+    public CoalescingConnection() {
+        this(new HttpConnection());
+    }
+
+    /**
+     * Creates a coalescing connection
+     * @param delegate The connection requests are made through
+     */
+    public CoalescingConnection(Connection delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Gets JSON data from a provided URL without checking call availability, sharing a request already in flight
+     * @param urlString The URL to get JSON information from
+     * @return Reader containing the complete response
+     * @throws IOException when a connection cannot be made
+     */
+    @Override
+    public Reader getJSON(String urlString) throws IOException {
+        try {
+            return load(urlString, null);
+        } catch (OutOfCallsException e) {
+            // Only thrown when this call shares a checked request, which ran out of calls
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets JSON data from a provided URL, sharing a request already in flight or checking call availability otherwise
+     * @param urlString The URL to get JSON information from
+     * @param type The type of API call being made
+     * @return Reader containing the complete response
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    @Override
+    public Reader getJSON(String urlString, CallTypes type) throws IOException, OutOfCallsException {
+        return load(urlString, type);
+    }
+
+    /**
+     * Makes a request for a URL or waits for the one already in flight
+     * @param urlString The URL to request
+     * @param type The type of API call being made, or null to skip checking call availability
+     * @return Reader containing the complete response
+     */
+    private Reader load(String urlString, CallTypes type) throws IOException, OutOfCallsException {
+        while (true) {
+            Request request = new Request();
+            Request existing = inFlight.putIfAbsent(urlString, request);
+            if (existing != null) {
+                if (!existing.join()) {
+                    // The request already has its response and is leaving the map, so make a new one
+                    inFlight.remove(urlString, existing);
+                    continue;
+                }
+                coalesced.increment();
+                return new StringReader(await(existing.body));
+            }
+
+            requests.increment();
+            try {
+                Reader r = type == null ? delegate.getJSON(urlString) : delegate.getJSON(urlString, type);
+                inFlight.remove(urlString, request);
+                if (!request.close()) {
+                    return r;
+                }
+
+                String body;
+                try (Reader in = r) {
+                    body = readFully(in);
+                }
+                request.body.complete(body);
+                return new StringReader(body);
+            } catch (Throwable t) {
+                request.close();
+                request.body.completeExceptionally(t);
+                throw t;
+            } finally {
+                inFlight.remove(urlString, request);
+            }
+        }
+    }
+
+    /**
+     * Waits for a request made by another caller, rethrowing the exception it failed with
+     */
+    private static String await(CompletableFuture<String> call) throws IOException, OutOfCallsException {
+        try {
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a shared request");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof OutOfCallsException) throw (OutOfCallsException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * A request in flight, which callers can join until its response arrives
+     */
+    private static final class Request {
+        private final CompletableFuture<String> body = new CompletableFuture<>();
+        private int waiters;
+        private boolean closed;
+
+        /**
+         * Registers a caller waiting for the response
+         * @return False when the response already arrived and is not shared anymore
+         */
+        synchronized boolean join() {
+            if (closed) return false;
+            waiters++;
+            return true;
+        }
+
+        /**
+         * Stops callers from joining
+         * @return Whether any caller joined and needs a copy of the response
+         */
+        synchronized boolean close() {
+            closed = true;
+            return waiters > 0;
+        }
+    }
+
+    private static String readFully(Reader r) throws IOException {
+        StringBuilder body = new StringBuilder(8192);
+        char[] buffer = new char[8192];
+        int read;
+        while ((read = r.read(buffer)) != -1) {
+            body.append(buffer, 0, read);
+        }
+        return body.toString();
+    }
+
+    /**
+     * {@link CoalescingConnection#delegate}
+     */
+    public Connection getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * {@link CoalescingConnection#requests}
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * {@link CoalescingConnection#coalesced}
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+}
@@ -3,44 +3,58 @@ package me.joshmcfarlin.cryptocompareapi.utils;
 import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
 
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
 
 /**
- * Contains methods for creating JSON GET requests
+ * Represents a transport used for creating JSON GET requests
  * @author Josh McFarlin
  */
-public class Connection {
+public interface Connection {
     /**
      * Gets JSON data from a provided URL without checking call availability
      * @param urlString The URL to get JSON information from
-     * @return Reader containing Json information
+     * @return Reader containing Json information, which must be closed by the caller
      * @throws IOException when a connection cannot be made
      */
-    public static Reader getJSON(String urlString) throws IOException {
-        URL url = new URL(urlString);
-
-        HttpURLConnection response = (HttpURLConnection) url.openConnection();
-        response.setDoOutput(true);
-        response.setRequestMethod("GET");
-        response.connect();
-
-        return new InputStreamReader(new BufferedInputStream(response.getInputStream()));
-    }
+    Reader getJSON(String urlString) throws IOException;
 
     /**
      * Gets JSON data from a provided URL after checking call availability
      * @param urlString The URL to get JSON information from
      * @param type The type of API call being made
-     * @return Reader containing Json information
+     * @return Reader containing Json information, which must be closed by the caller
      * @throws IOException when a connection cannot be made
      * @throws OutOfCallsException when no more API calls are available
      */
-    public static Reader getJSON(String urlString, CallTypes type) throws IOException, OutOfCallsException {
+    default Reader getJSON(String urlString, CallTypes type) throws IOException, OutOfCallsException {
         if (RateLimiting.callable(type)) {
             return getJSON(urlString);
         } else {
             throw new OutOfCallsException(String.format("No more %s calls are left, please try later.", type));
         }
     }
+
+    /**
+     * Gets JSON data from a provided URL after checking call availability and parses it, closing the response afterwards
+     *
+     * The parser is timed by a flight recorder event, which costs next to nothing unless a recording enables it.
+     * @param urlString The URL to get JSON information from
+     * @param type The type of API call being made
+     * @param parser The parser used to read the response
+     * @param <T> The type of the parsed response
+     * @return The parsed response
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    default <T> T getJSON(String urlString, CallTypes type, ResponseParser<T> parser) throws IOException, OutOfCallsException {
+        try (Reader r = getJSON(urlString, type)) {
+            ApiParseEvent event = Jfr.AVAILABLE ? ApiParseEvent.start() : null;
+            T value = null;
+            try {
+                value = parser.parse(r);
+                return value;
+            } finally {
+                if (event != null) event.finish(urlString, type, value);
+            }
+        }
+    }
 }
@@ -0,0 +1,337 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.ConnectTimeoutException;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.HttpStatusException;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The default {@link Connection}, which makes keep-alive HTTP requests with a limited number of connections per host
+ *
+ * Every response body is read completely and closed before it is handed to the caller, which lets the JDK return the
+ * socket to its keep-alive pool instead of opening a new connection and TLS session for the next request. The number
+ * of idle sockets kept per host is controlled by the JDK's {@code http.maxConnections} system property.
+ *
+ * Requests to the CryptoCompare hosts can be sent to another server, such as a {@link MockServer}, by setting a base
+ * URL, which defaults to the {@code cryptocompare.baseUrl} system property.
+ *
+ * When {@link Metrics} are set, the time taken to connect, to receive the response status and to read the body is
+ * recorded for every request, along with the number of bytes received. Every request is also a flight recorder event,
+ * which costs next to nothing unless a recording enables it.
+ * @author Josh McFarlin
+ */
+public class HttpConnection implements Connection {
+    /**
+     * The default number of milliseconds to wait for a connection to be made
+     */
+    public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+
+    /**
+     * The default number of milliseconds to wait for data to be read
+     */
+    public static final int DEFAULT_READ_TIMEOUT = 30000;
+
+    /**
+     * The default number of requests which can be in flight to a single host at once
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 16;
+
+    /**
+     * The system property holding the default base URL
+     */
+    public static final String BASE_URL_PROPERTY = "cryptocompare.baseUrl";
+
+    /**
+     * The start of every URL requested by the API, replaced by the base URL when one is set
+     */
+    private static final String[] ORIGINS = {"https://min-api.cryptocompare.com", "https://www.cryptocompare.com"};
+
+    /**
+     * The number of milliseconds to wait for a connection to be made
+     */
+    private volatile int connectTimeout;
+
+    /**
+     * The number of milliseconds to wait for data to be read
+     */
+    private volatile int readTimeout;
+
+    /**
+     * The number of requests which can be in flight to a single host at once
+     */
+    private final int maxConnectionsPerHost;
+
+    /**
+     * Permits limiting the number of requests in flight for each host
+     */
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    /**
+     * The scheme, host and port requests to the CryptoCompare hosts are sent to instead, null to send them unchanged
+     */
+    private volatile String baseUrl;
+
+    /**
+     * Receives the timings and sizes of every request
+     */
+    private volatile Metrics metrics = Metrics.NONE;
+
+    /**
+     * Creates a connection with the default timeouts and connection limit
+     */
+    public HttpConnection() {
+        this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT, DEFAULT_MAX_CONNECTIONS_PER_HOST);
+    }
+
+    /**
+     * Creates a connection
+     * @param connectTimeout The number of milliseconds to wait for a connection to be made, 0 waits forever
+     * @param readTimeout The number of milliseconds to wait for data to be read, 0 waits forever
+     * @param maxConnectionsPerHost The number of requests which can be in flight to a single host at once
+     */
+    public HttpConnection(int connectTimeout, int readTimeout, int maxConnectionsPerHost) {
+        if (maxConnectionsPerHost < 1) {
+            throw new IllegalArgumentException("maxConnectionsPerHost must be at least 1");
+        }
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        setBaseUrl(System.getProperty(BASE_URL_PROPERTY));
+    }
+
+    /**
+     * Gets JSON data from a provided URL without checking call availability
+     * @param urlString The URL to get JSON information from
+     * @return Reader containing the complete response, the underlying connection is already released
+     * @throws IOException when a connection cannot be made or the server returns an unsuccessful status
+     */
+    @Override
+    public Reader getJSON(String urlString) throws IOException {
+        return get(urlString, CallTypes.OTHER);
+    }
+
+    /**
+     * Gets JSON data from a provided URL after checking call availability
+     * @param urlString The URL to get JSON information from
+     * @param type The type of API call being made, which its metrics are recorded for
+     * @return Reader containing the complete response, the underlying connection is already released
+     * @throws IOException when a connection cannot be made or the server returns an unsuccessful status
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    @Override
+    public Reader getJSON(String urlString, CallTypes type) throws IOException, OutOfCallsException {
+        if (RateLimiting.callable(type)) {
+            return get(urlString, type);
+        } else {
+            throw new OutOfCallsException(String.format("No more %s calls are left, please try later.", type));
+        }
+    }
+
+    private Reader get(String urlString, CallTypes type) throws IOException {
+        ApiRequestEvent event = Jfr.AVAILABLE ? ApiRequestEvent.start() : null;
+        try {
+            URL url = new URL(rebase(urlString));
+            Semaphore permits = hostPermits.computeIfAbsent(url.getHost(), host -> new Semaphore(maxConnectionsPerHost, true));
+
+            long waitStart = System.nanoTime();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a connection to " + url.getHost());
+            }
+            if (event != null) event.connectionWait = System.nanoTime() - waitStart;
+
+            try {
+                byte[] body = request(url, type, event);
+                return new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+            } finally {
+                permits.release();
+            }
+        } finally {
+            if (event != null) event.finish(urlString, type);
+        }
+    }
+
+    /**
+     * Replaces the CryptoCompare origin of a URL with the base URL
+     */
+    private String rebase(String urlString) {
+        String base = baseUrl;
+        if (base == null) return urlString;
+
+        for (String origin : ORIGINS) {
+            if (urlString.startsWith(origin)) {
+                return base + urlString.substring(origin.length());
+            }
+        }
+        return urlString;
+    }
+
+    /**
+     * Makes a GET request and reads the complete response body
+     * @param url The URL to request
+     * @param type The type of API call being made
+     * @param event The flight recorder event of the request, null when flight recording is not available
+     * @return The response body
+     * @throws IOException when a connection cannot be made or the server returns an unsuccessful status
+     */
+    private byte[] request(URL url, CallTypes type, ApiRequestEvent event) throws IOException {
+        Metrics metrics = this.metrics;
+        String endpoint = metrics == Metrics.NONE ? null : url.getPath();
+
+        HttpURLConnection response = (HttpURLConnection) url.openConnection();
+        response.setRequestMethod("GET");
+        response.setConnectTimeout(connectTimeout);
+        response.setReadTimeout(readTimeout);
+        response.setUseCaches(false);
+        response.setRequestProperty("Accept", "application/json");
+        response.setRequestProperty("Accept-Encoding", "gzip");
+
+        long start = System.nanoTime();
+        int status;
+        try {
+            try {
+                response.connect();
+            } catch (SocketTimeoutException e) {
+                // Marked so it can be told apart from a read timeout, after which the request may have been handled
+                throw new ConnectTimeoutException("Timed out connecting to " + url.getHost(), e);
+            }
+            long connected = System.nanoTime();
+            if (endpoint != null) metrics.recordLatency(endpoint, type, Metrics.Phase.CONNECT, connected - start);
+
+            status = response.getResponseCode();
+            start = System.nanoTime();
+            if (endpoint != null) metrics.recordLatency(endpoint, type, Metrics.Phase.FIRST_BYTE, start - connected);
+            if (event != null) event.status = status;
+        } catch (IOException e) {
+            // The socket is in an unknown state, so make sure it is not put back into the pool
+            response.disconnect();
+            throw e;
+        }
+
+        if (status >= 400) {
+            // Draining the error body lets the socket be reused
+            drain(response.getErrorStream());
+            throw new HttpStatusException(String.format("Server returned HTTP %d for %s", status, url), status);
+        }
+
+        InputStream in = response.getInputStream();
+        if ("gzip".equalsIgnoreCase(response.getContentEncoding())) {
+            in = new GZIPInputStream(in);
+        }
+
+        byte[] body;
+        try (InputStream stream = in) {
+            body = readFully(stream, response.getContentLength());
+        }
+
+        // The length on the wire when the server sent it, which is smaller than the body if it was compressed
+        long length = response.getContentLengthLong();
+        if (length < 0) length = body.length;
+        if (endpoint != null) {
+            metrics.recordLatency(endpoint, type, Metrics.Phase.READ, System.nanoTime() - start);
+            metrics.recordBytes(endpoint, type, length);
+        }
+        if (event != null) event.bytes = length;
+        return body;
+    }
+
+    /**
+     * Reads a stream until it ends
+     * @param in The stream to read
+     * @param lengthHint The expected length of the stream, or a negative number if unknown
+     * @return The bytes read from the stream
+     * @throws IOException when the stream cannot be read
+     */
+    private static byte[] readFully(InputStream in, int lengthHint) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(lengthHint > 0 ? lengthHint : 8192);
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads and discards a stream, then closes it
+     * @param in The stream to drain, may be null
+     */
+    private static void drain(InputStream in) {
+        if (in == null) return;
+
+        try (InputStream body = in) {
+            byte[] buffer = new byte[1024];
+            while (body.read(buffer) != -1) {
+                // Discard
+            }
+        } catch (IOException ignored) {
+            // The request has already failed, the original status is more useful to the caller
+        }
+    }
+
+    /**
+     * {@link HttpConnection#connectTimeout}
+     */
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * {@link HttpConnection#readTimeout}
+     */
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * {@link HttpConnection#baseUrl}
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Sends requests to the CryptoCompare hosts to another server
+     * @param baseUrl The scheme, host and port of the server such as http://localhost:8080, null to use CryptoCompare
+     */
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl == null || !baseUrl.endsWith("/") ? baseUrl : baseUrl.substring(0, baseUrl.length() - 1);
+    }
+
+    /**
+     * {@link HttpConnection#metrics}
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics == null ? Metrics.NONE : metrics;
+    }
+
+    /**
+     * {@link HttpConnection#maxConnectionsPerHost}
+     */
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+}
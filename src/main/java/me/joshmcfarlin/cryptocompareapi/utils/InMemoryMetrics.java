@@ -0,0 +1,378 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link Metrics} kept in memory, for each endpoint and for each {@link CallTypes}
+ *
+ * Every measurement only increments {@link LongAdder}s, which spread contended updates over several cells, so
+ * recording does not allocate once an endpoint has been seen and threads making calls at once rarely contend. Latencies
+ * are kept in histograms with four buckets for every power of two, so percentiles are accurate to within 25%. The
+ * number of calls left in each interval is read from {@link RateLimiting} when asked for.
+ * @author Josh McFarlin
+ */
+public class InMemoryMetrics implements Metrics {
+    /**
+     * The measurements of every endpoint seen, keyed by its path
+     */
+    private final ConcurrentMap<String, Stats> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * The measurements of every call type
+     */
+    private final Map<CallTypes, Stats> types = new EnumMap<>(CallTypes.class);
+
+    /**
+     * Creates empty metrics
+     */
+    public InMemoryMetrics() {
+        for (CallTypes type : CallTypes.values()) {
+            types.put(type, new Stats());
+        }
+    }
+
+    @Override
+    public void recordLatency(String endpoint, CallTypes type, Phase phase, long nanos) {
+        endpoint(endpoint).latencies[phase.ordinal()].record(nanos);
+        type(type).latencies[phase.ordinal()].record(nanos);
+    }
+
+    @Override
+    public void recordBytes(String endpoint, CallTypes type, long bytes) {
+        endpoint(endpoint).bytes.add(bytes);
+        type(type).bytes.add(bytes);
+    }
+
+    @Override
+    public void recordCacheAccess(String endpoint, boolean hit) {
+        Stats stats = endpoint(endpoint);
+        (hit ? stats.cacheHits : stats.cacheMisses).increment();
+    }
+
+    @Override
+    public void recordRetry(String endpoint, CallTypes type) {
+        endpoint(endpoint).retries.increment();
+        type(type).retries.increment();
+    }
+
+    @Override
+    public void recordFailure(String endpoint, CallTypes type, boolean throttled) {
+        Stats endpointStats = endpoint(endpoint);
+        Stats typeStats = type(type);
+        endpointStats.failures.increment();
+        typeStats.failures.increment();
+        if (throttled) {
+            endpointStats.throttled.increment();
+            typeStats.throttled.increment();
+        }
+    }
+
+    private Stats endpoint(String endpoint) {
+        Stats stats = endpoints.get(endpoint);
+        return stats != null ? stats : endpoints.computeIfAbsent(endpoint, e -> new Stats());
+    }
+
+    private Stats type(CallTypes type) {
+        return types.get(type == null ? CallTypes.OTHER : type);
+    }
+
+    /**
+     * Gets the endpoints which have measurements
+     * @return The paths of the endpoints, sorted
+     */
+    public Set<String> getEndpoints() {
+        return Collections.unmodifiableSet(new TreeSet<>(endpoints.keySet()));
+    }
+
+    /**
+     * Gets the measurements of an endpoint
+     * @param endpoint The path of the endpoint, such as "/data/pricemultifull"
+     * @return The measurements, which are empty if the endpoint was not called
+     */
+    public Stats getStats(String endpoint) {
+        Stats stats = endpoints.get(endpoint);
+        return stats != null ? stats : new Stats();
+    }
+
+    /**
+     * Gets the measurements of a call type
+     * @param type The type of call
+     * @return The measurements
+     */
+    public Stats getStats(CallTypes type) {
+        return type(type);
+    }
+
+    /**
+     * Gets the locally estimated number of calls left for a call type in an interval
+     * @param type The API call type to be checked
+     * @param interval The interval to be checked
+     * @return The estimated number of calls left, or {@link Long#MAX_VALUE} if the call type is not limited
+     * @see RateLimiting#getCallsLeft(CallTypes, IntervalTypes)
+     */
+    public long getCallsLeft(CallTypes type, IntervalTypes interval) {
+        return RateLimiting.getCallsLeft(type, interval);
+    }
+
+    /**
+     * Forgets every measurement
+     */
+    public void reset() {
+        endpoints.clear();
+        for (CallTypes type : CallTypes.values()) {
+            types.get(type).reset();
+        }
+    }
+
+    /**
+     * Describes the measurements of every endpoint and the calls left, one line each
+     * @return The report
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (String endpoint : getEndpoints()) {
+            builder.append(endpoint).append(' ').append(endpoints.get(endpoint)).append('\n');
+        }
+        for (CallTypes type : CallTypes.values()) {
+            builder.append(type).append(" calls left:");
+            for (IntervalTypes interval : IntervalTypes.values()) {
+                long left = getCallsLeft(type, interval);
+                builder.append(' ').append(interval).append('=').append(left == Long.MAX_VALUE ? "unlimited" : left);
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The measurements of an endpoint or call type
+     */
+    public static class Stats {
+        private final Histogram[] latencies = new Histogram[Phase.values().length];
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder cacheMisses = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+
+        Stats() {
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new Histogram();
+            }
+        }
+
+        /**
+         * Gets the latencies measured for a part of the calls
+         * @param phase The part of the calls
+         * @return The histogram of latencies
+         */
+        public Histogram getLatency(Phase phase) {
+            return latencies[phase.ordinal()];
+        }
+
+        /**
+         * Gets the number of bytes received
+         * @return The number of bytes
+         */
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        /**
+         * Gets the number of calls answered from a cache
+         * @return The number of cache hits
+         */
+        public long getCacheHits() {
+            return cacheHits.sum();
+        }
+
+        /**
+         * Gets the number of calls a cache could not answer
+         * @return The number of cache misses
+         */
+        public long getCacheMisses() {
+            return cacheMisses.sum();
+        }
+
+        /**
+         * Gets the share of cached calls which were answered from the cache
+         * @return The hit rate between 0 and 1, or 0 if there were no cached calls
+         */
+        public double getCacheHitRate() {
+            long hits = getCacheHits();
+            long total = hits + getCacheMisses();
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        /**
+         * Gets the number of calls made again after failing
+         * @return The number of retries
+         */
+        public long getRetries() {
+            return retries.sum();
+        }
+
+        /**
+         * Gets the number of calls which failed
+         * @return The number of failures, including throttled calls
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /**
+         * Gets the number of calls which failed because a rate limit was reached
+         * @return The number of throttled calls
+         */
+        public long getThrottled() {
+            return throttled.sum();
+        }
+
+        private void reset() {
+            for (Histogram histogram : latencies) {
+                histogram.reset();
+            }
+            bytes.reset();
+            cacheHits.reset();
+            cacheMisses.reset();
+            retries.reset();
+            failures.reset();
+            throttled.reset();
+        }
+
+        @Override
+        public String toString() {
+            Histogram total = getLatency(Phase.TOTAL);
+            return String.format("calls=%d p50=%.1fms p99=%.1fms bytes=%d hitRate=%.2f retries=%d failures=%d throttled=%d",
+                    total.getCount(), toMillis(total.getPercentile(0.5)), toMillis(total.getPercentile(0.99)),
+                    getBytes(), getCacheHitRate(), getRetries(), getFailures(), getThrottled());
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+    /**
+     * A histogram of latencies in nanoseconds, with four buckets for every power of two
+     */
+    public static class Histogram {
+        /**
+         * The number of buckets, enough for latencies up to 2^48 nanoseconds or about three days
+         */
+        private static final int BUCKETS = 4 * 47;
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        Histogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Records a latency
+         * @param nanos The latency in nanoseconds, negative values are counted as 0
+         */
+        public void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets[bucket(value)].increment();
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        /**
+         * Gets the bucket holding a value, values below 4 have their own bucket
+         */
+        static int bucket(long value) {
+            if (value < 4) return (int) value;
+
+            int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), 47);
+            int sub = exponent == 47 && value >= 1L << 48 ? 3 : (int) (value >>> (exponent - 2)) & 3;
+            return 4 * (exponent - 1) + sub;
+        }
+
+        /**
+         * Gets the largest value held by a bucket
+         */
+        static long upperBound(int bucket) {
+            if (bucket < 4) return bucket;
+
+            int exponent = bucket / 4 + 1;
+            int sub = bucket % 4;
+            return ((5L + sub) << (exponent - 2)) - 1;
+        }
+
+        /**
+         * Gets the number of latencies recorded
+         * @return The count
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Gets the mean latency
+         * @return The mean in nanoseconds, or 0 if none were recorded
+         */
+        public double getMean() {
+            long n = getCount();
+            return n == 0 ? 0 : (double) sum.sum() / n;
+        }
+
+        /**
+         * Gets the largest latency recorded
+         * @return The maximum in nanoseconds
+         */
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * Gets an estimate of a percentile, which is at most 25% above the real value
+         * @param quantile The quantile between 0 and 1, such as 0.99
+         * @return The upper bound of the bucket holding the percentile in nanoseconds, or 0 if none were recorded
+         */
+        public long getPercentile(double quantile) {
+            if (quantile < 0 || quantile > 1) {
+                throw new IllegalArgumentException("quantile must be between 0 and 1");
+            }
+
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            if (total == 0) return 0;
+
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(upperBound(i), getMax());
+            }
+            return getMax();
+        }
+
+        private void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            count.reset();
+            sum.reset();
+            max.reset();
+        }
+    }
+}
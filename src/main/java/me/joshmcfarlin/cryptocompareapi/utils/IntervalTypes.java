@@ -1,17 +1,40 @@
 package me.joshmcfarlin.cryptocompareapi.utils;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Represents all available API call intervals
  * @author Josh McFarlin
  */
 public enum IntervalTypes {
-    SECOND("Second"),
-    MINUTE("Minute"),
-    HOUR("Hour");
+    SECOND("Second", 1),
+    MINUTE("Minute", 60),
+    HOUR("Hour", 3600);
 
     String apiName;
 
-    IntervalTypes(String apiName) {
+    /**
+     * The length of the interval in seconds
+     */
+    private long seconds;
+
+    IntervalTypes(String apiName, long seconds) {
         this.apiName = apiName;
+        this.seconds = seconds;
+    }
+
+    /**
+     * {@link IntervalTypes#seconds}
+     */
+    public long getSeconds() {
+        return seconds;
+    }
+
+    /**
+     * Gets the length of the interval in nanoseconds
+     * @return The length of the interval in nanoseconds
+     */
+    public long getNanos() {
+        return TimeUnit.SECONDS.toNanos(seconds);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+/**
+ * Guards the Java Flight Recorder events, which are only created when the running JVM has {@code jdk.jfr}
+ *
+ * The event classes extend {@code jdk.jfr.Event}, so they must not be loaded on a JVM without it. Code creating an
+ * event checks {@link Jfr#AVAILABLE} first and keeps it in a variable of the event's own type, which is null otherwise.
+ * @author Josh McFarlin
+ */
+final class Jfr {
+    /**
+     * Whether the running JVM supports Java Flight Recorder events
+     */
+    static final boolean AVAILABLE = isAvailable();
+
+    private Jfr() {
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, Jfr.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets a URL without its origin and with the value of every query parameter replaced, so calls can be grouped
+     * @param urlString The URL
+     * @return The template, such as {@code /data/price?fsym={}&tsyms={}}
+     */
+    static String template(String urlString) {
+        String endpoint = Metrics.endpoint(urlString);
+        int query = urlString.indexOf('?');
+        if (query < 0) return endpoint;
+
+        StringBuilder template = new StringBuilder(endpoint).append('?');
+        for (String param : urlString.substring(query + 1).split("&")) {
+            if (param.isEmpty()) continue;
+            if (template.charAt(template.length() - 1) != '?') template.append('&');
+
+            int equals = param.indexOf('=');
+            template.append(equals < 0 ? param : param.substring(0, equals)).append("={}");
+        }
+        return template.toString();
+    }
+}
@@ -0,0 +1,138 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+/**
+ * Contains the Gson instance shared by the API and helpers for parsing responses with it
+ * @author Josh McFarlin
+ */
+public class Json {
+    /**
+     * The shared Gson instance, which caches the adapter of every type it has parsed
+     */
+    private static final Gson gson = new GsonBuilder().create();
+
+    /**
+     * {@link Json#gson}
+     */
+    public static Gson getGson() {
+        return gson;
+    }
+
+    /**
+     * Creates a parser which reads a complete response into the provided type
+     * @param type The type to parse the response into
+     * @param <T> The type of the parsed response
+     * @return A parser using the shared Gson instance
+     */
+    public static <T> ResponseParser<T> parser(Class<T> type) {
+        return ResponseParser.keyed(type, r -> gson.fromJson(r, type));
+    }
+
+    /**
+     * Creates a parser which reads a complete response into the provided type
+     * @param type The type to parse the response into
+     * @param <T> The type of the parsed response
+     * @return A parser using the shared Gson instance
+     */
+    public static <T> ResponseParser<T> parser(Type type) {
+        return ResponseParser.keyed(type, r -> gson.fromJson(r, type));
+    }
+
+    /**
+     * Creates a parser which only reads a single top level field of a response, skipping over the others
+     * @param field The name of the field to read
+     * @param type The type to parse the field into
+     * @param <T> The type of the parsed field
+     * @return A parser using the shared Gson instance, which returns null if the field is missing
+     */
+    public static <T> ResponseParser<T> fieldParser(String field, Type type) {
+        return ResponseParser.keyed(Arrays.asList(field, type), r -> {
+            JsonReader in = gson.newJsonReader(r);
+            in.beginObject();
+            while (in.hasNext()) {
+                if (field.equals(in.nextName())) {
+                    return gson.fromJson(in, type);
+                }
+                in.skipValue();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Reads a string, accepting numbers and booleans as well
+     * @param in The reader to read from
+     * @return The value read, or null if the value was null
+     * @throws IOException when the value cannot be read
+     */
+    public static String nextString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        } else if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Reads a double, accepting numbers written as strings
+     * @param in The reader to read from
+     * @return The value read, or 0 if the value was null or empty
+     * @throws IOException when the value cannot be read
+     */
+    public static double nextDouble(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NUMBER) {
+            return in.nextDouble();
+        }
+
+        String value = nextString(in);
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Reads an int, accepting numbers written as strings
+     * @param in The reader to read from
+     * @return The value read, or 0 if the value was null or empty
+     * @throws IOException when the value cannot be read
+     */
+    public static int nextInt(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NUMBER) {
+            // Timestamps and ids are sometimes sent as 123.0
+            return (int) in.nextDouble();
+        }
+        return (int) nextDouble(in);
+    }
+
+    /**
+     * Reads a boolean, accepting booleans written as strings
+     * @param in The reader to read from
+     * @return The value read, or false if the value was null
+     * @throws IOException when the value cannot be read
+     */
+    public static boolean nextBoolean(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.BOOLEAN) {
+            return in.nextBoolean();
+        }
+        return Boolean.parseBoolean(nextString(in));
+    }
+}
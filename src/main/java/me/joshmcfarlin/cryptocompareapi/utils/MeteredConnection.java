@@ -0,0 +1,133 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.HttpStatusException;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A {@link Connection} which records the total time of every call, the time spent parsing and every failure
+ *
+ * It is meant to be the outermost connection, so the time it records includes answers from a cache and waiting for
+ * requests shared with other callers. The parser is timed wherever the chain of connections runs it. Calls which only
+ * return a Reader are timed until the Reader is returned, as the caller parses it afterwards.
+ * @author Josh McFarlin
+ */
+public class MeteredConnection implements Connection {
+    /**
+     * The connection requests are made through
+     */
+    private final Connection delegate;
+
+    /**
+     * Receives the measurements
+     */
+    private final Metrics metrics;
+
+    /**
+     * Creates a metered connection
+     * @param delegate The connection requests are made through
+     * @param metrics Receives the measurements
+     */
+    public MeteredConnection(Connection delegate, Metrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets JSON data from a provided URL without checking call availability
+     * @param urlString The URL to get JSON information from
+     * @return Reader containing Json information, which must be closed by the caller
+     * @throws IOException when a connection cannot be made
+     */
+    @Override
+    public Reader getJSON(String urlString) throws IOException {
+        String endpoint = Metrics.endpoint(urlString);
+        long start = System.nanoTime();
+        try {
+            Reader reader = delegate.getJSON(urlString);
+            metrics.recordLatency(endpoint, CallTypes.OTHER, Metrics.Phase.TOTAL, System.nanoTime() - start);
+            return reader;
+        } catch (IOException | RuntimeException e) {
+            metrics.recordFailure(endpoint, CallTypes.OTHER, isThrottled(e));
+            throw e;
+        }
+    }
+
+    /**
+     * Gets JSON data from a provided URL after checking call availability
+     * @param urlString The URL to get JSON information from
+     * @param type The type of API call being made
+     * @return Reader containing Json information, which must be closed by the caller
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    @Override
+    public Reader getJSON(String urlString, CallTypes type) throws IOException, OutOfCallsException {
+        String endpoint = Metrics.endpoint(urlString);
+        long start = System.nanoTime();
+        try {
+            Reader reader = delegate.getJSON(urlString, type);
+            metrics.recordLatency(endpoint, type, Metrics.Phase.TOTAL, System.nanoTime() - start);
+            return reader;
+        } catch (IOException | OutOfCallsException | RuntimeException e) {
+            metrics.recordFailure(endpoint, type, isThrottled(e));
+            throw e;
+        }
+    }
+
+    /**
+     * Gets JSON data from a provided URL after checking call availability and parses it, timing the parser
+     * @param urlString The URL to get JSON information from
+     * @param type The type of API call being made
+     * @param parser The parser used to read the response
+     * @param <T> The type of the parsed response
+     * @return The parsed response
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    @Override
+    public <T> T getJSON(String urlString, CallTypes type, ResponseParser<T> parser) throws IOException, OutOfCallsException {
+        String endpoint = Metrics.endpoint(urlString);
+        long start = System.nanoTime();
+        try {
+            // Keeps the key of the wrapped parser, so a cache below keeps telling parsers apart
+            T value = delegate.getJSON(urlString, type, ResponseParser.keyed(parser.getKey(), reader -> {
+                long parseStart = System.nanoTime();
+                try {
+                    return parser.parse(reader);
+                } finally {
+                    metrics.recordLatency(endpoint, type, Metrics.Phase.PARSE, System.nanoTime() - parseStart);
+                }
+            }));
+            metrics.recordLatency(endpoint, type, Metrics.Phase.TOTAL, System.nanoTime() - start);
+            return value;
+        } catch (IOException | OutOfCallsException | RuntimeException e) {
+            metrics.recordFailure(endpoint, type, isThrottled(e));
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether a call failed because a rate limit was reached, locally or on the server
+     */
+    static boolean isThrottled(Exception e) {
+        return e instanceof OutOfCallsException || e.getCause() instanceof OutOfCallsException
+                || e instanceof HttpStatusException && ((HttpStatusException) e).getStatusCode() == 429;
+    }
+
+    /**
+     * {@link MeteredConnection#delegate}
+     */
+    public Connection getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * {@link MeteredConnection#metrics}
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,105 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+/**
+ * Receives measurements of the calls made by the API, every method does nothing by default
+ *
+ * Implementations are called on the thread making the call, so they should be quick and must not throw. Endpoints are
+ * identified by the path of their URL, as returned by {@link Metrics#endpoint(String)}. Measurements are made by
+ * {@link MeteredConnection}, {@link HttpConnection} and {@link CachingConnection} once a Metrics object is set on them.
+ * @see InMemoryMetrics
+ * @author Josh McFarlin
+ */
+public interface Metrics {
+    /**
+     * Metrics which ignore every measurement
+     */
+    Metrics NONE = new Metrics() {};
+
+    /**
+     * The part of a call a latency was measured for
+     */
+    enum Phase {
+        /**
+         * Opening the connection, close to 0 when a kept alive socket is reused
+         */
+        CONNECT,
+
+        /**
+         * From sending the request until the response status arrived
+         */
+        FIRST_BYTE,
+
+        /**
+         * Reading the response body
+         */
+        READ,
+
+        /**
+         * Parsing the response body
+         */
+        PARSE,
+
+        /**
+         * The whole call, including waiting for other requests and answers from a cache
+         */
+        TOTAL
+    }
+
+    /**
+     * Records how long a part of a call took
+     * @param endpoint The path of the URL called
+     * @param type The type of the call
+     * @param phase The part of the call measured
+     * @param nanos The number of nanoseconds it took
+     */
+    default void recordLatency(String endpoint, CallTypes type, Phase phase, long nanos) {
+    }
+
+    /**
+     * Records the size of a response
+     * @param endpoint The path of the URL called
+     * @param type The type of the call
+     * @param bytes The number of bytes received
+     */
+    default void recordBytes(String endpoint, CallTypes type, long bytes) {
+    }
+
+    /**
+     * Records whether a call was answered from a cache
+     * @param endpoint The path of the URL called
+     * @param hit Whether a cached response was used
+     */
+    default void recordCacheAccess(String endpoint, boolean hit) {
+    }
+
+    /**
+     * Records a call which is made again after failing
+     * @param endpoint The path of the URL called
+     * @param type The type of the call
+     */
+    default void recordRetry(String endpoint, CallTypes type) {
+    }
+
+    /**
+     * Records a call which failed
+     * @param endpoint The path of the URL called
+     * @param type The type of the call
+     * @param throttled Whether it failed because a rate limit was reached, locally or on the server
+     */
+    default void recordFailure(String endpoint, CallTypes type, boolean throttled) {
+    }
+
+    /**
+     * Gets the path of a URL without its scheme, host and query
+     * @param urlString The URL
+     * @return The path, such as "/data/pricemultifull"
+     */
+    static String endpoint(String urlString) {
+        int start = urlString.indexOf("://");
+        start = start < 0 ? 0 : urlString.indexOf('/', start + 3);
+        if (start < 0) return "/";
+
+        int end = urlString.indexOf('?', start);
+        return end < 0 ? urlString.substring(start) : urlString.substring(start, end);
+    }
+}
@@ -0,0 +1,580 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A local stand-in for the CryptoCompare API, for testing without network access or under load
+ *
+ * Every endpoint used by the API is answered with a small generated response, prices and candles follow the symbols
+ * and limits of the request. Any endpoint can be answered with a recorded fixture instead. Latency, server errors and
+ * throttling can be injected, and per-interval rate limits are enforced and reported by /stats/rate/limit like the real
+ * service does. Point an {@link HttpConnection} at it with {@link HttpConnection#setBaseUrl(String)} or the
+ * {@code cryptocompare.baseUrl} system property:
+ * <pre>
+ * try (MockServer server = new MockServer().start()) {
+ *     HttpConnection connection = new HttpConnection();
+ *     connection.setBaseUrl(server.getBaseUrl());
+ *     CryptoCompareAPI api = new CryptoCompareAPI(connection);
+ * }
+ * </pre>
+ * @author Josh McFarlin
+ */
+public class MockServer implements Closeable {
+    /**
+     * Creates the body of a response
+     */
+    public interface Responder {
+        /**
+         * Creates a response body for a request
+         * @param path The path of the request
+         * @param params The decoded query parameters of the request
+         * @return The JSON body
+         */
+        String respond(String path, Map<String, String> params);
+    }
+
+    /**
+     * The body of a response to a throttled call, as sent by CryptoCompare
+     */
+    private static final String THROTTLED = "{\"Response\":\"Error\",\"Message\":\"Rate limit excedeed!\",\"HasWarning\":false,"
+            + "\"Type\":99,\"RateLimit\":{},\"Data\":{}}";
+
+    /**
+     * The responders keyed by path prefix, the one with the longest matching prefix is used
+     */
+    private final TreeMap<String, Responder> routes = new TreeMap<>();
+
+    /**
+     * The maximum number of calls of each type in each interval, missing for an unlimited interval
+     */
+    private final Map<IntervalTypes, Integer> limits = new EnumMap<>(IntervalTypes.class);
+
+    /**
+     * The calls made in the current window of every type and interval
+     */
+    private final Map<CallTypes, Map<IntervalTypes, long[]>> windows = new EnumMap<>(CallTypes.class);
+
+    private final InetSocketAddress address;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private volatile long minLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile double errorRate;
+    private volatile double throttleRate;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    /**
+     * Creates a server on a free port of the loopback address
+     */
+    public MockServer() {
+        this(0);
+    }
+
+    /**
+     * Creates a server on the loopback address
+     * @param port The port to listen on, 0 for a free one
+     */
+    public MockServer(int port) {
+        this.address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        for (CallTypes type : CallTypes.values()) {
+            Map<IntervalTypes, long[]> intervals = new EnumMap<>(IntervalTypes.class);
+            for (IntervalTypes interval : IntervalTypes.values()) {
+                intervals.put(interval, new long[2]);
+            }
+            windows.put(type, intervals);
+        }
+        addDefaultRoutes();
+    }
+
+    /**
+     * Starts answering requests
+     * @return This server
+     * @throws IOException when the port cannot be bound
+     */
+    public synchronized MockServer start() throws IOException {
+        if (server != null) return this;
+
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "cryptocompare-mock-server-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(address, 256);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    /**
+     * Stops answering requests
+     */
+    @Override
+    public synchronized void close() {
+        if (server == null) return;
+
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+    }
+
+    /**
+     * Gets the URL to pass to {@link HttpConnection#setBaseUrl(String)}
+     * @return The scheme, host and port of the server
+     */
+    public synchronized String getBaseUrl() {
+        if (server == null) {
+            throw new IllegalStateException("The server has not been started");
+        }
+        InetSocketAddress bound = server.getAddress();
+        return "http://" + bound.getHostString() + ":" + bound.getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.increment();
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> params = params(exchange.getRequestURI().getRawQuery());
+
+            long latency = minLatencyNanos + (maxLatencyNanos > minLatencyNanos
+                    ? ThreadLocalRandom.current().nextLong(maxLatencyNanos - minLatencyNanos + 1) : 0);
+            if (latency > 0) {
+                TimeUnit.NANOSECONDS.sleep(latency);
+            }
+
+            if (path.startsWith("/stats/rate/limit")) {
+                send(exchange, 200, rateLimitBody());
+                return;
+            }
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errors.increment();
+                send(exchange, 500, "{\"Response\":\"Error\",\"Message\":\"Injected server error\"}");
+                return;
+            }
+
+            if ((throttleRate > 0 && ThreadLocalRandom.current().nextDouble() < throttleRate) || !count(callType(path))) {
+                throttled.increment();
+                send(exchange, 429, THROTTLED);
+                return;
+            }
+
+            Responder responder = responder(path);
+            if (responder == null) {
+                send(exchange, 404, "{\"Response\":\"Error\",\"Message\":\"No mock response for " + path + "\"}");
+            } else {
+                send(exchange, 200, responder.respond(path, params));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            send(exchange, 500, "{\"Response\":\"Error\",\"Message\":\"Mock responder failed with "
+                    + e.getClass().getSimpleName() + "\"}");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> params(String query) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        if (query == null) return params;
+
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, equals), "UTF-8"),
+                        URLDecoder.decode(pair.substring(equals + 1), "UTF-8"));
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Finds the type of call a path is counted as, matching the types the API checks locally
+     */
+    private static CallTypes callType(String path) {
+        if (path.startsWith("/data/histo") || path.startsWith("/data/pricehistorical")) return CallTypes.HISTO;
+        if (path.startsWith("/data/news")) return CallTypes.NEWS;
+        if (path.startsWith("/api/data/socialstats") || path.startsWith("/api/data/mining")) return CallTypes.OTHER;
+        return CallTypes.PRICE;
+    }
+
+    /**
+     * Counts a call in every interval
+     * @return false if a limit is reached, in which case the call is not counted
+     */
+    private boolean count(CallTypes type) {
+        long now = System.currentTimeMillis() / 1000;
+        Map<IntervalTypes, long[]> intervals = windows.get(type);
+        synchronized (windows) {
+            for (Map.Entry<IntervalTypes, long[]> entry : intervals.entrySet()) {
+                long[] window = roll(entry.getKey(), entry.getValue(), now);
+                Integer limit = limits.get(entry.getKey());
+                if (limit != null && window[1] >= limit) return false;
+            }
+            for (long[] window : intervals.values()) {
+                window[1]++;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Starts a new window when the current one is over
+     * @return The window, which holds its start and the number of calls made in it
+     */
+    private static long[] roll(IntervalTypes interval, long[] window, long now) {
+        long start = now - now % interval.getSeconds();
+        if (window[0] != start) {
+            window[0] = start;
+            window[1] = 0;
+        }
+        return window;
+    }
+
+    private String rateLimitBody() {
+        long now = System.currentTimeMillis() / 1000;
+        StringBuilder body = new StringBuilder("{\"Response\":\"Success\",\"Message\":\"\"");
+        synchronized (windows) {
+            for (IntervalTypes interval : IntervalTypes.values()) {
+                Integer limit = limits.get(interval);
+                // An interval without a limit is left out, which the API treats as unlimited
+                if (limit == null) continue;
+
+                StringBuilder made = new StringBuilder();
+                StringBuilder left = new StringBuilder();
+                for (CallTypes type : new CallTypes[]{CallTypes.HISTO, CallTypes.PRICE, CallTypes.NEWS, CallTypes.STRICT}) {
+                    long calls = roll(interval, windows.get(type).get(interval), now)[1];
+                    String name = type.name().charAt(0) + type.name().substring(1).toLowerCase(Locale.ROOT);
+                    made.append(made.length() == 0 ? "" : ",").append('"').append(name).append("\":").append(calls);
+                    left.append(left.length() == 0 ? "" : ",").append('"').append(name).append("\":")
+                            .append(Math.max(0, limit - calls));
+                }
+                body.append(",\"").append(interval.apiName).append("\":{\"CallsMade\":{").append(made)
+                        .append("},\"CallsLeft\":{").append(left).append("}}");
+            }
+        }
+        return body.append('}').toString();
+    }
+
+    private Responder responder(String path) {
+        synchronized (routes) {
+            for (Map.Entry<String, Responder> route : routes.headMap(path, true).descendingMap().entrySet()) {
+                if (path.startsWith(route.getKey())) return route.getValue();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Answers every path starting with a prefix, replacing any responder for the same prefix
+     * @param pathPrefix The start of the path, such as "/data/pricemultifull"
+     * @param responder Creates the response bodies
+     * @return This server
+     */
+    public MockServer route(String pathPrefix, Responder responder) {
+        synchronized (routes) {
+            routes.put(pathPrefix, responder);
+        }
+        return this;
+    }
+
+    /**
+     * Answers every path starting with a prefix with the same body
+     * @param pathPrefix The start of the path, such as "/data/all/coinlist"
+     * @param body The JSON body
+     * @return This server
+     */
+    public MockServer route(String pathPrefix, String body) {
+        return route(pathPrefix, (path, params) -> body);
+    }
+
+    /**
+     * Answers every path starting with a prefix with a recorded response
+     * @param pathPrefix The start of the path, such as "/data/all/coinlist"
+     * @param fixture The file holding the JSON body, read once
+     * @return This server
+     * @throws IOException when the file cannot be read
+     */
+    public MockServer route(String pathPrefix, Path fixture) throws IOException {
+        return route(pathPrefix, new String(Files.readAllBytes(fixture), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sets the time every request takes, chosen evenly between a minimum and a maximum
+     * @param min The minimum latency
+     * @param max The maximum latency
+     * @param unit The unit of the provided times
+     * @return This server
+     */
+    public MockServer setLatency(long min, long max, TimeUnit unit) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("latency must satisfy 0 <= min <= max");
+        }
+        this.minLatencyNanos = unit.toNanos(min);
+        this.maxLatencyNanos = unit.toNanos(max);
+        return this;
+    }
+
+    /**
+     * Sets the fraction of requests answered with HTTP 500
+     * @param errorRate The fraction between 0 and 1
+     * @return This server
+     */
+    public MockServer setErrorRate(double errorRate) {
+        this.errorRate = rate(errorRate, "errorRate");
+        return this;
+    }
+
+    /**
+     * Sets the fraction of requests answered with HTTP 429 and a rate limit error, regardless of the limits
+     * @param throttleRate The fraction between 0 and 1
+     * @return This server
+     */
+    public MockServer setThrottleRate(double throttleRate) {
+        this.throttleRate = rate(throttleRate, "throttleRate");
+        return this;
+    }
+
+    private static double rate(double rate, String name) {
+        if (!(rate >= 0 && rate <= 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1");
+        }
+        return rate;
+    }
+
+    /**
+     * Limits the calls of each type in an interval, calls over the limit are answered with HTTP 429
+     * @param interval The interval to limit
+     * @param calls The maximum number of calls, or a negative number to remove the limit
+     * @return This server
+     */
+    public MockServer setLimit(IntervalTypes interval, int calls) {
+        synchronized (windows) {
+            if (calls < 0) limits.remove(interval);
+            else limits.put(interval, calls);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the number of requests received, including failed ones
+     * @return The number of requests
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Gets the number of requests answered with an injected error
+     * @return The number of errors
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Gets the number of requests answered with a rate limit error
+     * @return The number of throttled requests
+     */
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+
+    /**
+     * Gets a made up price which is the same for every request of a pair
+     */
+    private static double price(String fSym, String tSym) {
+        if (fSym.equalsIgnoreCase(tSym)) return 1;
+        int hash = (fSym.toUpperCase(Locale.ROOT) + "/" + tSym.toUpperCase(Locale.ROOT)).hashCode() & 0x7FFFFFFF;
+        return 1 + hash % 1000000 / 100.0;
+    }
+
+    private static List<String> symbols(Map<String, String> params, String name, String fallback) {
+        String value = params.getOrDefault(name, fallback);
+        List<String> symbols = new ArrayList<>();
+        for (String symbol : value.split(",")) {
+            if (!symbol.trim().isEmpty()) symbols.add(symbol.trim().toUpperCase(Locale.ROOT));
+        }
+        return symbols;
+    }
+
+    private static String full(String fSym, String tSym, String market) {
+        double price = price(fSym, tSym);
+        long now = System.currentTimeMillis() / 1000;
+        return String.format(Locale.ROOT, "{\"TYPE\":\"5\",\"MARKET\":\"%s\",\"FROMSYMBOL\":\"%s\",\"TOSYMBOL\":\"%s\","
+                + "\"FLAGS\":\"4\",\"PRICE\":%s,\"LASTUPDATE\":%d,\"LASTVOLUME\":0.5,\"LASTVOLUMETO\":%s,"
+                + "\"LASTTRADEID\":\"1\",\"VOLUME24HOUR\":1000,\"VOLUME24HOURTO\":%s,\"OPEN24HOUR\":%s,"
+                + "\"HIGH24HOUR\":%s,\"LOW24HOUR\":%s,\"LASTMARKET\":\"%s\",\"CHANGE24HOUR\":0,\"CHANGEPCT24HOUR\":0}",
+                market, fSym, tSym, price, now, price / 2, price * 1000, price, price * 1.01, price * 0.99, market);
+    }
+
+    private void addDefaultRoutes() {
+        route("/data/price", (path, params) -> {
+            StringBuilder body = new StringBuilder("{");
+            String fSym = params.getOrDefault("fsym", "BTC").toUpperCase(Locale.ROOT);
+            for (String tSym : symbols(params, "tsyms", "USD")) {
+                if (body.length() > 1) body.append(',');
+                body.append('"').append(tSym).append("\":").append(price(fSym, tSym));
+            }
+            return body.append('}').toString();
+        });
+        route("/data/pricemulti", (path, params) -> {
+            StringBuilder body = new StringBuilder("{");
+            for (String fSym : symbols(params, "fsyms", "BTC")) {
+                if (body.length() > 1) body.append(',');
+                body.append('"').append(fSym).append("\":{");
+                int start = body.length();
+                for (String tSym : symbols(params, "tsyms", "USD")) {
+                    if (body.length() > start) body.append(',');
+                    body.append('"').append(tSym).append("\":").append(price(fSym, tSym));
+                }
+                body.append('}');
+            }
+            return body.append('}').toString();
+        });
+        route("/data/pricemultifull", (path, params) -> {
+            String market = params.getOrDefault("e", "CCCAGG");
+            StringBuilder body = new StringBuilder("{\"RAW\":{");
+            int fStart = body.length();
+            for (String fSym : symbols(params, "fsyms", "BTC")) {
+                if (body.length() > fStart) body.append(',');
+                body.append('"').append(fSym).append("\":{");
+                int tStart = body.length();
+                for (String tSym : symbols(params, "tsyms", "USD")) {
+                    if (body.length() > tStart) body.append(',');
+                    body.append('"').append(tSym).append("\":").append(full(fSym, tSym, market));
+                }
+                body.append('}');
+            }
+            return body.append("},\"DISPLAY\":{}}").toString();
+        });
+        route("/data/generateAvg", (path, params) -> "{\"RAW\":" + full(params.getOrDefault("fsym", "BTC"),
+                params.getOrDefault("tsym", "USD"), "CUSTOMAGG") + ",\"DISPLAY\":{}}");
+        route("/data/pricehistorical", (path, params) -> {
+            String fSym = params.getOrDefault("fsym", "BTC").toUpperCase(Locale.ROOT);
+            StringBuilder body = new StringBuilder("{\"").append(fSym).append("\":{");
+            int start = body.length();
+            for (String tSym : symbols(params, "tsyms", "USD")) {
+                if (body.length() > start) body.append(',');
+                body.append('"').append(tSym).append("\":").append(price(fSym, tSym));
+            }
+            return body.append("}}").toString();
+        });
+        route("/data/dayAvg", (path, params) -> {
+            String tSym = params.getOrDefault("tsym", "USD").toUpperCase(Locale.ROOT);
+            return "{\"" + tSym + "\":" + price(params.getOrDefault("fsym", "BTC"), tSym)
+                    + ",\"ConversionType\":{\"type\":\"direct\",\"conversionSymbol\":\"\"}}";
+        });
+        route("/data/histominute", (path, params) -> history(params, 60, 1440));
+        route("/data/histohour", (path, params) -> history(params, 3600, 168));
+        route("/data/histoday", (path, params) -> history(params, 86400, 30));
+        route("/data/top/exchanges", (path, params) -> {
+            String fSym = params.getOrDefault("fsym", "BTC").toUpperCase(Locale.ROOT);
+            String tSym = params.getOrDefault("tsym", "USD").toUpperCase(Locale.ROOT);
+            return "{\"Response\":\"Success\",\"Data\":[{\"exchange\":\"Coinbase\",\"fromSymbol\":\"" + fSym
+                    + "\",\"toSymbol\":\"" + tSym + "\",\"volume24h\":1000,\"volume24hTo\":" + price(fSym, tSym) * 1000
+                    + "},{\"exchange\":\"Kraken\",\"fromSymbol\":\"" + fSym + "\",\"toSymbol\":\"" + tSym
+                    + "\",\"volume24h\":500,\"volume24hTo\":" + price(fSym, tSym) * 500 + "}]}";
+        });
+        route("/data/top/volumes", "{\"Response\":\"Success\",\"Data\":[{\"SYMBOL\":\"BTC\",\"SUPPLY\":17350000,"
+                + "\"FULLNAME\":\"Bitcoin (BTC)\",\"NAME\":\"Bitcoin\",\"ID\":\"1182\",\"VOLUME24HOURTO\":1000000}]}");
+        route("/data/top/pairs", (path, params) -> {
+            String fSym = params.getOrDefault("fsym", "BTC").toUpperCase(Locale.ROOT);
+            return "{\"Response\":\"Success\",\"Data\":[{\"exchange\":\"CCCAGG\",\"fromSymbol\":\"" + fSym
+                    + "\",\"toSymbol\":\"USD\",\"volume24h\":1000,\"volume24hTo\":" + price(fSym, "USD") * 1000 + "}]}";
+        });
+        route("/data/all/coinlist", "{\"Response\":\"Success\",\"Message\":\"Coin list succesfully returned!\","
+                + "\"BaseImageUrl\":\"https://www.cryptocompare.com\",\"BaseLinkUrl\":\"https://www.cryptocompare.com\","
+                + "\"Data\":{\"BTC\":{\"Id\":\"1182\",\"Url\":\"/coins/btc/overview\",\"ImageUrl\":\"/media/19633/btc.png\","
+                + "\"Name\":\"BTC\",\"Symbol\":\"BTC\",\"CoinName\":\"Bitcoin\",\"FullName\":\"Bitcoin (BTC)\","
+                + "\"Algorithm\":\"SHA256\",\"ProofType\":\"PoW\",\"FullyPremined\":\"0\",\"TotalCoinSupply\":\"21000000\","
+                + "\"PreMinedValue\":\"N/A\",\"TotalCoinsFreeFloat\":\"N/A\",\"SortOrder\":\"1\",\"Sponsored\":false},"
+                + "\"ETH\":{\"Id\":\"7605\",\"Url\":\"/coins/eth/overview\",\"ImageUrl\":\"/media/20646/eth.png\","
+                + "\"Name\":\"ETH\",\"Symbol\":\"ETH\",\"CoinName\":\"Ethereum\",\"FullName\":\"Ethereum (ETH)\","
+                + "\"Algorithm\":\"Ethash\",\"ProofType\":\"PoW\",\"FullyPremined\":\"0\",\"TotalCoinSupply\":\"0\","
+                + "\"PreMinedValue\":\"N/A\",\"TotalCoinsFreeFloat\":\"N/A\",\"SortOrder\":\"2\",\"Sponsored\":false}},"
+                + "\"Type\":100}");
+        route("/data/all/exchanges", "{\"Coinbase\":{\"BTC\":[\"USD\",\"EUR\"],\"ETH\":[\"USD\",\"BTC\"]},"
+                + "\"Kraken\":{\"BTC\":[\"USD\",\"EUR\"],\"ETH\":[\"EUR\"]},\"Cryptsy\":{\"BTC\":[\"USD\"]}}");
+        route("/data/news/", (path, params) -> {
+            int newest = (int) (System.currentTimeMillis() / 1000);
+            if (params.containsKey("lTs")) newest = Math.min(newest, Integer.parseInt(params.get("lTs")) - 1);
+            StringBuilder body = new StringBuilder("[");
+            for (int i = 0; i < 10; i++) {
+                int published = newest - i * 60;
+                if (i > 0) body.append(',');
+                body.append("{\"id\":\"").append(published).append("\",\"guid\":\"https://example.com/news/")
+                        .append(published).append("\",\"published_on\":").append(published)
+                        .append(",\"title\":\"Story ").append(published).append("\",\"url\":\"https://example.com/news/")
+                        .append(published).append("\",\"source\":\"mock\",\"body\":\"BTC and ETH moved.\",")
+                        .append("\"tags\":\"BTC|ETH\",\"lang\":\"EN\",\"source_info\":{\"name\":\"Mock\",\"lang\":\"EN\"}}");
+            }
+            return body.append(']').toString();
+        });
+        route("/data/news/providers", "[{\"key\":\"mock\",\"name\":\"Mock\",\"lang\":\"EN\",\"img\":\"/mock.png\"}]");
+        String success = "{\"Response\":\"Success\",\"Message\":\"Mock response\",\"Type\":100}";
+        route("/api/data/coinsnapshot/", success);
+        route("/api/data/coinsnapshotfullbyid/", success);
+        route("/api/data/socialstats/", success);
+        route("/api/data/miningcontracts/", success);
+        route("/api/data/miningequipment/", success);
+    }
+
+    private static String history(Map<String, String> params, int step, int defaultLimit) {
+        int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : defaultLimit;
+        int aggregate = params.containsKey("aggregate") ? Math.max(1, Integer.parseInt(params.get("aggregate"))) : 1;
+        long now = System.currentTimeMillis() / 1000;
+        long toTs = params.containsKey("toTs") ? Long.parseLong(params.get("toTs")) : now;
+        long interval = (long) step * aggregate;
+        long last = toTs - toTs % interval;
+        double price = price(params.getOrDefault("fsym", "BTC"), params.getOrDefault("tsym", "USD"));
+
+        StringBuilder body = new StringBuilder("{\"Response\":\"Success\",\"Type\":100,\"Aggregated\":")
+                .append(aggregate > 1).append(",\"Data\":[");
+        long first = last - limit * interval;
+        for (long time = first; time <= last; time += interval) {
+            // A gentle wave so candles differ but stay reproducible
+            double close = price * (1 + 0.01 * Math.sin(time / (double) interval));
+            if (time > first) body.append(',');
+            body.append(String.format(Locale.ROOT, "{\"time\":%d,\"close\":%s,\"high\":%s,\"low\":%s,\"open\":%s,"
+                    + "\"volumefrom\":10,\"volumeto\":%s}", time, close, close * 1.005, close * 0.995, price, close * 10));
+        }
+        return body.append("],\"TimeTo\":").append(last).append(",\"TimeFrom\":").append(first)
+                .append(",\"FirstValueInArray\":true,\"ConversionType\":{\"type\":\"direct\",\"conversionSymbol\":\"\"}}")
+                .toString();
+    }
+}
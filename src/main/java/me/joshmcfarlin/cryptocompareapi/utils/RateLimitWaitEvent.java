@@ -0,0 +1,37 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import jdk.jfr.*;
+
+/**
+ * A flight recorder event for a thread sleeping until API calls are available again
+ * @author Josh McFarlin
+ */
+@Name("me.joshmcfarlin.cryptocompareapi.RateLimitWait")
+@Label("Rate Limit Wait")
+@Category({"CryptoCompare"})
+@Description("Waiting for the rate limit of the CryptoCompare API")
+final class RateLimitWaitEvent extends Event {
+    @Label("Call Type")
+    String callType;
+
+    /**
+     * Creates and begins an event, only called when {@link Jfr#AVAILABLE}
+     */
+    static RateLimitWaitEvent start() {
+        RateLimitWaitEvent event = new RateLimitWaitEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it if it is recorded
+     * @param type The type of API call waited for
+     */
+    void finish(CallTypes type) {
+        end();
+        if (shouldCommit()) {
+            callType = type == null ? null : type.name();
+            commit();
+        }
+    }
+}
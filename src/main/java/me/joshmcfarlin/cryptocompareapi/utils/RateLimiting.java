@@ -1,45 +1,131 @@
 package me.joshmcfarlin.cryptocompareapi.utils;
 
-import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
 
 import java.io.*;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Contains methods for limiting API calls to provided limits
+ *
+ * Limits are tracked locally with one {@link TokenBucket} per call type and interval. The buckets are seeded from a
+ * single {@link RateLimiting#getRates()} request and only resynced with the server every so often, or early when a
+ * bucket runs dry, so checking a call does not cost any extra requests. When a sync fails the last known buckets are
+ * kept, or calls are not limited locally if no sync has succeeded yet, and the sync is tried again after the interval.
  * @author Josh McFarlin
  */
 public class RateLimiting {
+    private static final Logger LOGGER = Logger.getLogger(RateLimiting.class.getName());
+
+    /**
+     * Local token buckets for every limited call type and interval
+     */
+    private static final Map<CallTypes, Map<IntervalTypes, TokenBucket>> buckets = new EnumMap<>(CallTypes.class);
+
+    /**
+     * Guards resyncing so only one thread requests the server rates at a time
+     */
+    private static final ReentrantLock syncLock = new ReentrantLock();
+
+    /**
+     * The number of nanoseconds after which the buckets are resynced with the server
+     */
+    private static volatile long syncIntervalNanos = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * The minimum number of nanoseconds between two resyncs caused by an empty bucket
+     */
+    private static volatile long minSyncIntervalNanos = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The time in nanoseconds the buckets were last synced, only valid once synced is true
+     */
+    private static volatile long lastSync;
+
+    /**
+     * Indicates if the buckets have been seeded from the server
+     */
+    private static volatile boolean synced;
+
+    /**
+     * The connection used to request the current rates
+     */
+    private static volatile Connection connection = new HttpConnection();
+
+    static {
+        for (CallTypes type : CallTypes.values()) {
+            if (type == CallTypes.OTHER) continue;
+
+            Map<IntervalTypes, TokenBucket> intervals = new EnumMap<>(IntervalTypes.class);
+            for (IntervalTypes interval : IntervalTypes.values()) {
+                intervals.put(interval, new TokenBucket(0, interval.getNanos()));
+            }
+            buckets.put(type, intervals);
+        }
+    }
+
     /**
      * Gets the number of API calls used and available in the current interval
      * @return Rates A class containing different API rates
      * @throws IOException When the connection fails
      */
     public static Rates getRates() throws IOException {
-        Reader r = Connection.getJSON("https://min-api.cryptocompare.com/stats/rate/limit");
+        try (Reader r = connection.getJSON("https://min-api.cryptocompare.com/stats/rate/limit")) {
+            return Json.getGson().fromJson(r, Rates.class);
+        }
+    }
 
-        return new Gson().fromJson(r, Rates.class);
+    /**
+     * Requests the current rates from the server and reseeds every local bucket with them
+     * @throws IOException When the connection fails
+     */
+    public static void sync() throws IOException {
+        syncLock.lock();
+        try {
+            Rates rates = getRates();
+            for (Map.Entry<CallTypes, Map<IntervalTypes, TokenBucket>> entry : buckets.entrySet()) {
+                for (Map.Entry<IntervalTypes, TokenBucket> bucket : entry.getValue().entrySet()) {
+                    IntervalTypes interval = bucket.getKey();
+                    Rates.Interval rate = rates.getInterval(interval);
+                    Integer made = rate == null ? null : getUsage(rate.callsMade, entry.getKey());
+                    Integer left = rate == null ? null : getUsage(rate.callsLeft, entry.getKey());
+
+                    if (made == null || left == null) {
+                        // The server did not report a limit, so do not block calls locally
+                        bucket.getValue().reset(Integer.MAX_VALUE, Integer.MAX_VALUE, interval.getNanos());
+                    } else {
+                        bucket.getValue().reset(made + left, left, interval.getNanos());
+                    }
+                }
+            }
+            lastSync = System.nanoTime();
+            synced = true;
+        } finally {
+            syncLock.unlock();
+        }
     }
 
     /**
-     * Checks if the provided call type has calls left in the provided intervals
+     * Checks if the provided call type has calls left in the provided intervals without using any of them
      * @param type The API call type to be checked
      * @param intervals A number of IntervalTypes which will each be checked
      * @return boolean True if calls of the provided type are left for all of the provided intervals
      * @throws IOException When the connection fails
      */
     public static boolean checkInterval(CallTypes type, IntervalTypes... intervals) throws IOException {
-        for (IntervalTypes interval: intervals) {
-            Rates rates = getRates();
-            Rates.Interval.Usage callsLeft = rates.getInterval(interval).callsLeft;
+        Map<IntervalTypes, TokenBucket> typeBuckets = buckets.get(type);
+        if (typeBuckets == null) {
+            return true;
+        }
 
-            if (type == CallTypes.HISTO && callsLeft.histo <= 0) {
-                return false;
-            } else if (type == CallTypes.PRICE && callsLeft.price <= 0) {
-                return false;
-            } else if (type == CallTypes.NEWS && callsLeft.news <= 0) {
-                return false;
-            } else if (type == CallTypes.STRICT && callsLeft.strict <= 0) {
+        ensureSynced();
+        for (IntervalTypes interval: intervals) {
+            if (typeBuckets.get(interval).available() <= 0) {
                 return false;
             }
         }
@@ -47,13 +133,197 @@ public class RateLimiting {
     }
 
     /**
-     * Checks if an API call is available
+     * Checks if an API call is available and reserves it if so
      * @param type The API call type to be checked
      * @return true if a call can be made, false if no more calls are available
      * @throws IOException When a connection fails
      */
     public static boolean callable(CallTypes type) throws IOException {
-        return checkInterval(type, IntervalTypes.HOUR, IntervalTypes.MINUTE, IntervalTypes.SECOND);
+        Map<IntervalTypes, TokenBucket> typeBuckets = buckets.get(type);
+        if (typeBuckets == null) {
+            return true;
+        }
+
+        ensureSynced();
+        if (tryAcquire(typeBuckets)) {
+            return true;
+        }
+
+        // The server windows may have reset before the local buckets refilled, so check before giving up
+        if (System.nanoTime() - lastSync >= minSyncIntervalNanos && syncLock.tryLock()) {
+            try {
+                trySync();
+            } finally {
+                syncLock.unlock();
+            }
+            return tryAcquire(typeBuckets);
+        }
+        return false;
+    }
+
+    /**
+     * Gets the locally estimated time until a call of the provided type will be available
+     * @param type The API call type to be checked
+     * @return 0 if a call is available now, otherwise the estimated wait in nanoseconds
+     */
+    public static long nanosUntilCallable(CallTypes type) {
+        Map<IntervalTypes, TokenBucket> typeBuckets = buckets.get(type);
+        if (typeBuckets == null || !synced) {
+            return 0;
+        }
+
+        long wait = 0;
+        for (TokenBucket bucket : typeBuckets.values()) {
+            wait = Math.max(wait, bucket.nanosUntilAvailable());
+        }
+        return wait;
+    }
+
+    /**
+     * Sleeps while waiting for calls of a type to become available, which shows up in flight recordings
+     * @param type The API call type waited for
+     * @param nanos The number of nanoseconds to sleep, usually from {@link RateLimiting#nanosUntilCallable(CallTypes)}
+     * @throws InterruptedException when the thread is interrupted while sleeping
+     */
+    public static void await(CallTypes type, long nanos) throws InterruptedException {
+        RateLimitWaitEvent event = Jfr.AVAILABLE ? RateLimitWaitEvent.start() : null;
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } finally {
+            if (event != null) event.finish(type);
+        }
+    }
+
+    /**
+     * Gets the locally estimated number of calls left for a call type in an interval
+     * @param type The API call type to be checked
+     * @param interval The interval to be checked
+     * @return The estimated number of calls left, or {@link Long#MAX_VALUE} if the call type is not limited
+     */
+    public static long getCallsLeft(CallTypes type, IntervalTypes interval) {
+        Map<IntervalTypes, TokenBucket> typeBuckets = buckets.get(type);
+        if (typeBuckets == null || !synced) {
+            return Long.MAX_VALUE;
+        }
+        return typeBuckets.get(interval).available();
+    }
+
+    /**
+     * Sets the connection used to request the current rates
+     * @param connection The connection used to request the current rates
+     */
+    public static void setConnection(Connection connection) {
+        RateLimiting.connection = connection;
+    }
+
+    /**
+     * Sets how often the local buckets are resynced with the server
+     * @param interval The time between two resyncs
+     * @param unit The unit of the provided interval
+     */
+    public static void setSyncInterval(long interval, TimeUnit unit) {
+        syncIntervalNanos = unit.toNanos(interval);
+    }
+
+    /**
+     * Sets the minimum time between two resyncs caused by running out of local calls
+     * @param interval The minimum time between two resyncs
+     * @param unit The unit of the provided interval
+     */
+    public static void setMinSyncInterval(long interval, TimeUnit unit) {
+        minSyncIntervalNanos = unit.toNanos(interval);
+    }
+
+    /**
+     * Seeds the buckets on first use and resyncs them once the sync interval has passed
+     */
+    private static void ensureSynced() {
+        if (!synced) {
+            syncLock.lock();
+            try {
+                if (!synced) {
+                    trySync();
+                }
+            } finally {
+                syncLock.unlock();
+            }
+        } else if (System.nanoTime() - lastSync >= syncIntervalNanos && syncLock.tryLock()) {
+            // Threads which do not win the lock keep using the current buckets instead of waiting
+            try {
+                trySync();
+            } finally {
+                syncLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Syncs the buckets, keeping the current ones when the server cannot be reached and not limiting calls locally if
+     * they were never seeded. Only called while holding the sync lock.
+     */
+    private static void trySync() {
+        try {
+            sync();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not sync the rate limits, retrying after the sync interval", e);
+            if (!synced) {
+                for (Map<IntervalTypes, TokenBucket> intervals : buckets.values()) {
+                    for (Map.Entry<IntervalTypes, TokenBucket> bucket : intervals.entrySet()) {
+                        bucket.getValue().reset(Integer.MAX_VALUE, Integer.MAX_VALUE, bucket.getKey().getNanos());
+                    }
+                }
+                synced = true;
+            }
+            lastSync = System.nanoTime();
+        }
+    }
+
+    /**
+     * Takes a token from every interval bucket, or none of them if any bucket is empty
+     * @param typeBuckets The buckets of a single call type
+     * @return true if a token was taken from every bucket
+     */
+    private static boolean tryAcquire(Map<IntervalTypes, TokenBucket> typeBuckets) {
+        synchronized (typeBuckets) {
+            TokenBucket hour = typeBuckets.get(IntervalTypes.HOUR);
+            TokenBucket minute = typeBuckets.get(IntervalTypes.MINUTE);
+            TokenBucket second = typeBuckets.get(IntervalTypes.SECOND);
+
+            if (!hour.tryAcquire()) {
+                return false;
+            }
+            if (!minute.tryAcquire()) {
+                hour.release();
+                return false;
+            }
+            if (!second.tryAcquire()) {
+                minute.release();
+                hour.release();
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Gets the usage for a single call type
+     * @param usage The usage reported by the server
+     * @param type The call type to get the usage of
+     * @return The number of calls, or null if the server did not report it
+     */
+    private static Integer getUsage(Rates.Interval.Usage usage, CallTypes type) {
+        if (usage == null) {
+            return null;
+        } else if (type == CallTypes.HISTO) {
+            return usage.histo;
+        } else if (type == CallTypes.PRICE) {
+            return usage.price;
+        } else if (type == CallTypes.NEWS) {
+            return usage.news;
+        } else if (type == CallTypes.STRICT) {
+            return usage.strict;
+        }
+        return null;
     }
 
     public class Rates {
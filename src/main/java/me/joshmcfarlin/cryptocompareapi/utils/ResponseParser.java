@@ -0,0 +1,54 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Represents a method which turns a JSON response into an object
+ * @param <T> The type of the parsed response
+ * @author Josh McFarlin
+ */
+@FunctionalInterface
+public interface ResponseParser<T> {
+    /**
+     * Parses a JSON response
+     * @param reader Reader containing Json information
+     * @return The parsed response
+     * @throws IOException when the response cannot be read
+     */
+    T parse(Reader reader) throws IOException;
+
+    /**
+     * Identifies what the parser produces, so a cache only answers a call with a response parsed the same way
+     *
+     * Parsers with equal keys must produce equal results from the same response. The default is the class of the
+     * parser, which is shared by every lambda created at the same place, so a lambda whose result depends on the
+     * values it captured should be wrapped with {@link ResponseParser#keyed(Object, ResponseParser)}.
+     * @return The key of the parser
+     */
+    default Object getKey() {
+        return getClass();
+    }
+
+    /**
+     * Gives a parser a key
+     * @param key Identifies what the parser produces, which must have a meaningful equals and hashCode
+     * @param parser The parser
+     * @param <T> The type of the parsed response
+     * @return A parser delegating to the provided one with the key
+     * @see ResponseParser#getKey()
+     */
+    static <T> ResponseParser<T> keyed(Object key, ResponseParser<T> parser) {
+        return new ResponseParser<T>() {
+            @Override
+            public T parse(Reader reader) throws IOException {
+                return parser.parse(reader);
+            }
+
+            @Override
+            public Object getKey() {
+                return key;
+            }
+        };
+    }
+}
@@ -0,0 +1,355 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.ConnectTimeoutException;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.HttpStatusException;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A {@link Connection} which makes a failed request again when the failure is transient
+ *
+ * Only failures which leave the server unchanged and may pass are retried: connections which could not be made or
+ * timed out while connecting, host names which could not be resolved, responses with a 5xx status and throttling
+ * responses with a 429 status. Read timeouts are not retried, as the server may already have handled the request. Before each retry the connection sleeps for a
+ * random time between 0 and an exponentially growing delay, so callers failing at once do not retry at once.
+ *
+ * Retries are limited by a budget for each endpoint, so an outage does not multiply the load on the server. Every
+ * successful call adds a share of a retry to the budget and every retry spends a whole one, so retries stay below that
+ * share of the successful calls once the reserve the budget starts with is spent. Each retry checks call availability
+ * again, so it is also limited by the rate limits.
+ *
+ * It should sit below a {@link CoalescingConnection}, so a request shared by several callers is only retried once.
+ * @author Josh McFarlin
+ */
+public class RetryingConnection implements Connection {
+    /**
+     * The default maximum number of attempts of a call, including the first
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /**
+     * The default delay before the first retry is at most this many milliseconds
+     */
+    public static final long DEFAULT_BASE_DELAY = 100;
+
+    /**
+     * The default delay before a retry is at most this many milliseconds
+     */
+    public static final long DEFAULT_MAX_DELAY = 5000;
+
+    /**
+     * The default share of a retry each successful call adds to the budget of its endpoint
+     */
+    public static final double DEFAULT_BUDGET_RATIO = 0.1;
+
+    /**
+     * The default number of retries the budget of an endpoint starts with and can hold at most
+     */
+    public static final int DEFAULT_BUDGET_RESERVE = 10;
+
+    /**
+     * The number of units in a single retry of a budget
+     */
+    private static final long RETRY = 1000;
+
+    /**
+     * Waits before a retry, replaced in tests
+     */
+    interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    /**
+     * A call which may be made again
+     */
+    private interface Call<T> {
+        T call() throws IOException, OutOfCallsException;
+    }
+
+    /**
+     * The connection requests are made through
+     */
+    private final Connection delegate;
+
+    /**
+     * The retry budget of every endpoint in thousandths of a retry, keyed by its path
+     */
+    private final Map<String, AtomicLong> budgets = new ConcurrentHashMap<>();
+
+    private final Sleeper sleeper;
+    private final DoubleSupplier random;
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    /**
+     * The maximum number of attempts of a call, including the first
+     */
+    private volatile int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    /**
+     * The number of nanoseconds the delay before the first retry is at most, doubled for each further retry
+     */
+    private volatile long baseDelay = TimeUnit.MILLISECONDS.toNanos(DEFAULT_BASE_DELAY);
+
+    /**
+     * The number of nanoseconds the delay before a retry is at most
+     */
+    private volatile long maxDelay = TimeUnit.MILLISECONDS.toNanos(DEFAULT_MAX_DELAY);
+
+    /**
+     * The share of a retry each successful call adds to the budget of its endpoint
+     */
+    private volatile double budgetRatio = DEFAULT_BUDGET_RATIO;
+
+    /**
+     * The number of retries the budget of an endpoint starts with and can hold at most
+     */
+    private volatile int budgetReserve = DEFAULT_BUDGET_RESERVE;
+
+    /**
+     * Receives every retry
+     */
+    private volatile Metrics metrics = Metrics.NONE;
+
+    /**
+     * Creates a retrying connection in front of a new {@link HttpConnection}
+     */
+    public RetryingConnection() {
+        this(new HttpConnection());
+    }
+
+    /**
+     * Creates a retrying connection with the default policy
+     * @param delegate The connection requests are made through
+     */
+    public RetryingConnection(Connection delegate) {
+        this(delegate, TimeUnit.NANOSECONDS::sleep, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    RetryingConnection(Connection delegate, Sleeper sleeper, DoubleSupplier random) {
+        this.delegate = delegate;
+        this.sleeper = sleeper;
+        this.random = random;
+    }
+
+    /**
+     * Gets JSON data from a provided URL without checking call availability, retrying transient failures
+     * @param urlString The URL to get JSON information from
+     * @return Reader containing Json information, which must be closed by the caller
+     * @throws IOException when a connection cannot be made
+     */
+    @Override
+    public Reader getJSON(String urlString) throws IOException {
+        try {
+            return retry(urlString, CallTypes.OTHER, () -> delegate.getJSON(urlString));
+        } catch (OutOfCallsException e) {
+            // Never thrown, as call availability is not checked
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets JSON data from a provided URL after checking call availability, retrying transient failures
+     * @param urlString The URL to get JSON information from
+     * @param type The type of API call being made
+     * @return Reader containing Json information, which must be closed by the caller
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    @Override
+    public Reader getJSON(String urlString, CallTypes type) throws IOException, OutOfCallsException {
+        return retry(urlString, type, () -> delegate.getJSON(urlString, type));
+    }
+
+    /**
+     * Gets JSON data from a provided URL after checking call availability and parses it, retrying transient failures
+     * @param urlString The URL to get JSON information from
+     * @param type The type of API call being made
+     * @param parser The parser used to read the response
+     * @param <T> The type of the parsed response
+     * @return The parsed response
+     * @throws IOException when a connection cannot be made
+     * @throws OutOfCallsException when no more API calls are available
+     */
+    @Override
+    public <T> T getJSON(String urlString, CallTypes type, ResponseParser<T> parser) throws IOException, OutOfCallsException {
+        return retry(urlString, type, () -> delegate.getJSON(urlString, type, parser));
+    }
+
+    /**
+     * Makes a call until it succeeds, fails permanently, runs out of attempts or its endpoint runs out of budget
+     */
+    private <T> T retry(String urlString, CallTypes type, Call<T> call) throws IOException, OutOfCallsException {
+        String endpoint = Metrics.endpoint(urlString);
+        AtomicLong budget = budgets.get(endpoint);
+        if (budget == null) {
+            budget = budgets.computeIfAbsent(endpoint, e -> new AtomicLong(budgetReserve * RETRY));
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T value = call.call();
+                deposit(budget);
+                return value;
+            } catch (IOException e) {
+                if (!isRetryable(e) || attempt >= maxAttempts) throw e;
+                if (!withdraw(budget)) {
+                    exhausted.increment();
+                    throw e;
+                }
+            }
+
+            retries.increment();
+            metrics.recordRetry(endpoint, type);
+            try {
+                sleeper.sleep(delay(attempt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to retry " + urlString);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a failure is transient and the request can safely be made again
+     * @param e The exception a request failed with
+     * @return Whether the request should be retried
+     */
+    static boolean isRetryable(IOException e) {
+        if (e instanceof HttpStatusException) {
+            int status = ((HttpStatusException) e).getStatusCode();
+            return status == 429 || status >= 500;
+        }
+        return e instanceof ConnectException || e instanceof NoRouteToHostException || e instanceof ConnectTimeoutException
+                || e instanceof UnknownHostException;
+    }
+
+    /**
+     * Gets the delay before a retry, chosen uniformly up to the capped exponential delay
+     * @param attempt The number of attempts already made
+     * @return The delay in nanoseconds
+     */
+    long delay(int attempt) {
+        long cap = maxDelay;
+        long exponential = attempt > 62 ? cap : baseDelay << Math.min(attempt - 1, Long.numberOfLeadingZeros(baseDelay) - 1);
+        return (long) (random.getAsDouble() * Math.min(cap, exponential));
+    }
+
+    private void deposit(AtomicLong budget) {
+        long share = (long) (budgetRatio * RETRY);
+        long max = budgetReserve * RETRY;
+        long current;
+        do {
+            current = budget.get();
+            if (current >= max) return;
+        } while (!budget.compareAndSet(current, Math.min(max, current + share)));
+    }
+
+    private static boolean withdraw(AtomicLong budget) {
+        long current;
+        do {
+            current = budget.get();
+            if (current < RETRY) return false;
+        } while (!budget.compareAndSet(current, current - RETRY));
+        return true;
+    }
+
+    /**
+     * Gets the number of retries an endpoint has left in its budget
+     * @param endpoint The path of the endpoint, such as "/data/pricemultifull"
+     * @return The number of retries, which may be fractional
+     */
+    public double getBudget(String endpoint) {
+        AtomicLong budget = budgets.get(endpoint);
+        return budget == null ? budgetReserve : budget.get() / (double) RETRY;
+    }
+
+    /**
+     * Gets the number of retries made
+     * @return The number of retries
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Gets the number of retryable failures which were not retried because their endpoint's budget was spent
+     * @return The number of failures
+     */
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+
+    /**
+     * {@link RetryingConnection#delegate}
+     */
+    public Connection getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * {@link RetryingConnection#maxAttempts}
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Sets the range of the delays before retries
+     * @param baseDelay The delay before the first retry is at most this, doubled for each further retry
+     * @param maxDelay The delay before any retry is at most this
+     * @param unit The unit of the provided times
+     */
+    public void setDelay(long baseDelay, long maxDelay, TimeUnit unit) {
+        if (baseDelay < 1 || maxDelay < baseDelay) {
+            throw new IllegalArgumentException("baseDelay must be positive and at most maxDelay");
+        }
+        this.baseDelay = unit.toNanos(baseDelay);
+        this.maxDelay = unit.toNanos(maxDelay);
+    }
+
+    /**
+     * Sets how many retries each endpoint may make
+     * @param ratio The share of a retry each successful call adds to the budget, such as 0.1 for 10% of the calls
+     * @param reserve The number of retries a budget starts with and can hold at most
+     */
+    public void setBudget(double ratio, int reserve) {
+        if (ratio < 0 || reserve < 0) {
+            throw new IllegalArgumentException("ratio and reserve must not be negative");
+        }
+        this.budgetRatio = ratio;
+        this.budgetReserve = reserve;
+    }
+
+    /**
+     * {@link RetryingConnection#metrics}
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics == null ? Metrics.NONE : metrics;
+    }
+}
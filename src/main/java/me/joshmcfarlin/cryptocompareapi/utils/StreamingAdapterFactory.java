@@ -0,0 +1,66 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * A factory for adapters which read a single type with hand written streaming code instead of reflection
+ *
+ * Writing is delegated to the adapter Gson would otherwise use for the type.
+ * @param <T> The type read by the adapter
+ * @author Josh McFarlin
+ */
+public abstract class StreamingAdapterFactory<T> implements TypeAdapterFactory {
+    /**
+     * The type read by the adapter
+     */
+    private final Class<T> type;
+
+    /**
+     * Creates a factory for the provided type
+     * @param type The type read by the adapter
+     */
+    protected StreamingAdapterFactory(Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * Reads a single non null value
+     * @param in The reader positioned at the value
+     * @return The value read
+     * @throws IOException when the value cannot be read
+     */
+    protected abstract T read(JsonReader in) throws IOException;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <X> TypeAdapter<X> create(Gson gson, TypeToken<X> token) {
+        if (token.getRawType() != type) {
+            return null;
+        }
+
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, TypeToken.get(type));
+        return (TypeAdapter<X>) new TypeAdapter<T>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                delegate.write(out, value);
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    return null;
+                }
+                return StreamingAdapterFactory.this.read(in);
+            }
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns dense int IDs to names and keeps a single canonical instance of each name
+ *
+ * Parsed responses use the global tables, {@link SymbolTable#symbols()} for coin and currency symbols and
+ * {@link SymbolTable#exchanges()} for exchange names, so equal names from different responses share one String and
+ * can be used as array indices or keys of primitive collections. IDs start at 0 and are never reused, the tables only
+ * grow.
+ * @author Josh McFarlin
+ */
+public class SymbolTable {
+    private static final SymbolTable SYMBOLS = new SymbolTable();
+    private static final SymbolTable EXCHANGES = new SymbolTable();
+
+    /**
+     * The ID of every name
+     */
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    /**
+     * The canonical instance of every name, indexed by ID
+     */
+    private volatile String[] names = new String[256];
+
+    /**
+     * Gets the table shared by all coin and currency symbols
+     * @return The global symbol table
+     */
+    public static SymbolTable symbols() {
+        return SYMBOLS;
+    }
+
+    /**
+     * Gets the table shared by all exchange names
+     * @return The global exchange table
+     */
+    public static SymbolTable exchanges() {
+        return EXCHANGES;
+    }
+
+    /**
+     * Gets the ID of a name, assigning the next one if the name is new
+     * @param name The name to look up
+     * @return The ID of the name
+     */
+    public int id(String name) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+
+        synchronized (this) {
+            id = ids.get(name);
+            if (id != null) return id;
+
+            int next = ids.size();
+            String[] current = names;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[next] = name;
+            names = current;
+            // Published last so a thread which sees the ID also sees the name
+            ids.put(name, next);
+            return next;
+        }
+    }
+
+    /**
+     * Gets the ID of a name without assigning one
+     * @param name The name to look up
+     * @return The ID of the name, or -1 if it has none
+     */
+    public int find(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the canonical instance of the name with an ID
+     * @param id The ID of the name
+     * @return The name
+     * @throws IndexOutOfBoundsException when the ID was not assigned
+     */
+    public String name(int id) {
+        String[] current = names;
+        String name = id < current.length ? current[id] : null;
+        if (name == null) {
+            throw new IndexOutOfBoundsException("No name has the ID " + id);
+        }
+        return name;
+    }
+
+    /**
+     * Gets the canonical instance of a name, assigning it an ID if it is new
+     * @param name The name to look up, may be null
+     * @return The canonical instance, or null if the name is null
+     */
+    public String intern(String name) {
+        return name == null ? null : name(id(name));
+    }
+
+    /**
+     * Gets the number of names with an ID
+     * @return The next ID which will be assigned
+     */
+    public int size() {
+        return ids.size();
+    }
+}
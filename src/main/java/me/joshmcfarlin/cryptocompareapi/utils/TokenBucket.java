@@ -0,0 +1,124 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+/**
+ * A token bucket which refills continuously at a fixed rate up to its capacity
+ * @author Josh McFarlin
+ */
+public class TokenBucket {
+    /**
+     * The maximum number of tokens the bucket can hold
+     */
+    private double capacity;
+
+    /**
+     * The number of tokens added to the bucket every nanosecond
+     */
+    private double refillPerNano;
+
+    /**
+     * The number of tokens currently in the bucket
+     */
+    private double tokens;
+
+    /**
+     * The time in nanoseconds the bucket was last refilled
+     */
+    private long lastRefill;
+
+    /**
+     * Creates a full bucket
+     * @param capacity The maximum number of tokens the bucket can hold
+     * @param periodNanos The number of nanoseconds it takes to refill an empty bucket
+     */
+    public TokenBucket(double capacity, long periodNanos) {
+        this(capacity, capacity, periodNanos, System.nanoTime());
+    }
+
+    TokenBucket(double capacity, double tokens, long periodNanos, long now) {
+        reset(capacity, tokens, periodNanos, now);
+    }
+
+    /**
+     * Replaces the capacity and content of the bucket, used when resyncing with the server
+     * @param capacity The maximum number of tokens the bucket can hold
+     * @param tokens The number of tokens currently available
+     * @param periodNanos The number of nanoseconds it takes to refill an empty bucket
+     */
+    public synchronized void reset(double capacity, double tokens, long periodNanos) {
+        reset(capacity, tokens, periodNanos, System.nanoTime());
+    }
+
+    synchronized void reset(double capacity, double tokens, long periodNanos, long now) {
+        this.capacity = Math.max(0, capacity);
+        this.tokens = Math.max(0, Math.min(tokens, this.capacity));
+        this.refillPerNano = periodNanos > 0 ? this.capacity / periodNanos : 0;
+        this.lastRefill = now;
+    }
+
+    /**
+     * Gets the number of whole tokens currently available
+     * @return The number of whole tokens in the bucket
+     */
+    public synchronized long available() {
+        return available(System.nanoTime());
+    }
+
+    synchronized long available(long now) {
+        refill(now);
+        return (long) tokens;
+    }
+
+    /**
+     * Takes a single token from the bucket if one is available
+     * @return true if a token was taken, false if the bucket is empty
+     */
+    public synchronized boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    synchronized boolean tryAcquire(long now) {
+        refill(now);
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * Returns a token taken by {@link TokenBucket#tryAcquire()} which ended up unused
+     */
+    public synchronized void release() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    /**
+     * Gets the number of nanoseconds until a token will be available
+     * @return 0 if a token is available now, otherwise the estimated wait in nanoseconds
+     */
+    public synchronized long nanosUntilAvailable() {
+        refill(System.nanoTime());
+        if (tokens >= 1) {
+            return 0;
+        }
+        if (refillPerNano <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (long) Math.ceil((1 - tokens) / refillPerNano);
+    }
+
+    /**
+     * {@link TokenBucket#capacity}
+     */
+    public synchronized double getCapacity() {
+        return capacity;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.InvalidParameterException;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
+import me.joshmcfarlin.cryptocompareapi.utils.Async;
+import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
+import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncTest {
+    /**
+     * Answers single price calls and fails every other call, recording the URLs asked for
+     */
+    private static class FakePriceConnection implements Connection {
+        private final List<String> urls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Reader getJSON(String urlString) throws IOException {
+            urls.add(urlString);
+            if (urlString.contains("/data/price?")) {
+                return new StringReader("{\"USD\":1.5}");
+            }
+            throw new IOException("Offline");
+        }
+
+        @Override
+        public Reader getJSON(String urlString, CallTypes type) throws IOException {
+            return getJSON(urlString);
+        }
+    }
+
+    @Test
+    void shouldRunAsyncMethodsOnTheConfiguredExecutor() throws Exception {
+        FakePriceConnection connection = new FakePriceConnection();
+        List<Runnable> queued = new ArrayList<>();
+        CryptoCompareAPI api = new CryptoCompareAPI(null, null, connection, queued::add);
+
+        CompletableFuture<Map<String, Double>> price = api.marketAsync.getPrice("BTC", "USD");
+        List<CompletableFuture<?>> failing = Arrays.asList(
+                api.coinsAsync.getCoinList(),
+                api.exchangesAsync.getAllExchanges(),
+                api.historicAsync.getDay("BTC", "USD"),
+                api.miningAsync.getContracts(),
+                api.newsAsync.newsProviderList(),
+                api.socialAsync.getStats(1182));
+
+        assertEquals(7, queued.size());
+        assertTrue(connection.urls.isEmpty());
+        assertFalse(price.isDone());
+
+        for (Runnable call : queued) {
+            call.run();
+        }
+        assertEquals(7, connection.urls.size());
+        assertEquals(1.5, (double) Async.join(price).get("USD"));
+        for (CompletableFuture<?> future : failing) {
+            assertEquals("Offline", assertThrows(IOException.class, () -> Async.join(future)).getMessage());
+        }
+    }
+
+    @Test
+    void shouldRethrowWhatTheCallFailedWith() {
+        OutOfCallsException outOfCalls = new OutOfCallsException("No calls");
+        InvalidParameterException invalid = new InvalidParameterException("Bad symbol");
+        IOException io = new IOException("Offline");
+        Exception other = new Exception("Unexpected");
+
+        assertSame(outOfCalls, assertThrows(OutOfCallsException.class, () -> Async.join(Async.supply(Runnable::run, () -> {
+            throw outOfCalls;
+        }))));
+        assertSame(invalid, assertThrows(InvalidParameterException.class, () -> Async.join(Async.supply(Runnable::run, () -> {
+            throw invalid;
+        }))));
+        assertSame(io, assertThrows(IOException.class, () -> Async.join(Async.supply(Runnable::run, () -> {
+            throw io;
+        }))));
+        assertSame(other, assertThrows(IOException.class, () -> Async.join(Async.supply(Runnable::run, () -> {
+            throw other;
+        }))).getCause());
+        assertThrows(RejectedExecutionException.class, () -> Async.join(Async.supply(r -> {
+            throw new RejectedExecutionException("Shut down");
+        }, () -> 1)));
+    }
+
+    @Test
+    void shouldSkipCallsCancelledWhileQueued() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        List<Runnable> queued = new ArrayList<>();
+
+        CompletableFuture<Integer> cancelled = Async.supply(queued::add, calls::incrementAndGet);
+        CompletableFuture<Integer> kept = Async.supply(queued::add, calls::incrementAndGet);
+        cancelled.cancel(false);
+        for (Runnable call : queued) {
+            call.run();
+        }
+
+        assertTrue(cancelled.isCancelled());
+        assertEquals(1, (int) Async.join(kept));
+        assertEquals(1, calls.get());
+    }
+}
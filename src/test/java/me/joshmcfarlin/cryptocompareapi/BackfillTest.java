@@ -0,0 +1,167 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
+import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackfillTest {
+    private static final Pattern LIMIT = Pattern.compile("limit=(\\d+)");
+    private static final Pattern TO_TS = Pattern.compile("toTs=(\\d+)");
+
+    /**
+     * Answers histo calls like the API does, with limit + 1 points ending at toTs
+     */
+    private static class FakeHistoConnection implements Connection {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Queue<String> errors = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public Reader getJSON(String urlString) {
+            calls.incrementAndGet();
+            String error = errors.poll();
+            if (error != null) {
+                return new StringReader("{\"Response\":\"Error\",\"Message\":\"" + error + "\",\"Type\":1,\"Data\":[]}");
+            }
+            int step = urlString.contains("histominute") ? 60 : urlString.contains("histohour") ? 3600 : 86400;
+            int limit = group(LIMIT, urlString);
+            int toTs = group(TO_TS, urlString) / step * step;
+
+            StringBuilder json = new StringBuilder("{\"Response\":\"Success\",\"Data\":[");
+            for (int i = limit; i >= 0; i--) {
+                int time = toTs - i * step;
+                json.append("{\"time\":").append(time).append(",\"close\":").append(time).append('}');
+                if (i > 0) json.append(',');
+            }
+            return new StringReader(json.append("]}").toString());
+        }
+
+        @Override
+        public Reader getJSON(String urlString, CallTypes type) {
+            return getJSON(urlString);
+        }
+
+        private static int group(Pattern pattern, String urlString) {
+            Matcher matcher = pattern.matcher(urlString);
+            assertTrue(matcher.find());
+            return Integer.parseInt(matcher.group(1));
+        }
+    }
+
+    @Test
+    void shouldReturnEveryPointOnceInOrder() throws Exception {
+        FakeHistoConnection connection = new FakeHistoConnection();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Historic historic = new Historic(connection, executor);
+
+        int from = 1_500_000_010;
+        int to = from + 60 * 4500 - 1;
+        Historic.HistoryColumns columns;
+        try {
+            columns = historic.backfill("BTC", "USD", Historic.Resolution.MINUTE, from, to);
+        } finally {
+            executor.shutdown();
+        }
+
+        int first = (from + 59) / 60 * 60;
+        assertEquals(4500, columns.size());
+        assertEquals(3, connection.calls.get());
+        for (int i = 0; i < columns.size(); i++) {
+            assertEquals(first + i * 60, columns.getTime()[i]);
+        }
+    }
+
+    @Test
+    void shouldNotWaitForPagesQueuedBehindTheBackfill() throws Exception {
+        FakeHistoConnection connection = new FakeHistoConnection();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AsyncHistoric historic = new AsyncHistoric(new Historic(connection), executor);
+
+        int from = 1_500_000_000 / 60 * 60;
+        try {
+            Historic.HistoryColumns columns = historic.backfill("BTC", "USD", Historic.Resolution.MINUTE, from, from + 60 * 4499)
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals(4500, columns.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRetryThrottledPagesAndFailOnErrors() throws Exception {
+        FakeHistoConnection connection = new FakeHistoConnection();
+        Historic historic = new Historic(connection, Runnable::run);
+        int from = 1_500_000_000 / 60 * 60;
+
+        connection.errors.add("Rate limit excedeed!");
+        Historic.HistoryColumns columns = historic.backfill("BTC", "USD", Historic.Resolution.MINUTE, from, from + 60 * 2999);
+        assertEquals(3000, columns.size());
+        assertEquals("Success", columns.getResponse());
+        assertEquals(3, connection.calls.get());
+
+        connection.errors.add("There is no data for the symbol XYZ .");
+        IOException failure = assertThrows(IOException.class,
+                () -> historic.backfill("XYZ", "USD", Historic.Resolution.MINUTE, from, from + 60 * 2999));
+        assertTrue(failure.getMessage().contains("There is no data"));
+    }
+
+    @Test
+    void shouldHandleSinglePointRanges() throws Exception {
+        Historic historic = new Historic(new FakeHistoConnection(), Runnable::run);
+
+        Historic.HistoryColumns columns = historic.backfill("BTC", "USD", Historic.Resolution.DAY, 86400 * 10, 86400 * 10);
+        assertEquals(1, columns.size());
+        assertEquals(86400 * 10, columns.getTime()[0]);
+
+        assertEquals(0, historic.backfill("BTC", "USD", Historic.Resolution.DAY, 86400 * 10 + 1, 86400 * 10 + 5).size());
+    }
+
+    @Test
+    void shouldOnlyRequestRangesMissingFromTheStore() throws Exception {
+        Path directory = Files.createTempDirectory("candles");
+        FakeHistoConnection connection = new FakeHistoConnection();
+        Historic historic = new Historic(connection, Runnable::run);
+
+        try {
+            int from = 1_500_000_000 / 3600 * 3600;
+            try (CandleStore store = new CandleStore(directory)) {
+                historic.setCandleStore(store);
+                historic.backfill("BTC", "USD", Historic.Resolution.HOUR, from + 3600 * 100, from + 3600 * 199);
+                int calls = connection.calls.get();
+
+                Historic.HistoryColumns columns = historic.backfill("BTC", "USD", Historic.Resolution.HOUR, from, from + 3600 * 299);
+                assertEquals(300, columns.size());
+                assertEquals(calls + 2, connection.calls.get());
+                for (int i = 0; i < columns.size(); i++) {
+                    assertEquals(from + i * 3600, columns.getTime()[i]);
+                    assertEquals(from + i * 3600, columns.getClose()[i]);
+                }
+
+                historic.backfill("BTC", "USD", Historic.Resolution.HOUR, from, from + 3600 * 299);
+                assertEquals(calls + 2, connection.calls.get());
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+}
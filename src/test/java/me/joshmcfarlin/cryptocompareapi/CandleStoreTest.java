@@ -0,0 +1,102 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleStoreTest {
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws Exception {
+        directory = Files.createTempDirectory("candles");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private static Historic.HistoryColumns candles(int fromTs, int count, int step, double close) {
+        Historic.HistoryColumns columns = new Historic.HistoryColumns(count);
+        for (int i = 0; i < count; i++) {
+            columns.add(fromTs + i * step, close, close, close, close, i, i);
+        }
+        return columns;
+    }
+
+    @Test
+    void shouldReadRangesAfterReopening() throws Exception {
+        try (CandleStore store = new CandleStore(directory)) {
+            store.put("BTC", "USD", null, Historic.Resolution.MINUTE, candles(6000, 10000, 60, 1));
+        }
+
+        try (CandleStore store = new CandleStore(directory)) {
+            Historic.HistoryColumns columns = store.read("BTC", "USD", null, Historic.Resolution.MINUTE, 6000 + 60 * 50, 6000 + 60 * 59);
+            assertEquals(10, columns.size());
+            assertEquals(6000 + 60 * 50, columns.getTime()[0]);
+            assertEquals(50, columns.getVolumeFrom()[0]);
+
+            assertEquals(2000, store.read("BTC", "USD", null, Historic.Resolution.MINUTE, 0, Integer.MAX_VALUE, 2000).size());
+            assertEquals(0, store.read("BTC", "USD", "Kraken", Historic.Resolution.MINUTE, 0, Integer.MAX_VALUE).size());
+        }
+    }
+
+    @Test
+    void shouldMergeOlderAndOverlappingData() throws Exception {
+        try (CandleStore store = new CandleStore(directory)) {
+            store.put("ETH", "BTC", null, Historic.Resolution.HOUR, candles(3600 * 10, 5, 3600, 1));
+            store.put("ETH", "BTC", null, Historic.Resolution.HOUR, candles(3600 * 20, 5, 3600, 1));
+            store.put("ETH", "BTC", null, Historic.Resolution.HOUR, candles(3600 * 12, 5, 3600, 2));
+
+            Historic.HistoryColumns columns = store.read("ETH", "BTC", null, Historic.Resolution.HOUR, 0, Integer.MAX_VALUE);
+            assertEquals(12, columns.size());
+            for (int i = 1; i < columns.size(); i++) {
+                assertTrue(columns.getTime()[i] > columns.getTime()[i - 1]);
+            }
+            assertEquals(1, columns.getClose()[columns.indexOf(3600 * 11)]);
+            assertEquals(2, columns.getClose()[columns.indexOf(3600 * 14)]);
+
+            List<int[]> missing = store.missingRanges("ETH", "BTC", null, Historic.Resolution.HOUR, 3600 * 8, 3600 * 26);
+            assertEquals(3, missing.size());
+            assertArrayEquals(new int[]{3600 * 8, 3600 * 9}, missing.get(0));
+            assertArrayEquals(new int[]{3600 * 17, 3600 * 19}, missing.get(1));
+            assertArrayEquals(new int[]{3600 * 25, 3600 * 26}, missing.get(2));
+        }
+    }
+
+    @Test
+    void shouldFinishAnInterruptedMergeWhenReopened() throws Exception {
+        try (CandleStore store = new CandleStore(directory)) {
+            store.put("ETH", "BTC", null, Historic.Resolution.HOUR, candles(3600 * 10, 10, 3600, 1));
+            store.putInterrupted("ETH", "BTC", null, Historic.Resolution.HOUR, candles(3600 * 5, 10, 3600, 2));
+        }
+
+        try (CandleStore store = new CandleStore(directory)) {
+            Historic.HistoryColumns columns = store.read("ETH", "BTC", null, Historic.Resolution.HOUR, 0, Integer.MAX_VALUE);
+            assertEquals(15, columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                assertEquals(3600 * (5 + i), columns.getTime()[i]);
+                assertEquals(i < 10 ? 2 : 1, columns.getClose()[i]);
+            }
+
+            store.put("ETH", "BTC", null, Historic.Resolution.HOUR, candles(3600 * 20, 1, 3600, 3));
+            assertEquals(16, store.read("ETH", "BTC", null, Historic.Resolution.HOUR, 0, Integer.MAX_VALUE).size());
+        }
+
+        try (CandleStore store = new CandleStore(directory)) {
+            assertEquals(16, store.read("ETH", "BTC", null, Historic.Resolution.HOUR, 0, Integer.MAX_VALUE).size());
+        }
+    }
+}
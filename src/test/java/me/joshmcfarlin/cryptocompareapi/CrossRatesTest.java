@@ -0,0 +1,82 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
+import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrossRatesTest {
+    /**
+     * Answers every price call with a price of 2 in EUR
+     */
+    private static class FakePriceConnection implements Connection {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Reader getJSON(String urlString) {
+            calls.incrementAndGet();
+            return new StringReader("{\"EUR\":2}");
+        }
+
+        @Override
+        public Reader getJSON(String urlString, CallTypes type) {
+            return getJSON(urlString);
+        }
+    }
+
+    @Test
+    void shouldDeriveRatesThroughFreshestShortestPath() throws Exception {
+        AtomicLong now = new AtomicLong(1_000_000);
+        CrossRates rates = new CrossRates(new Market(new FakePriceConnection()), now::get);
+
+        rates.update("ALT", "BTC", 0.001);
+        rates.update("BTC", "EUR", 50000);
+        now.addAndGet(1000);
+        rates.update("alt", "eth", 0.01);
+        rates.update("ETH", "EUR", 5001);
+
+        CrossRates.Conversion conversion = rates.find("ALT", "EUR");
+        assertEquals(Arrays.asList("ALT", "ETH", "EUR"), conversion.getPath());
+        assertEquals(50.01, conversion.getRate(), 1e-9);
+        assertEquals(0, conversion.getAge());
+
+        CrossRates.Conversion inverse = rates.find("EUR", "BTC");
+        assertEquals(Arrays.asList("EUR", "BTC"), inverse.getPath());
+        assertEquals(1 / 50000.0, inverse.getRate(), 1e-15);
+        assertEquals(1000, inverse.getAge());
+
+        rates.setMaxHops(1);
+        assertNull(rates.find("ALT", "EUR"));
+    }
+
+    @Test
+    void shouldOnlyRequestWhenNoFreshPathExists() throws Exception {
+        AtomicLong now = new AtomicLong(1_000_000);
+        FakePriceConnection connection = new FakePriceConnection();
+        CrossRates rates = new CrossRates(new Market(connection), now::get);
+        rates.setMaxAge(10, TimeUnit.SECONDS);
+
+        rates.update("ALT", "BTC", 0.001);
+        rates.update("BTC", "EUR", 50000);
+        assertFalse(rates.convert("ALT", "EUR").isRequested());
+        assertEquals(0, connection.calls.get());
+
+        now.addAndGet(TimeUnit.SECONDS.toMillis(11));
+        CrossRates.Conversion conversion = rates.convert("ALT", "EUR");
+        assertTrue(conversion.isRequested());
+        assertEquals(2, conversion.getRate());
+        assertEquals(1, connection.calls.get());
+
+        assertFalse(rates.convert("ALT", "EUR").isRequested());
+        assertEquals(1, rates.getRequestedCount());
+        assertEquals(2, rates.getDerivedCount());
+    }
+}
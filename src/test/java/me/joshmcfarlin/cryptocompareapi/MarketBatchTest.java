@@ -0,0 +1,225 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
+import me.joshmcfarlin.cryptocompareapi.utils.CachingConnection;
+import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
+import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketBatchTest {
+    private static final Pattern SYMS = Pattern.compile("fsyms=([^&]+)&tsyms=([^&]+)");
+
+    /**
+     * Answers pricemulti calls with a price of 1 for every requested pair
+     */
+    private static class FakeMultiConnection implements Connection {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Reader getJSON(String urlString) {
+            calls.incrementAndGet();
+            Matcher matcher = SYMS.matcher(urlString);
+            assertTrue(matcher.find());
+            assertTrue(matcher.group(1).length() <= Market.MAX_FSYMS_LENGTH);
+            assertTrue(matcher.group(2).length() <= Market.MAX_TSYMS_LENGTH);
+
+            StringBuilder json = new StringBuilder("{");
+            for (String f : matcher.group(1).split(",")) {
+                if (json.length() > 1) json.append(',');
+                json.append('"').append(f).append("\":{");
+                String[] tSyms = matcher.group(2).split(",");
+                for (int i = 0; i < tSyms.length; i++) {
+                    if (i > 0) json.append(',');
+                    json.append('"').append(tSyms[i]).append("\":1");
+                }
+                json.append('}');
+            }
+            return new StringReader(json.append('}').toString());
+        }
+
+        @Override
+        public Reader getJSON(String urlString, CallTypes type) throws OutOfCallsException {
+            return getJSON(urlString);
+        }
+    }
+
+    private static List<String> symbols(int count) {
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            symbols.add("C" + Integer.toString(i, 36));
+        }
+        return symbols;
+    }
+
+    @Test
+    void shouldPartitionIntoFewFullBatches() throws Exception {
+        List<String> symbols = symbols(1500);
+        symbols.add("c0");
+        List<String> batches = Market.partition(symbols, Market.MAX_FSYMS_LENGTH, "fSyms");
+
+        Set<String> seen = new HashSet<>();
+        int length = 0;
+        for (String batch : batches) {
+            assertTrue(batch.length() <= Market.MAX_FSYMS_LENGTH);
+            for (String symbol : batch.split(",")) {
+                assertTrue(seen.add(symbol));
+                length += symbol.length() + 1;
+            }
+        }
+        assertEquals(1500, seen.size());
+        int fewest = (length + Market.MAX_FSYMS_LENGTH) / (Market.MAX_FSYMS_LENGTH + 1);
+        assertTrue(batches.size() <= fewest + 1);
+    }
+
+    @Test
+    void shouldMergeParallelBatches() throws Exception {
+        FakeMultiConnection connection = new FakeMultiConnection();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Market market = new Market(connection, executor);
+            List<String> tSyms = symbols(30);
+
+            Map<String, Map<String, Double>> prices = market.getMultiPrice(symbols(1500), tSyms);
+            assertEquals(1500, prices.size());
+            for (Map<String, Double> price : prices.values()) {
+                assertEquals(30, price.size());
+            }
+
+            int calls = connection.calls.get();
+            Map<String, Map<String, Double>> async = new AsyncMarket(market, executor)
+                    .getMultiPrice(symbols(1500), tSyms).get(10, TimeUnit.SECONDS);
+            assertEquals(prices, async);
+            assertEquals(calls * 2, connection.calls.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldNotRequestBatchesAfterOneFailed() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Connection failing = new FakeMultiConnection() {
+            @Override
+            public Reader getJSON(String urlString) {
+                calls.incrementAndGet();
+                throw new IllegalStateException("Unavailable");
+            }
+        };
+        List<Runnable> queued = new ArrayList<>();
+
+        assertThrows(IllegalStateException.class, () -> new Market(failing, Runnable::run).getMultiPrice(symbols(1500), symbols(30)));
+        assertEquals(1, calls.get());
+
+        CompletableFuture<Map<String, Map<String, Double>>> prices = new AsyncMarket(new Market(failing, queued::add), Runnable::run)
+                .getMultiPrice(symbols(1500), symbols(30));
+        assertTrue(queued.size() > 1);
+        for (Runnable batch : queued) {
+            batch.run();
+        }
+        assertThrows(ExecutionException.class, prices::get);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void shouldWaitForCallsAndBoundBatchesInFlight() throws Exception {
+        AtomicBoolean outOfCalls = new AtomicBoolean(true);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger mostInFlight = new AtomicInteger();
+        FakeMultiConnection connection = new FakeMultiConnection() {
+            @Override
+            public Reader getJSON(String urlString, CallTypes type) throws OutOfCallsException {
+                mostInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    if (outOfCalls.compareAndSet(true, false)) {
+                        throw new OutOfCallsException("You are out of calls");
+                    }
+                    return getJSON(urlString);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Market market = new Market(connection, executor);
+            market.setBatchConcurrency(2);
+
+            Map<String, Map<String, Double>> prices = market.getMultiPrice(symbols(1500), symbols(30));
+            assertEquals(1500, prices.size());
+            int batches = Market.partition(symbols(1500), Market.MAX_FSYMS_LENGTH, "fSyms").size()
+                    * Market.partition(symbols(30), Market.MAX_TSYMS_LENGTH, "tSyms").size();
+            assertTrue(batches > 2);
+            assertEquals(batches, connection.calls.get());
+            assertFalse(outOfCalls.get());
+            assertTrue(mostInFlight.get() <= 2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRefreshPriceMatrixInPlace() throws Exception {
+        FakeMultiConnection connection = new FakeMultiConnection();
+        Market market = new Market(connection, Runnable::run);
+        PriceMatrix matrix = new PriceMatrix(symbols(1500), symbols(30));
+
+        assertTrue(Double.isNaN(matrix.get(0, 0)));
+        market.refresh(matrix);
+        assertEquals(connection.calls.get(), matrix.getVersion());
+        for (int f = 0; f < matrix.fromCount(); f++) {
+            for (int t = 0; t < matrix.toCount(); t++) {
+                assertEquals(1.0, matrix.get(f, t));
+            }
+        }
+        assertEquals(1.0, matrix.get("c1", "c2"));
+        assertTrue(Double.isNaN(matrix.get("BTC", "c2")));
+    }
+
+    @Test
+    void shouldRefreshPastTheCache() throws Exception {
+        FakeMultiConnection connection = new FakeMultiConnection();
+        CachingConnection cache = new CachingConnection(connection);
+        cache.setTtl("/data/pricemulti", 1, TimeUnit.MINUTES);
+        Market market = new Market(cache, Runnable::run);
+        List<String> fSyms = Arrays.asList("BTC", "ETH");
+        List<String> tSyms = Arrays.asList("USD", "EUR");
+
+        assertEquals(1.0, (double) market.getMultiPrice(fSyms, tSyms).get("ETH").get("EUR"));
+        PriceMatrix matrix = new PriceMatrix(fSyms, tSyms);
+        market.refresh(matrix);
+        market.refresh(matrix);
+        assertEquals(1.0, matrix.get("ETH", "EUR"));
+        assertEquals(2, matrix.getVersion());
+        assertEquals(3, connection.calls.get());
+        assertEquals(1.0, (double) market.getMultiPrice(fSyms, tSyms).get("BTC").get("USD"));
+        assertEquals(3, connection.calls.get());
+    }
+
+    @Test
+    void shouldStreamOnlyKnownPricesIntoBlock() throws Exception {
+        PriceMatrix matrix = new PriceMatrix(Arrays.asList("BTC", "ETH"), Arrays.asList("USD", "EUR"));
+        double[] block = matrix.parseBlock(new StringReader(
+                "{\"BTC\":{\"USD\":100.5,\"EUR\":null,\"JPY\":1},\"XRP\":{\"USD\":1},\"ETH\":{\"EUR\":\"7\"}}"),
+                new int[]{0, 2}, new int[]{0, 2});
+
+        assertEquals(100.5, block[0]);
+        assertTrue(Double.isNaN(block[1]));
+        assertTrue(Double.isNaN(block[2]));
+        assertEquals(7.0, block[3]);
+    }
+}
@@ -0,0 +1,98 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
+import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewsFeedTest {
+    /**
+     * Serves pages of three stories, newest first, published in the second matching their ID
+     */
+    private static class FakeNewsConnection implements Connection {
+        private final List<String> urls = new ArrayList<>();
+        private int newest;
+        private boolean failOlderPages;
+
+        @Override
+        public Reader getJSON(String urlString) throws IOException {
+            urls.add(urlString);
+            if (failOlderPages && urlString.contains("lTs=")) throw new IOException("Connection reset");
+            int lTs = urlString.contains("lTs=")
+                    ? Integer.parseInt(urlString.substring(urlString.indexOf("lTs=") + 4)) : Integer.MAX_VALUE;
+            StringBuilder json = new StringBuilder("[");
+            for (int id = Math.min(newest, lTs - 1), count = 0; id > 0 && count < 3; id--, count++) {
+                if (count > 0) json.append(',');
+                json.append("{\"id\":").append(id).append(",\"guid\":\"g").append(id)
+                        .append("\",\"published_on\":").append(id).append(",\"body\":\"...\"}");
+            }
+            return new StringReader(json.append(']').toString());
+        }
+
+        @Override
+        public Reader getJSON(String urlString, CallTypes type) throws IOException {
+            return getJSON(urlString);
+        }
+    }
+
+    private static List<Integer> ids(List<News.NewsStory> stories) {
+        return stories.stream().map(News.NewsStory::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void shouldOnlyDeliverNewStories() throws Exception {
+        FakeNewsConnection connection = new FakeNewsConnection();
+        NewsFeed feed = new NewsFeed(new News(connection));
+        List<Integer> delivered = new ArrayList<>();
+        feed.addListener(stories -> delivered.addAll(ids(stories)));
+
+        connection.newest = 3;
+        assertEquals(Arrays.asList(1, 2, 3), ids(feed.poll()));
+        assertEquals(3, feed.getLastPublishedOn());
+
+        connection.newest = 5;
+        connection.urls.clear();
+        assertEquals(Arrays.asList(4, 5), ids(feed.poll()));
+        assertEquals(1, connection.urls.size());
+
+        // More new stories than fit on a page are caught up with older pages
+        connection.newest = 9;
+        connection.urls.clear();
+        assertEquals(Arrays.asList(6, 7, 8, 9), ids(feed.poll()));
+        assertEquals(2, connection.urls.size());
+        assertTrue(connection.urls.get(1).endsWith("?lTs=8"));
+
+        assertTrue(feed.poll().isEmpty());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9), delivered);
+        assertEquals(9, feed.getLastId());
+    }
+
+    @Test
+    void shouldDeliverStoriesReadBeforeAFailedPageLater() throws Exception {
+        FakeNewsConnection connection = new FakeNewsConnection();
+        NewsFeed feed = new NewsFeed(new News(connection));
+        List<Integer> delivered = new ArrayList<>();
+        feed.addListener(stories -> delivered.addAll(ids(stories)));
+
+        connection.newest = 3;
+        feed.poll();
+
+        connection.newest = 12;
+        connection.failOlderPages = true;
+        assertThrows(IOException.class, feed::poll);
+        assertEquals(3, feed.getLastPublishedOn());
+
+        connection.failOlderPages = false;
+        assertEquals(Arrays.asList(4, 5, 6, 7, 8, 9, 10, 11, 12), ids(feed.poll()));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12), delivered);
+    }
+}
@@ -0,0 +1,59 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.Json;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewsIndexTest {
+    private static News.NewsStory story(int id, int publishedOn, String title, String body, String tags) {
+        String json = String.format("{\"id\":%d,\"published_on\":%d,\"title\":\"%s\",\"body\":\"%s\",\"tags\":\"%s\"}",
+                id, publishedOn, title, body, tags);
+        return Json.getGson().fromJson(json, News.NewsStory.class);
+    }
+
+    private static List<Integer> ids(List<News.NewsStory> stories) {
+        return stories.stream().map(News.NewsStory::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void shouldAnswerBooleanAndTimeBoundedQueries() {
+        NewsIndex index = new NewsIndex();
+        index.addAll(Arrays.asList(
+                story(1, 1000, "Bitcoin rallies", "BTC broke resistance.", "BTC|Trading"),
+                story(2, 2000, "Ethereum upgrade", "ETH fees drop, BTC flat.", "ETH|Bitcoin Cash"),
+                story(3, 4000, "Regulation news", "Nothing about coins.", "Regulation"),
+                story(4, 6000, "BTC and ETH", "Both move.", "BTC|ETH")));
+
+        assertEquals(Arrays.asList(4, 2, 1), ids(index.search(NewsIndex.Query.term("btc"))));
+        assertEquals(Arrays.asList(4, 2), ids(index.search(NewsIndex.Query.all("BTC", "eth"))));
+        assertEquals(Arrays.asList(4, 3, 2), ids(index.search(NewsIndex.Query.any("regulation", "ETH"))));
+        assertEquals(Collections.singletonList(1), ids(index.search(NewsIndex.Query.term("btc").andNot(NewsIndex.Query.term("eth")))));
+        assertEquals(Collections.singletonList(2), ids(index.search(NewsIndex.Query.term("Bitcoin Cash"))));
+        assertEquals(Collections.singletonList(2), ids(index.search(NewsIndex.Query.term("btc"), 1500, 4600)));
+        assertEquals(Collections.singletonList(4), ids(index.searchRecent(NewsIndex.Query.term("btc"), 1, TimeUnit.HOURS)));
+        assertEquals(0, index.count(NewsIndex.Query.term("missing"), 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void shouldRetainLimitedNumberAndAgeOfStories() {
+        NewsIndex index = new NewsIndex(3, 0, TimeUnit.SECONDS);
+        for (int id = 1; id <= 10; id++) {
+            index.add(story(id, id * 100, "Story " + id, "common", "T" + id));
+        }
+        assertEquals(3, index.size());
+        assertEquals(Arrays.asList(10, 9, 8), ids(index.search(NewsIndex.Query.term("common"))));
+        assertTrue(index.search(NewsIndex.Query.term("t1")).isEmpty());
+        assertTrue(index.getTermCount() < 20);
+
+        index.setMaxAge(150, TimeUnit.SECONDS);
+        index.add(story(11, 1100, "Story 11", "common", ""));
+        assertEquals(Arrays.asList(11, 10), ids(index.search(NewsIndex.Query.term("common"))));
+    }
+}
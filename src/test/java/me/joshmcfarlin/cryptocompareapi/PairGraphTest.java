@@ -0,0 +1,120 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
+import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PairGraphTest {
+    private static PairGraph graph() throws Exception {
+        String json = "{\"Alpha\":{\"ETH\":[\"BTC\",\"USD\"],\"BTC\":[\"USD\"]},\"Beta\":{\"ETH\":[\"USD\"]}}";
+        Exchanges exchanges = new Exchanges(new Connection() {
+            @Override
+            public Reader getJSON(String urlString) {
+                return new StringReader(json);
+            }
+
+            @Override
+            public Reader getJSON(String urlString, CallTypes type) {
+                return getJSON(urlString);
+            }
+        });
+
+        PairGraph graph = new PairGraph(exchanges.getAllExchanges());
+        graph.update("Alpha", "ETH", "BTC", 0.05);
+        graph.update("Alpha", "BTC", "USD", 20000);
+        graph.update("Alpha", "ETH", "USD", 1000);
+        return graph;
+    }
+
+    @Test
+    void shouldFindBestPathAcrossExchanges() throws Exception {
+        PairGraph graph = graph();
+        assertEquals(3, graph.getNodeCount());
+        assertEquals(8, graph.getEdgeCount());
+        assertFalse(graph.update("Beta", "BTC", "USD", 1));
+
+        PairGraph.Path direct = graph.findBestPath("BTC", "USD");
+        assertEquals(20000, direct.getRate(), 1e-6);
+
+        assertTrue(graph.update("Beta", "USD", "ETH", 1 / 1100.0));
+        graph.setMaxHops(1);
+        assertEquals(1, graph.findBestPath("BTC", "USD").getEdges().size());
+
+        graph.setMaxHops(2);
+        PairGraph.Path best = graph.findBestPath("BTC", "USD");
+        assertEquals(Arrays.asList("BTC", "ETH", "USD"), best.getSymbols());
+        assertEquals("Beta", best.getEdges().get(1).getExchange());
+        assertEquals(22000, best.getRate(), 1e-6);
+        assertNull(graph.findBestPath("BTC", "EUR"));
+    }
+
+    @Test
+    void shouldDetectArbitrageIncrementally() throws Exception {
+        PairGraph graph = graph();
+        assertTrue(graph.findArbitrage().isEmpty());
+
+        graph.update("Beta", "ETH", "USD", 1100);
+        List<PairGraph.Path> cycles = graph.findArbitrage();
+        assertEquals(1, cycles.size());
+        assertEquals(1.1, cycles.get(0).getRate(), 1e-9);
+        assertEquals(2, cycles.get(0).getEdges().size());
+
+        graph.setFee(0.05);
+        assertTrue(graph.findArbitrage().isEmpty());
+        graph.setFee(0);
+        assertEquals(1, graph.findArbitrage().size());
+
+        graph.update("Beta", "ETH", "USD", 1000);
+        assertTrue(graph.findArbitrage().isEmpty());
+        graph.update("Beta", "ETH", "USD", 990);
+        assertEquals(1000 / 990.0, graph.findArbitrage().get(0).getRate(), 1e-9);
+        graph.update("Beta", "ETH", "USD", 1200);
+        assertEquals(1.2, graph.findArbitrage().get(0).getRate(), 1e-9);
+    }
+
+    @Test
+    void shouldFindTheSameArbitrageAsAFreshSearch() throws Exception {
+        String json = "{\"Alpha\":{\"A\":[\"B\",\"C\",\"D\"],\"B\":[\"C\",\"E\"],\"C\":[\"E\"]},"
+                + "\"Beta\":{\"A\":[\"C\",\"E\"],\"B\":[\"D\"],\"D\":[\"E\"]}}";
+        Exchanges.ExchangeList exchanges = new Exchanges(new Connection() {
+            @Override
+            public Reader getJSON(String urlString) {
+                return new StringReader(json);
+            }
+
+            @Override
+            public Reader getJSON(String urlString, CallTypes type) {
+                return getJSON(urlString);
+            }
+        }).getAllExchanges();
+        String[][] pairs = {{"Alpha", "A", "B"}, {"Alpha", "A", "C"}, {"Alpha", "A", "D"}, {"Alpha", "B", "C"},
+                {"Alpha", "B", "E"}, {"Alpha", "C", "E"}, {"Beta", "A", "C"}, {"Beta", "A", "E"}, {"Beta", "B", "D"},
+                {"Beta", "D", "E"}};
+        double[] values = {1, 2, 3, 2, 5, 2.5, 2, 5, 3, 5 / 3.0};
+        double[] prices = new double[pairs.length];
+
+        PairGraph incremental = new PairGraph(exchanges);
+        incremental.setFee(0.005);
+        Random random = new Random(42);
+        for (int tick = 0; tick < 2000; tick++) {
+            int pair = random.nextInt(pairs.length);
+            prices[pair] = random.nextInt(10) == 0 ? Double.NaN : values[pair] * (1 + (random.nextDouble() - 0.5) * 0.02);
+            incremental.update(pairs[pair][0], pairs[pair][1], pairs[pair][2], prices[pair]);
+
+            PairGraph fresh = new PairGraph(exchanges);
+            fresh.setFee(0.005);
+            for (int i = 0; i < pairs.length; i++) {
+                fresh.update(pairs[i][0], pairs[i][1], pairs[i][2], prices[i]);
+            }
+            assertEquals(fresh.findArbitrage().isEmpty(), incremental.findArbitrage().isEmpty(), "tick " + tick);
+        }
+    }
+}
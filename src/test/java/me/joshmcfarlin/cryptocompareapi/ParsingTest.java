@@ -0,0 +1,161 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
+import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import me.joshmcfarlin.cryptocompareapi.utils.Json;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParsingTest {
+    @Test
+    void shouldParseHistory() {
+        String json = "{\"Response\":\"Success\",\"Type\":100,\"Aggregated\":false,\"HasWarning\":false,"
+                + "\"Data\":[{\"time\":1541030400,\"close\":6371.42,\"high\":6387.1,\"low\":6294.37,\"open\":6317.54,"
+                + "\"volumefrom\":40513.43,\"volumeto\":258181349.62,\"conversionType\":\"direct\"}],"
+                + "\"TimeTo\":1541030400,\"TimeFrom\":1541030400,\"FirstValueInArray\":true,"
+                + "\"ConversionType\":{\"type\":\"force_direct\",\"conversionSymbol\":\"\"}}";
+
+        Historic.History history = Json.getGson().fromJson(json, Historic.History.class);
+        assertEquals("Success", history.getResponse());
+        assertEquals(100, history.getType());
+        assertEquals(1, history.getData().size());
+        assertEquals(1541030400, history.getData().get(0).getTime());
+        assertEquals(6387.1, history.getData().get(0).getHigh());
+        assertEquals(258181349.62, history.getData().get(0).getVolumeTo());
+        assertEquals("force_direct", history.getConversionType().getType());
+        assertTrue(history.isFirstValueInArray());
+    }
+
+    @Test
+    void shouldParseHistoryColumns() {
+        StringBuilder json = new StringBuilder("{\"Response\":\"Success\",\"TimeFrom\":0,\"TimeTo\":29940,\"Data\":[");
+        for (int i = 0; i < 500; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"time\":").append(i * 60).append(",\"open\":").append(i).append(",\"close\":").append(i + 0.5).append('}');
+        }
+        json.append("]}");
+
+        Historic.HistoryColumns columns = Json.getGson().fromJson(json.toString(), Historic.HistoryColumns.class);
+        assertEquals(500, columns.size());
+        assertEquals(500, columns.getTime().length);
+        assertEquals(29940, columns.getTime()[499]);
+        assertEquals(499.5, columns.getClose()[499]);
+        assertEquals(10, columns.indexOf(541));
+        assertEquals(500, columns.indexOf(100000));
+    }
+
+    @Test
+    void shouldParseToSymWithStringNumbers() {
+        String json = "{\"TYPE\":\"5\",\"MARKET\":\"CCCAGG\",\"FROMSYMBOL\":\"BTC\",\"TOSYMBOL\":\"USD\",\"FLAGS\":\"4\","
+                + "\"PRICE\":6371.42,\"LASTUPDATE\":1541030400,\"LASTTRADEID\":298237132,\"MKTCAP\":\"1.1e11\",\"IMAGEURL\":\"/x.png\"}";
+
+        Market.toSym toSym = Json.getGson().fromJson(json, Market.toSym.class);
+        assertEquals("BTC", toSym.getFromSymbol());
+        assertEquals(4, toSym.getFlags());
+        assertEquals(6371.42, toSym.getPrice());
+        assertEquals(1541030400, toSym.getLastUpdate());
+        assertEquals("298237132", toSym.getLastTradeID());
+        assertEquals(1.1e11, toSym.getMarketCap());
+    }
+
+    @Test
+    void shouldParseCoinList() {
+        String json = "{\"Response\":\"Success\",\"Message\":\"Coin list succesfully returned!\",\"BaseImageUrl\":\"https://x\","
+                + "\"Data\":{\"BTC\":{\"Id\":\"1182\",\"Url\":\"/coins/btc/overview\",\"Name\":\"BTC\",\"Symbol\":\"BTC\","
+                + "\"CoinName\":\"Bitcoin\",\"TotalCoinSupply\":\"21000000\",\"SortOrder\":\"1\",\"Sponsored\":false}}}";
+
+        Coins.CoinList coinList = Json.getGson().fromJson(json, Coins.CoinList.class);
+        Coins.CoinList.CoinEntry btc = coinList.getCoins().get("BTC");
+        assertEquals(1182, btc.getId());
+        assertEquals("Bitcoin", btc.getCoinName());
+        assertEquals(1, btc.getSortOrder());
+        assertFalse(btc.getSponsored());
+    }
+
+    @Test
+    void shouldStreamCoinListWithProjection() throws Exception {
+        String json = "{\"Response\":\"Success\",\"Data\":{\"BTC\":{\"Id\":\"1182\",\"Symbol\":\"BTC\",\"ImageUrl\":\"/btc.png\"},"
+                + "\"NULL\":null,\"ETH\":{\"Id\":\"7605\",\"Symbol\":\"ETH\",\"ImageUrl\":\"/eth.png\"}}}";
+        Coins coins = new Coins(new Connection() {
+            @Override
+            public Reader getJSON(String urlString) {
+                return new StringReader(json);
+            }
+
+            @Override
+            public Reader getJSON(String urlString, CallTypes type) {
+                return getJSON(urlString);
+            }
+        });
+
+        List<Coins.CoinList.CoinEntry> entries = new ArrayList<>();
+        int count = coins.streamCoinList(EnumSet.of(Coins.CoinList.CoinEntry.Field.SYMBOL), entries::add);
+        assertEquals(2, count);
+        assertEquals("ETH", entries.get(1).getSymbol());
+        assertEquals(0, entries.get(1).getId());
+        assertNull(entries.get(0).getImageUrl());
+    }
+
+    @Test
+    void shouldIndexExchangesByPair() throws Exception {
+        String json = "{\"Alpha\":{\"ETH\":[\"BTC\",\"USD\"],\"LTC\":[]},\"Beta\":{\"ETH\":[\"BTC\"]},"
+                + "\"Gamma\":{\"ETH\":[\"USD\"],\"BTC\":[\"USD\"]}}";
+        Exchanges exchanges = new Exchanges(new Connection() {
+            @Override
+            public Reader getJSON(String urlString) {
+                return new StringReader(json);
+            }
+
+            @Override
+            public Reader getJSON(String urlString, CallTypes type) {
+                return getJSON(urlString);
+            }
+        });
+
+        Exchanges.ExchangeList list = exchanges.getAllExchanges();
+        assertEquals(Arrays.asList("Alpha", "Beta"), sorted(list.getExchangesTrading("ETH", "BTC")));
+        assertEquals(Arrays.asList("Alpha", "Gamma"), sorted(list.getExchangesTrading("ETH", "USD")));
+        assertTrue(list.getExchangesTrading("LTC", "BTC").isEmpty());
+        assertTrue(list.getExchangesTrading("NOPE", "BTC").isEmpty());
+        assertTrue(list.isTrading("Gamma", "BTC", "USD"));
+        assertFalse(list.isTrading("Beta", "BTC", "USD"));
+
+        BitSet both = list.getExchangeIds("ETH", "BTC");
+        both.and(list.getExchangeIds("ETH", "USD"));
+        assertEquals(Collections.singletonList("Alpha"), list.getExchangeNames(both));
+        assertEquals(2, list.getExchangeIds("ETH", "BTC").cardinality());
+    }
+
+    private static List<String> sorted(List<String> names) {
+        List<String> copy = new ArrayList<>(names);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    @Test
+    void shouldOnlyParseRequestedField() throws IOException {
+        String json = "{\"RAW\":{\"BTC\":{\"USD\":{\"PRICE\":1.5}}},\"DISPLAY\":{\"BTC\":{\"USD\":{\"PRICE\":\"$ 1.5\"}}}}";
+
+        Map<?, ?> raw = Json.<Map<?, ?>>fieldParser("RAW", Map.class).parse(new StringReader(json));
+        assertTrue(raw.containsKey("BTC"));
+        assertNull(Json.fieldParser("MISSING", Map.class).parse(new StringReader(json)));
+    }
+
+    @Test
+    void shouldWriteModelsWithReflection() {
+        Market.toSym toSym = Json.getGson().fromJson("{\"PRICE\":2.5}", Market.toSym.class);
+        assertTrue(Json.getGson().toJson(toSym).contains("\"PRICE\":2.5"));
+    }
+}
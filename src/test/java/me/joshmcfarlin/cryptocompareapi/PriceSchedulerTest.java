@@ -0,0 +1,137 @@
+package me.joshmcfarlin.cryptocompareapi;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.OutOfCallsException;
+import me.joshmcfarlin.cryptocompareapi.utils.CallTypes;
+import me.joshmcfarlin.cryptocompareapi.utils.Connection;
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceSchedulerTest {
+    private static final Pattern SYMS = Pattern.compile("fsyms=([^&]+)&tsyms=([^&]+)");
+
+    /**
+     * Answers pricemultifull calls with the current price of every requested pair
+     */
+    private static class FakeFullConnection implements Connection {
+        private final Map<String, Double> prices = new ConcurrentHashMap<>();
+        private final List<String> urls = new CopyOnWriteArrayList<>();
+        private volatile boolean outOfCalls;
+
+        @Override
+        public Reader getJSON(String urlString) {
+            urls.add(urlString);
+            Matcher matcher = SYMS.matcher(urlString);
+            assertTrue(matcher.find());
+
+            StringBuilder json = new StringBuilder("{\"RAW\":{");
+            String[] fSyms = matcher.group(1).split(",");
+            String[] tSyms = matcher.group(2).split(",");
+            for (int f = 0; f < fSyms.length; f++) {
+                if (f > 0) json.append(',');
+                json.append('"').append(fSyms[f]).append("\":{");
+                for (int t = 0; t < tSyms.length; t++) {
+                    if (t > 0) json.append(',');
+                    json.append('"').append(tSyms[t]).append("\":{\"PRICE\":")
+                            .append(prices.getOrDefault(fSyms[f] + "/" + tSyms[t], 1.0)).append(",\"LASTUPDATE\":1}");
+                }
+                json.append('}');
+            }
+            return new StringReader(json.append("}}").toString());
+        }
+
+        @Override
+        public Reader getJSON(String urlString, CallTypes type) throws OutOfCallsException {
+            if (outOfCalls) throw new OutOfCallsException("No more PRICE calls are left");
+            return getJSON(urlString);
+        }
+    }
+
+    @Test
+    void shouldOnlyNotifyChangedPairs() throws Exception {
+        FakeFullConnection connection = new FakeFullConnection();
+        Market market = new Market(connection, Runnable::run);
+        market.getScheduler().setTick(5);
+        BlockingQueue<Map<String, Map<String, Market.toSym>>> changes = new LinkedBlockingQueue<>();
+
+        PriceScheduler.Subscription subscription = market.subscribe(Arrays.asList("BTC", "eth"), Collections.singleton("USD"),
+                10, TimeUnit.MILLISECONDS, changes::add);
+        try {
+            Map<String, Map<String, Market.toSym>> first = changes.poll(5, TimeUnit.SECONDS);
+            assertEquals(2, first.size());
+            assertNull(changes.poll(100, TimeUnit.MILLISECONDS));
+
+            connection.prices.put("BTC/USD", 2.0);
+            Map<String, Map<String, Market.toSym>> changed = changes.poll(5, TimeUnit.SECONDS);
+            assertEquals(Collections.singleton("BTC"), changed.keySet());
+            assertEquals(2.0, changed.get("BTC").get("USD").getPrice());
+        } finally {
+            subscription.cancel();
+        }
+        assertEquals(0, market.getScheduler().getSubscriptionCount());
+    }
+
+    @Test
+    void shouldOnlyRequestSubscribedPairs() throws Exception {
+        FakeFullConnection connection = new FakeFullConnection();
+        Market market = new Market(connection, Runnable::run);
+        market.getScheduler().setTick(5);
+        BlockingQueue<Map<String, Map<String, Market.toSym>>> usd = new LinkedBlockingQueue<>();
+        BlockingQueue<Map<String, Map<String, Market.toSym>>> eur = new LinkedBlockingQueue<>();
+
+        PriceScheduler.Subscription first = market.subscribe(Collections.singleton("BTC"), Collections.singleton("USD"),
+                1, TimeUnit.HOURS, usd::add);
+        PriceScheduler.Subscription second = market.subscribe(Collections.singleton("ETH"), Collections.singleton("EUR"),
+                1, TimeUnit.HOURS, eur::add);
+        try {
+            assertEquals(Collections.singleton("BTC"), usd.poll(5, TimeUnit.SECONDS).keySet());
+            assertEquals(Collections.singleton("ETH"), eur.poll(5, TimeUnit.SECONDS).keySet());
+            for (String url : connection.urls) {
+                assertTrue(url.contains("fsyms=BTC&tsyms=USD") || url.contains("fsyms=ETH&tsyms=EUR"), url);
+            }
+        } finally {
+            first.cancel();
+            second.cancel();
+        }
+    }
+
+    @Test
+    void shouldReportSubscriptionsStarvedByTheRateLimit() throws Exception {
+        FakeFullConnection connection = new FakeFullConnection();
+        connection.outOfCalls = true;
+        Market market = new Market(connection, Runnable::run);
+        market.getScheduler().setTick(5);
+        BlockingQueue<Exception> errors = new LinkedBlockingQueue<>();
+
+        PriceScheduler.Subscription subscription = market.subscribe(Collections.singleton("BTC"), Collections.singleton("USD"),
+                20, TimeUnit.MILLISECONDS, new PriceScheduler.Listener() {
+                    @Override
+                    public void onChange(Map<String, Map<String, Market.toSym>> changed) {
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        errors.add(e);
+                    }
+                });
+        try {
+            assertTrue(errors.poll(5, TimeUnit.SECONDS) instanceof OutOfCallsException);
+        } finally {
+            subscription.cancel();
+        }
+    }
+}
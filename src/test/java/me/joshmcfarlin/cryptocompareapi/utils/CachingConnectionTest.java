@@ -0,0 +1,126 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingConnectionTest {
+    private static final String COIN_LIST = "https://min-api.cryptocompare.com/data/all/coinlist";
+    private static final String PRICE = "https://min-api.cryptocompare.com/data/price?fsym=BTC&tsyms=USD";
+    private static final String HISTO = "https://min-api.cryptocompare.com/data/histoday?fsym=BTC&tsym=USD";
+
+    /**
+     * Answers every request with the number of requests made so far
+     */
+    private static class CountingConnection implements Connection {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Reader getJSON(String urlString) {
+            return new StringReader(String.valueOf(calls.incrementAndGet()));
+        }
+
+        @Override
+        public Reader getJSON(String urlString, CallTypes type) {
+            return getJSON(urlString);
+        }
+    }
+
+    private static final ResponseParser<Integer> INT = r -> Json.getGson().fromJson(r, Integer.class);
+
+    @Test
+    void shouldKeepResponsesForTheirPathsTtl() throws Exception {
+        AtomicLong now = new AtomicLong();
+        CountingConnection delegate = new CountingConnection();
+        CachingConnection cache = new CachingConnection(delegate, 16, CachingConnection.EvictionPolicy.LRU, now::get);
+        cache.setTtl("/data/price", 10, TimeUnit.SECONDS);
+
+        assertEquals(1, (int) cache.getJSON(COIN_LIST, CallTypes.PRICE, INT));
+        assertEquals(2, (int) cache.getJSON(PRICE, CallTypes.PRICE, INT));
+        assertEquals(3, (int) cache.getJSON(HISTO, CallTypes.HISTO, INT));
+        assertEquals(4, (int) cache.getJSON(HISTO, CallTypes.HISTO, INT));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        assertEquals(1, (int) cache.getJSON(COIN_LIST, CallTypes.PRICE, INT));
+        assertEquals(5, (int) cache.getJSON(PRICE, CallTypes.PRICE, INT));
+
+        cache.setTtl("/data/price", 0, TimeUnit.SECONDS);
+        assertEquals(6, (int) cache.getJSON(PRICE, CallTypes.PRICE, INT));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    void shouldNotCachePricesByDefault() throws Exception {
+        CountingConnection delegate = new CountingConnection();
+        CachingConnection cache = new CachingConnection(delegate);
+
+        assertEquals(1, (int) cache.getJSON(PRICE, CallTypes.PRICE, INT));
+        assertEquals(2, (int) cache.getJSON(PRICE, CallTypes.PRICE, INT));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldKeepResponsesForEachParserAndFreezeThem() throws Exception {
+        CountingConnection delegate = new CountingConnection();
+        CachingConnection cache = new CachingConnection(delegate);
+
+        List<Integer> list = cache.getJSON(COIN_LIST, CallTypes.PRICE, r -> new ArrayList<>(Collections.singletonList(INT.parse(r))));
+        assertEquals(Collections.singletonList(1), list);
+        assertThrows(UnsupportedOperationException.class, () -> list.add(2));
+
+        // A parser with another key makes its own request
+        assertEquals(2, (int) cache.getJSON(COIN_LIST, CallTypes.PRICE, INT));
+        assertEquals(2, (int) cache.getJSON(COIN_LIST, CallTypes.PRICE, INT));
+        assertEquals(3, (int) cache.getJSON(COIN_LIST, CallTypes.PRICE, ResponseParser.keyed("a", INT)));
+        assertEquals(4, (int) cache.getJSON(COIN_LIST, CallTypes.PRICE, ResponseParser.keyed("b", INT)));
+        assertEquals(3, (int) cache.getJSON(COIN_LIST, CallTypes.PRICE, ResponseParser.keyed("a", INT)));
+
+        Map<String, Map<String, Double>> nested = cache.getJSON(COIN_LIST, CallTypes.PRICE, ResponseParser.keyed("map", r -> {
+            Map<String, Map<String, Double>> map = new HashMap<>();
+            map.put("BTC", new HashMap<>(Collections.singletonMap("USD", 1.0)));
+            return map;
+        }));
+        assertThrows(UnsupportedOperationException.class, () -> nested.get("BTC").put("EUR", 2.0));
+        assertEquals(5, delegate.calls.get());
+    }
+
+    @Test
+    void shouldTellParsersApartThroughAMeteredConnection() throws Exception {
+        CountingConnection delegate = new CountingConnection();
+        Connection connection = new MeteredConnection(new CachingConnection(delegate), new InMemoryMetrics());
+        ResponseParser<String> text = r -> "#" + Json.getGson().fromJson(r, Integer.class);
+
+        assertEquals(1, (int) connection.getJSON(COIN_LIST, CallTypes.OTHER, INT));
+        assertEquals("#2", connection.getJSON(COIN_LIST, CallTypes.OTHER, text));
+        assertEquals(1, (int) connection.getJSON(COIN_LIST, CallTypes.OTHER, INT));
+        assertEquals(2, delegate.calls.get());
+    }
+
+    @Test
+    void shouldEvictLeastFrequentlyUsedResponse() throws Exception {
+        AtomicLong now = new AtomicLong();
+        CountingConnection delegate = new CountingConnection();
+        CachingConnection cache = new CachingConnection(delegate, 2, CachingConnection.EvictionPolicy.LFU, now::get);
+        cache.setTtl("/data/price", 10, TimeUnit.SECONDS);
+
+        cache.getJSON(COIN_LIST, CallTypes.PRICE, INT);
+        cache.getJSON(COIN_LIST, CallTypes.PRICE, INT);
+        cache.getJSON(PRICE + "1", CallTypes.PRICE, INT);
+        cache.getJSON(PRICE + "2", CallTypes.PRICE, INT);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(1, (int) cache.getJSON(COIN_LIST, CallTypes.PRICE, INT));
+        assertEquals(3, (int) cache.getJSON(PRICE + "2", CallTypes.PRICE, INT));
+        assertEquals(3, delegate.calls.get());
+    }
+}
@@ -0,0 +1,104 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.CircuitOpenException;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.HttpStatusException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerConnectionTest {
+    private static final String SNAPSHOT = "https://www.cryptocompare.com/api/data/coinsnapshot/?fsym=BTC&tsym=USD";
+    private static final String PRICE = "https://min-api.cryptocompare.com/data/price?fsym=BTC&tsyms=USD";
+
+    /**
+     * Times out every request to the legacy host while it is down
+     */
+    private static class DegradedConnection implements Connection {
+        private volatile boolean down = true;
+        private int calls;
+
+        @Override
+        public Reader getJSON(String urlString) throws IOException {
+            calls++;
+            if (down && urlString.startsWith("https://www.")) throw new SocketTimeoutException("Read timed out");
+            return new StringReader("{\"url\":\"" + urlString + "\"}");
+        }
+    }
+
+    private static final ResponseParser<String> READ = r -> new BufferedReader(r).lines().collect(Collectors.joining());
+
+    @Test
+    void shouldOpenAndProbeEachEndpoint() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        DegradedConnection degraded = new DegradedConnection();
+        CircuitBreakerConnection connection = new CircuitBreakerConnection(degraded, CircuitBreakerConnection.Scope.ENDPOINT, clock::get);
+        connection.setFailureThreshold(3);
+        connection.setOpenTime(10, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(SocketTimeoutException.class, () -> connection.getJSON(SNAPSHOT));
+        }
+        assertEquals(CircuitBreakerConnection.State.OPEN, connection.getState(SNAPSHOT));
+        CircuitOpenException open = assertThrows(CircuitOpenException.class, () -> connection.getJSON(SNAPSHOT));
+        assertEquals(TimeUnit.SECONDS.toNanos(10), open.getNanosUntilRetry());
+        assertEquals(3, degraded.calls);
+
+        // Other endpoints are unaffected, and answered errors do not count
+        connection.getJSON(PRICE).close();
+        assertEquals(CircuitBreakerConnection.State.CLOSED, connection.getState(PRICE));
+        assertFalse(CircuitBreakerConnection.isFailure(new HttpStatusException("missing", 404)));
+
+        // A failed probe opens the breaker again
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(CircuitBreakerConnection.State.HALF_OPEN, connection.getState(SNAPSHOT));
+        assertThrows(SocketTimeoutException.class, () -> connection.getJSON(SNAPSHOT));
+        assertThrows(CircuitOpenException.class, () -> connection.getJSON(SNAPSHOT));
+        assertEquals(5, degraded.calls);
+
+        // A successful probe closes it
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        degraded.down = false;
+        connection.getJSON(SNAPSHOT).close();
+        assertEquals(CircuitBreakerConnection.State.CLOSED, connection.getState(SNAPSHOT));
+        assertEquals(2, connection.getOpenedCount());
+        assertEquals(2, connection.getRejectedCount());
+    }
+
+    @Test
+    void shouldServeStaleResponsesWhileOpen() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        DegradedConnection degraded = new DegradedConnection();
+        degraded.down = false;
+        CircuitBreakerConnection breaker = new CircuitBreakerConnection(degraded, CircuitBreakerConnection.Scope.HOST, clock::get);
+        breaker.setFailureThreshold(1);
+        breaker.setOpenTime(2, TimeUnit.HOURS);
+        CachingConnection cache = new CachingConnection(breaker, 16, CachingConnection.EvictionPolicy.LRU, clock::get);
+        cache.setTtl("/api/data/coinsnapshot/", 1, TimeUnit.MINUTES);
+        cache.setMaxStale(1, TimeUnit.HOURS);
+
+        String fresh = cache.getJSON(SNAPSHOT, CallTypes.OTHER, READ);
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        degraded.down = true;
+
+        // The first failure opens the breaker and is thrown, then the stale response is served
+        assertThrows(SocketTimeoutException.class, () -> cache.getJSON(SNAPSHOT, CallTypes.OTHER, READ));
+        assertSame(fresh, cache.getJSON(SNAPSHOT, CallTypes.OTHER, READ));
+        assertEquals(1, cache.getStaleHitCount());
+
+        // A host breaker also covers the host's other endpoints, which have nothing cached
+        assertThrows(CircuitOpenException.class, () -> cache.getJSON(
+                "https://www.cryptocompare.com/api/data/socialstats/?id=1182", CallTypes.OTHER, READ));
+
+        clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+        assertThrows(CircuitOpenException.class, () -> cache.getJSON(SNAPSHOT, CallTypes.OTHER, READ));
+    }
+}
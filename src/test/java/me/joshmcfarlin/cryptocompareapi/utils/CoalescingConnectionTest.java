@@ -0,0 +1,109 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingConnectionTest {
+    /**
+     * Blocks every request until released
+     */
+    private static class GatedConnection implements Connection {
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile IOException failure;
+
+        @Override
+        public Reader getJSON(String urlString) throws IOException {
+            calls.incrementAndGet();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            if (failure != null) throw failure;
+            return new StringReader("{\"url\":\"" + urlString + "\"}");
+        }
+    }
+
+    private static List<Future<String>> callConcurrently(ExecutorService executor, Connection connection, int count) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(executor.submit(() -> {
+                try (BufferedReader r = new BufferedReader(connection.getJSON("https://example.com/price"))) {
+                    return r.readLine();
+                }
+            }));
+        }
+        return results;
+    }
+
+    private static void awaitCoalesced(CoalescingConnection connection, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (connection.getCoalescedCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void shouldShareOneRequestBetweenConcurrentCalls() throws Exception {
+        GatedConnection delegate = new GatedConnection();
+        CoalescingConnection connection = new CoalescingConnection(delegate);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = callConcurrently(executor, connection, 8);
+            awaitCoalesced(connection, 7);
+            delegate.gate.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("{\"url\":\"https://example.com/price\"}", result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, delegate.calls.get());
+
+            connection.getJSON("https://example.com/price").close();
+            assertEquals(2, delegate.calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldShareFailures() throws Exception {
+        GatedConnection delegate = new GatedConnection();
+        delegate.failure = new IOException("down");
+        CoalescingConnection connection = new CoalescingConnection(delegate);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = callConcurrently(executor, connection, 4);
+            awaitCoalesced(connection, 3);
+            delegate.gate.countDown();
+
+            for (Future<String> result : results) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+                assertEquals("down", e.getCause().getMessage());
+            }
+            assertEquals(1, delegate.calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldOnlyCopyResponsesSomeoneWaitsFor() throws Exception {
+        Reader response = new StringReader("{}");
+        CoalescingConnection connection = new CoalescingConnection(urlString -> response);
+
+        assertSame(response, connection.getJSON("https://example.com/price"));
+        assertEquals(1, connection.getRequestCount());
+        assertEquals(0, connection.getCoalescedCount());
+    }
+}
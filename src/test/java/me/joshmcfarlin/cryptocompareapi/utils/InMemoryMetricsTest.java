@@ -0,0 +1,70 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.HttpStatusException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryMetricsTest {
+    @Test
+    void shouldBucketLatencies() {
+        for (long value : new long[]{0, 3, 4, 7, 8, 1000, 123_456_789, 1L << 47}) {
+            int bucket = InMemoryMetrics.Histogram.bucket(value);
+            assertTrue(value <= InMemoryMetrics.Histogram.upperBound(bucket));
+            assertTrue(bucket == 0 || value > InMemoryMetrics.Histogram.upperBound(bucket - 1));
+        }
+
+        InMemoryMetrics.Histogram histogram = new InMemoryMetrics.Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(50_500, histogram.getMean(), 0.001);
+        assertEquals(100_000, histogram.getMax());
+        long p50 = histogram.getPercentile(0.5);
+        assertTrue(p50 >= 50_000 && p50 <= 62_500, "p50 was " + p50);
+        assertEquals(100_000, histogram.getPercentile(1));
+    }
+
+    @Test
+    void shouldRecordCallsThroughTheConnections() throws Exception {
+        try (MockServer server = new MockServer().start()) {
+            InMemoryMetrics metrics = new InMemoryMetrics();
+            HttpConnection http = new HttpConnection();
+            http.setBaseUrl(server.getBaseUrl());
+            http.setMetrics(metrics);
+            CachingConnection cache = new CachingConnection(http);
+            cache.setMetrics(metrics);
+            cache.setTtl("/data/price", 10, TimeUnit.SECONDS);
+            Connection connection = new MeteredConnection(cache, metrics);
+            RateLimiting.setConnection(http);
+            String url = "https://min-api.cryptocompare.com/data/price?fsym=BTC&tsyms=USD";
+            try {
+                for (int i = 0; i < 3; i++) {
+                    connection.getJSON(url, CallTypes.PRICE, r -> new BufferedReader(r).lines().collect(Collectors.joining()));
+                }
+
+                InMemoryMetrics.Stats price = metrics.getStats("/data/price");
+                assertEquals(3, price.getLatency(Metrics.Phase.TOTAL).getCount());
+                assertEquals(1, price.getLatency(Metrics.Phase.PARSE).getCount());
+                assertEquals(1, price.getLatency(Metrics.Phase.FIRST_BYTE).getCount());
+                assertTrue(price.getBytes() > 0);
+                assertEquals(2.0 / 3, price.getCacheHitRate(), 0.001);
+                assertEquals(1, metrics.getStats(CallTypes.PRICE).getLatency(Metrics.Phase.READ).getCount());
+
+                server.setErrorRate(1);
+                String other = "https://min-api.cryptocompare.com/data/price?fsym=ETH&tsyms=USD";
+                assertThrows(HttpStatusException.class, () -> connection.getJSON(other, CallTypes.PRICE, r -> null));
+                assertEquals(1, price.getFailures());
+                assertEquals(0, price.getThrottled());
+                assertTrue(metrics.toString().startsWith("/data/price calls=3"));
+            } finally {
+                RateLimiting.setConnection(new HttpConnection());
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrTest {
+    @Test
+    void shouldTemplateUrls() {
+        assertEquals("/data/price?fsym={}&tsyms={}",
+                Jfr.template("https://min-api.cryptocompare.com/data/price?fsym=BTC&tsyms=USD,EUR"));
+        assertEquals("/data/all/coinlist", Jfr.template("https://min-api.cryptocompare.com/data/all/coinlist"));
+        assertEquals("/data/v2/news/?lang={}", Jfr.template("https://min-api.cryptocompare.com/data/v2/news/?&lang=EN"));
+    }
+
+    @Test
+    void shouldRecordRequestAndParseEvents() throws Exception {
+        assertTrue(Jfr.AVAILABLE);
+        Path file = Files.createTempFile("cryptocompare", ".jfr");
+        try (MockServer server = new MockServer().start(); Recording recording = new Recording()) {
+            recording.enable("me.joshmcfarlin.cryptocompareapi.ApiRequest");
+            recording.enable("me.joshmcfarlin.cryptocompareapi.ApiParse");
+            recording.start();
+
+            HttpConnection connection = new HttpConnection();
+            connection.setBaseUrl(server.getBaseUrl());
+            RateLimiting.setConnection(connection);
+            try {
+                connection.getJSON("https://min-api.cryptocompare.com/data/price?fsym=BTC&tsyms=USD", CallTypes.PRICE,
+                        r -> new BufferedReader(r).lines().collect(Collectors.joining()));
+            } finally {
+                RateLimiting.setConnection(new HttpConnection());
+            }
+
+            recording.stop();
+            recording.dump(file);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+            RecordedEvent request = events.stream()
+                    .filter(e -> e.getEventType().getName().endsWith("ApiRequest") && "PRICE".equals(e.getString("callType")))
+                    .findFirst().orElseThrow(AssertionError::new);
+            assertEquals("/data/price", request.getString("endpoint"));
+            assertEquals("/data/price?fsym={}&tsyms={}", request.getString("urlTemplate"));
+            assertEquals(200, request.getInt("status"));
+            assertTrue(request.getLong("bytes") > 0);
+
+            RecordedEvent parse = events.stream()
+                    .filter(e -> e.getEventType().getName().endsWith("ApiParse"))
+                    .findFirst().orElseThrow(AssertionError::new);
+            assertEquals("/data/price", parse.getString("endpoint"));
+            assertEquals(String.class.getName(), parse.getClass("resultType").getName());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
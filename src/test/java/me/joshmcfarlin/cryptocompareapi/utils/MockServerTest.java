@@ -0,0 +1,82 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import me.joshmcfarlin.cryptocompareapi.Coins;
+import me.joshmcfarlin.cryptocompareapi.CryptoCompareAPI;
+import me.joshmcfarlin.cryptocompareapi.Exchanges;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.HttpStatusException;
+import me.joshmcfarlin.cryptocompareapi.Historic;
+import me.joshmcfarlin.cryptocompareapi.Market;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockServerTest {
+    @Test
+    void shouldServeEveryEndpointOffline() throws Exception {
+        try (MockServer server = new MockServer().start()) {
+            HttpConnection connection = new HttpConnection();
+            connection.setBaseUrl(server.getBaseUrl() + "/");
+            RateLimiting.setConnection(connection);
+            server.setLimit(IntervalTypes.HOUR, 1000);
+            try {
+                Map<String, Double> prices = new Market(connection).getPrice("BTC", "USD,EUR");
+                assertEquals(2, prices.size());
+                assertEquals(prices.get("USD"), new Market(connection).getMultiPrice("BTC", "USD").get("BTC").get("USD"));
+
+                Historic.History history = new Historic(connection).getDay("BTC", "USD", 5);
+                assertEquals(6, history.getData().size());
+                assertEquals("Bitcoin", new Coins(connection).getCoinList().getCoins().get("BTC").getCoinName());
+
+                RateLimiting.Rates rates = RateLimiting.getRates();
+                assertNull(rates.getSecond());
+                assertEquals(Integer.valueOf(3), rates.getInterval(IntervalTypes.HOUR).getCallsMade().getPrice());
+                assertEquals(Integer.valueOf(999), rates.getInterval(IntervalTypes.HOUR).getCallsLeft().getHisto());
+            } finally {
+                RateLimiting.setConnection(new HttpConnection());
+            }
+        }
+    }
+
+    @Test
+    void shouldInjectErrorsAndThrottling() throws Exception {
+        try (MockServer server = new MockServer().start()) {
+            HttpConnection connection = new HttpConnection();
+            connection.setBaseUrl(server.getBaseUrl());
+            String url = "https://min-api.cryptocompare.com/data/price?fsym=BTC&tsyms=USD";
+
+            server.setLimit(IntervalTypes.MINUTE, 2);
+            connection.getJSON(url).close();
+            connection.getJSON(url).close();
+            HttpStatusException throttled = assertThrows(HttpStatusException.class, () -> connection.getJSON(url));
+            assertEquals(429, throttled.getStatusCode());
+            assertEquals(1, server.getThrottledCount());
+
+            server.setLimit(IntervalTypes.MINUTE, -1).setErrorRate(1);
+            assertEquals(500, assertThrows(HttpStatusException.class, () -> connection.getJSON(url)).getStatusCode());
+            assertEquals(4, server.getRequestCount());
+        }
+    }
+
+    @Test
+    void shouldKeepWorkingAfterCachingThroughTheDefaultConnections() throws Exception {
+        try (MockServer server = new MockServer().start()) {
+            System.setProperty(HttpConnection.BASE_URL_PROPERTY, server.getBaseUrl());
+            RateLimiting.setConnection(new HttpConnection());
+            try {
+                CryptoCompareAPI api = new CryptoCompareAPI();
+                Exchanges.ExchangeList exchanges = api.exchanges.getAllExchanges();
+                assertFalse(exchanges.getExchanges().isEmpty());
+                assertSame(exchanges, api.exchanges.getAllExchanges());
+
+                // Caching the list must leave the connections it was requested through working
+                assertEquals(1, api.market.getPrice("BTC", "USD").size());
+                assertEquals(1, api.market.getPrice("ETH", "USD").size());
+            } finally {
+                System.clearProperty(HttpConnection.BASE_URL_PROPERTY);
+                RateLimiting.setConnection(new HttpConnection());
+            }
+        }
+    }
+}
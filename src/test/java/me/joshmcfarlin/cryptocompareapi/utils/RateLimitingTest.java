@@ -0,0 +1,53 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitingTest {
+    /**
+     * Answers rate limit requests with plenty of calls left of every type, or fails once down
+     */
+    private static class RatesConnection implements Connection {
+        private volatile boolean down;
+        private int requests;
+
+        @Override
+        public Reader getJSON(String urlString) throws IOException {
+            requests++;
+            if (down) throw new IOException("down");
+            String usage = "{\"Histo\":%1$d,\"Price\":%1$d,\"News\":%1$d,\"Strict\":%1$d}";
+            String interval = "{\"CallsMade\":" + String.format(usage, 0) + ",\"CallsLeft\":" + String.format(usage, 100000) + "}";
+            return new StringReader("{\"Hour\":" + interval + ",\"Minute\":" + interval + ",\"Second\":" + interval + "}");
+        }
+    }
+
+    @Test
+    void shouldKeepTheLastBucketsWhenASyncFails() throws Exception {
+        RatesConnection connection = new RatesConnection();
+        RateLimiting.setConnection(connection);
+        try {
+            RateLimiting.sync();
+            assertEquals(100000, RateLimiting.getCallsLeft(CallTypes.PRICE, IntervalTypes.MINUTE));
+
+            connection.down = true;
+            RateLimiting.setSyncInterval(0, TimeUnit.SECONDS);
+            assertTrue(RateLimiting.callable(CallTypes.PRICE));
+            assertEquals(99999, RateLimiting.getCallsLeft(CallTypes.PRICE, IntervalTypes.MINUTE));
+
+            // A failed sync waits for the next interval before it is tried again
+            RateLimiting.setSyncInterval(1, TimeUnit.MINUTES);
+            int requests = connection.requests;
+            assertTrue(RateLimiting.callable(CallTypes.PRICE));
+            assertEquals(requests, connection.requests);
+        } finally {
+            RateLimiting.setSyncInterval(1, TimeUnit.MINUTES);
+            RateLimiting.setConnection(new HttpConnection());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import me.joshmcfarlin.cryptocompareapi.Exceptions.ConnectTimeoutException;
+import me.joshmcfarlin.cryptocompareapi.Exceptions.HttpStatusException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryingConnectionTest {
+    private static final String URL = "https://min-api.cryptocompare.com/data/price?fsym=BTC&tsyms=USD";
+
+    /**
+     * Fails with the queued exceptions, then succeeds
+     */
+    private static class FlakyConnection implements Connection {
+        private final Deque<IOException> failures = new ArrayDeque<>();
+        private int calls;
+
+        @Override
+        public Reader getJSON(String urlString) throws IOException {
+            calls++;
+            IOException failure = failures.poll();
+            if (failure != null) throw failure;
+            return new StringReader("{}");
+        }
+    }
+
+    @Test
+    void shouldRetryTransientFailuresWithJitteredBackoff() throws Exception {
+        FlakyConnection flaky = new FlakyConnection();
+        List<Long> sleeps = new ArrayList<>();
+        RetryingConnection connection = new RetryingConnection(flaky, sleeps::add, () -> 0.5);
+        connection.setDelay(100, 300, TimeUnit.NANOSECONDS);
+        connection.setMaxAttempts(4);
+
+        flaky.failures.addAll(Arrays.asList(new ConnectException(), new HttpStatusException("busy", 503),
+                new HttpStatusException("slow down", 429)));
+        connection.getJSON(URL).close();
+        assertEquals(4, flaky.calls);
+        assertEquals(Arrays.asList(50L, 100L, 150L), sleeps);
+        assertEquals(3, connection.getRetryCount());
+
+        flaky.failures.add(new HttpStatusException("missing", 404));
+        assertEquals(404, assertThrows(HttpStatusException.class, () -> connection.getJSON(URL)).getStatusCode());
+        assertEquals(5, flaky.calls);
+
+        connection.setMaxAttempts(2);
+        flaky.failures.addAll(Arrays.asList(new ConnectException(), new ConnectException()));
+        assertThrows(ConnectException.class, () -> connection.getJSON(URL));
+        assertEquals(7, flaky.calls);
+    }
+
+    @Test
+    void shouldStopRetryingWhenTheBudgetIsSpent() throws Exception {
+        FlakyConnection flaky = new FlakyConnection();
+        RetryingConnection connection = new RetryingConnection(flaky, nanos -> { }, () -> 0);
+        connection.setBudget(0.5, 2);
+        connection.setMaxAttempts(2);
+
+        for (int i = 0; i < 3; i++) {
+            flaky.failures.addAll(Arrays.asList(new HttpStatusException("down", 500), new HttpStatusException("down", 500)));
+            assertThrows(HttpStatusException.class, () -> connection.getJSON(URL));
+            flaky.failures.clear();
+        }
+        // The third call could not retry
+        assertEquals(5, flaky.calls);
+        assertEquals(1, connection.getExhaustedCount());
+        assertEquals(0, connection.getBudget("/data/price"), 0.001);
+
+        // Two successful calls earn another retry
+        connection.getJSON(URL).close();
+        connection.getJSON(URL).close();
+        assertEquals(1, connection.getBudget("/data/price"), 0.001);
+        assertEquals(2, connection.getBudget("/data/histoday"), 0.001);
+    }
+
+    @Test
+    void shouldOnlyRetryFailuresBeforeTheRequestWasSent() {
+        assertTrue(RetryingConnection.isRetryable(new ConnectException()));
+        assertTrue(RetryingConnection.isRetryable(new UnknownHostException("min-api.cryptocompare.com")));
+        assertTrue(RetryingConnection.isRetryable(new ConnectTimeoutException("connect timed out", new SocketTimeoutException())));
+        assertTrue(RetryingConnection.isRetryable(new HttpStatusException("busy", 429)));
+        assertFalse(RetryingConnection.isRetryable(new SocketTimeoutException("Read timed out")));
+        assertFalse(RetryingConnection.isRetryable(new HttpStatusException("missing", 404)));
+    }
+}
@@ -0,0 +1,27 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolTableTest {
+    @Test
+    void shouldAssignDenseIdsAndCanonicalNames() {
+        SymbolTable table = new SymbolTable();
+        String btc = "BTC";
+
+        assertEquals(0, table.id(btc));
+        assertEquals(1, table.id("USD"));
+        assertEquals(0, table.id(new String("BTC")));
+        assertSame(btc, table.intern(new String("BTC")));
+        assertEquals(-1, table.find("ETH"));
+        assertNull(table.intern(null));
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i + 2, table.id("C" + i));
+        }
+        assertEquals("C999", table.name(1001));
+        assertEquals(1002, table.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> table.name(1002));
+    }
+}
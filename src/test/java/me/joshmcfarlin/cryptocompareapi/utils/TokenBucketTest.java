@@ -0,0 +1,35 @@
+package me.joshmcfarlin.cryptocompareapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void shouldOnlyHandOutSeededTokens() {
+        TokenBucket bucket = new TokenBucket(60, 2, MINUTE, 0);
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertFalse(bucket.tryAcquire(0));
+    }
+
+    @Test
+    void shouldRefillOverTime() {
+        TokenBucket bucket = new TokenBucket(60, 0, MINUTE, 0);
+        assertFalse(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(TimeUnit.SECONDS.toNanos(1)));
+        assertEquals(60, bucket.available(TimeUnit.MINUTES.toNanos(5)));
+    }
+
+    @Test
+    void shouldReturnReleasedTokens() {
+        TokenBucket bucket = new TokenBucket(1, 1, MINUTE, 0);
+        assertTrue(bucket.tryAcquire(0));
+        bucket.release();
+        assertEquals(1, bucket.available(0));
+    }
+}